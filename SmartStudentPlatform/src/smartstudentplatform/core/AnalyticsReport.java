@@ -0,0 +1,196 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Whole-term statistics computed in one pass over the roster: per course
+ * count / mean / standard deviation / min / max / pass rate, plus each
+ * student's mean score.
+ *
+ * The roster is split fork-join style; every leaf fills its own accumulators
+ * (Welford running mean and M2) and sibling results are merged pairwise on the
+ * way back up, so no accumulator is ever shared between threads.
+ */
+public class AnalyticsReport {
+    public static final double DEFAULT_PASS_MARK = 40.0;
+
+    public static final class CourseStats {
+        private final String code;
+        private final int count;
+        private final double mean, stdDev, min, max, passRate;
+
+        CourseStats(String code, int count, double mean, double stdDev, double min, double max, double passRate) {
+            this.code = code;
+            this.count = count;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.min = min;
+            this.max = max;
+            this.passRate = passRate;
+        }
+
+        public String getCode() { return code; }
+        public int getCount() { return count; }
+        public double getMean() { return mean; }
+        public double getStdDev() { return stdDev; } // population standard deviation
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getPassRate() { return passRate; } // 0..1
+
+        @Override
+        public String toString() {
+            return String.format("%s n=%d mean=%.2f sd=%.2f min=%.1f max=%.1f pass=%.0f%%",
+                    code, count, mean, stdDev, min, max, passRate * 100);
+        }
+    }
+
+    private final double passMark;
+    private final Map<String, CourseStats> courses;   // sorted by course code
+    private final Map<String, Double> studentMeans;   // roster order, students with grades only
+
+    private AnalyticsReport(double passMark, Map<String, CourseStats> courses, Map<String, Double> studentMeans) {
+        this.passMark = passMark;
+        this.courses = Collections.unmodifiableMap(courses);
+        this.studentMeans = Collections.unmodifiableMap(studentMeans);
+    }
+
+    public double getPassMark() { return passMark; }
+    public Map<String, CourseStats> getCourses() { return courses; }
+    public Map<String, Double> getStudentMeans() { return studentMeans; }
+
+    /* -------- Computation -------- */
+    static AnalyticsReport compute(List<Student> roster, int parallelism, double passMark) {
+        Builder b = new Builder(parallelism, passMark);
+        b.add(roster);
+        return b.build();
+    }
+
+    /** Builds a report a chunk of the roster at a time, for rosters that are streamed rather than held (StoredRoster). */
+    static final class Builder {
+        private final int parallelism;
+        private final double passMark;
+        private final Map<String, Acc> accs = new HashMap<>();
+        private final Map<String, Double> studentMeans = new LinkedHashMap<>();
+
+        Builder(int parallelism, double passMark) {
+            if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+            this.parallelism = parallelism;
+            this.passMark = passMark;
+        }
+
+        void add(List<Student> chunk) {
+            if (chunk.isEmpty()) return;
+            Student[] students = chunk.toArray(new Student[0]); // snapshot, safe to index from workers
+            double[] means = new double[students.length];
+            int leaf = Math.max(256, students.length / (parallelism * 8));
+
+            Map<String, Acc> part;
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                part = pool.invoke(new Pass(students, means, 0, students.length, leaf, passMark));
+            } finally {
+                pool.shutdown();
+            }
+            for (Map.Entry<String, Acc> e : part.entrySet()) {
+                Acc mine = accs.get(e.getKey());
+                if (mine == null) accs.put(e.getKey(), e.getValue());
+                else mine.merge(e.getValue());
+            }
+            for (int i = 0; i < students.length; i++) {
+                if (!Double.isNaN(means[i])) studentMeans.put(students[i].getId(), means[i]);
+            }
+        }
+
+        AnalyticsReport build() {
+            Map<String, CourseStats> courses = new TreeMap<>();
+            for (Map.Entry<String, Acc> e : accs.entrySet()) {
+                Acc a = e.getValue();
+                courses.put(e.getKey(), new CourseStats(e.getKey(), a.n, a.mean, Math.sqrt(a.m2 / a.n),
+                        a.min, a.max, (double) a.passed / a.n));
+            }
+            return new AnalyticsReport(passMark, courses, studentMeans);
+        }
+    }
+
+    // Per-course running statistics
+    private static final class Acc {
+        int n, passed;
+        double mean, m2;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        void add(double x, double passMark) {
+            n++;
+            double d = x - mean;
+            mean += d / n;
+            m2 += d * (x - mean);
+            if (x < min) min = x;
+            if (x > max) max = x;
+            if (x >= passMark) passed++;
+        }
+
+        void merge(Acc o) { // Chan et al. parallel combination
+            int total = n + o.n;
+            double d = o.mean - mean;
+            mean += d * o.n / total;
+            m2 += o.m2 + d * d * ((double) n * o.n / total);
+            n = total;
+            passed += o.passed;
+            min = Math.min(min, o.min);
+            max = Math.max(max, o.max);
+        }
+    }
+
+    private static final class Pass extends RecursiveTask<Map<String, Acc>> {
+        private final Student[] students;
+        private final double[] means; // each index written by exactly one leaf
+        private final int from, to, leaf;
+        private final double passMark;
+
+        Pass(Student[] students, double[] means, int from, int to, int leaf, double passMark) {
+            this.students = students;
+            this.means = means;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.passMark = passMark;
+        }
+
+        @Override
+        protected Map<String, Acc> compute() {
+            if (to - from <= leaf) return scan();
+            int mid = (from + to) >>> 1;
+            Pass left = new Pass(students, means, from, mid, leaf, passMark);
+            left.fork();
+            Map<String, Acc> right = new Pass(students, means, mid, to, leaf, passMark).compute();
+            Map<String, Acc> merged = left.join();
+            // fold the smaller map into the larger one
+            if (merged.size() < right.size()) { Map<String, Acc> t = merged; merged = right; right = t; }
+            for (Map.Entry<String, Acc> e : right.entrySet()) {
+                Acc mine = merged.get(e.getKey());
+                if (mine == null) merged.put(e.getKey(), e.getValue());
+                else mine.merge(e.getValue());
+            }
+            return merged;
+        }
+
+        private Map<String, Acc> scan() {
+            Map<String, Acc> local = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                Map<String, Double> grades = students[i].getGrades();
+                if (grades.isEmpty()) { means[i] = Double.NaN; continue; }
+                double sum = 0;
+                for (Map.Entry<String, Double> g : grades.entrySet()) {
+                    double x = g.getValue();
+                    sum += x;
+                    local.computeIfAbsent(g.getKey(), k -> new Acc()).add(x, passMark);
+                }
+                means[i] = sum / grades.size();
+            }
+            return local;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Students bucketed by CGPA in hundredths (0.00 .. 5.00, out-of-range values
+ * in the end buckets), with a Fenwick tree over the bucket sizes.
+ *
+ * count(lo, hi) is O(log buckets) plus an exact check of the two edge buckets;
+ * list(lo, hi) touches only the buckets in range, so its cost follows the size
+ * of the answer rather than the roster. Kept current by StudentManager.
+ */
+public final class CgpaIndex {
+    public static final double MAX_CGPA = 5.0;
+    private static final int BUCKETS = (int) Math.round(MAX_CGPA * 100) + 1;
+
+    /** A named standing band: CGPA from min (inclusive) up to the next band's min. */
+    public static final class Band {
+        private final String name;
+        private final double min;
+
+        public Band(String name, double min) {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("Band name is required");
+            this.name = name.trim();
+            this.min = min;
+        }
+
+        public String getName() { return name; }
+        public double getMin() { return min; }
+
+        @Override public String toString() { return name + ":" + String.format("%.2f", min); }
+
+        /** "First Class:4.50, Second Class Upper:3.50, ..." (the format toString writes). */
+        public static List<Band> parseAll(String text) {
+            List<Band> bands = new ArrayList<>();
+            for (String part : text.split(",")) {
+                if (part.isBlank()) continue;
+                int colon = part.lastIndexOf(':');
+                if (colon < 0) throw new IllegalArgumentException("Expected name:minimum, got \"" + part.trim() + "\"");
+                try {
+                    bands.add(new Band(part.substring(0, colon), Double.parseDouble(part.substring(colon + 1).trim())));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Bad minimum in \"" + part.trim() + "\"");
+                }
+            }
+            return bands;
+        }
+    }
+
+    /** Class of degree on the 5-point scale. */
+    public static final List<Band> DEFAULT_BANDS = List.of(
+            new Band("First Class", 4.50),
+            new Band("Second Class Upper", 3.50),
+            new Band("Second Class Lower", 2.40),
+            new Band("Third Class", 1.50),
+            new Band("Pass", 1.00),
+            new Band("Probation", 0.00));
+
+    private final long[] tree = new long[BUCKETS + 1]; // Fenwick tree, 1-based
+    private final Set<Student>[] members;               // Student has identity equality
+    private final Map<Student, Double> indexed = new IdentityHashMap<>(); // CGPA each student was filed under
+    private List<Band> bands = DEFAULT_BANDS;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    CgpaIndex() {
+        members = new Set[BUCKETS];
+    }
+
+    private static int bucket(double cgpa) {
+        if (!(cgpa > 0)) return 0; // also NaN
+        return (int) Math.min(BUCKETS - 1, Math.floor(cgpa * 100 + 1e-9));
+    }
+
+    /* -------- Maintenance (StudentManager) -------- */
+    void add(Student s) {
+        int b = bucket(s.getCgpa());
+        if (members[b] == null) members[b] = new HashSet<>();
+        if (!members[b].add(s)) return;
+        indexed.put(s, s.getCgpa());
+        update(b, 1);
+    }
+
+    void remove(Student s) {
+        Double filed = indexed.remove(s);
+        if (filed == null) return;
+        int b = bucket(filed);
+        members[b].remove(s);
+        update(b, -1);
+    }
+
+    /** Re-file s after its CGPA changed. */
+    void moved(Student s) {
+        remove(s);
+        add(s);
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0);
+        Arrays.fill(members, null);
+        indexed.clear();
+    }
+
+    private void update(int bucket, int delta) {
+        for (int i = bucket + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // Students in buckets [0, bucket)
+    private long prefix(int bucket) {
+        long sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    /* -------- Queries -------- */
+    public int size() { return indexed.size(); }
+
+    /** Students with lo <= CGPA <= hi. */
+    public int count(double lo, double hi) {
+        if (lo > hi) return 0;
+        int bLo = bucket(lo), bHi = bucket(hi);
+        if (bLo == bHi) return exactCount(bLo, lo, hi);
+        long inner = prefix(bHi) - prefix(bLo + 1); // buckets strictly between the edges
+        return (int) inner + exactCount(bLo, lo, hi) + exactCount(bHi, lo, hi);
+    }
+
+    /** Students with lo <= CGPA < hi. */
+    public int countBelow(double lo, double hi) {
+        return count(lo, hi) - count(hi, hi);
+    }
+
+    // Edge buckets may hold values just outside [lo, hi]
+    private int exactCount(int b, double lo, double hi) {
+        if (members[b] == null) return 0;
+        int n = 0;
+        for (Student s : members[b]) {
+            double v = indexed.get(s);
+            if (v >= lo && v <= hi) n++;
+        }
+        return n;
+    }
+
+    /** Students with lo <= CGPA <= hi, highest CGPA first. */
+    public List<Student> list(double lo, double hi) {
+        return list(lo, hi, true);
+    }
+
+    private List<Student> list(double lo, double hi, boolean inclusiveHi) {
+        List<Student> out = new ArrayList<>();
+        if (lo > hi) return out;
+        for (int b = bucket(hi); b >= bucket(lo); b--) {
+            if (members[b] == null || members[b].isEmpty()) continue;
+            int from = out.size();
+            for (Student s : members[b]) {
+                double v = indexed.get(s);
+                if (v >= lo && (inclusiveHi ? v <= hi : v < hi)) out.add(s);
+            }
+            out.subList(from, out.size()).sort(Comparator.comparingDouble(Student::getCgpa).reversed()
+                    .thenComparing(Student::getId));
+        }
+        return out;
+    }
+
+    /* -------- Standing bands -------- */
+    public List<Band> getBands() { return bands; }
+
+    /** Bands in any order; they are kept highest minimum first. Names must be unique. */
+    public void setBands(List<Band> newBands) { bands = sortBands(newBands); }
+
+    // Validated, highest minimum first (shared with StoredRoster)
+    static List<Band> sortBands(List<Band> newBands) {
+        if (newBands.isEmpty()) throw new IllegalArgumentException("At least one band is required");
+        List<Band> sorted = new ArrayList<>(newBands);
+        sorted.sort(Comparator.comparingDouble(Band::getMin).reversed());
+        Set<String> names = new HashSet<>();
+        for (Band b : sorted) {
+            if (!names.add(b.getName())) throw new IllegalArgumentException("Duplicate band " + b.getName());
+        }
+        return List.copyOf(sorted);
+    }
+
+    // [min, upper) of the band at position i; the top band is open-ended, the bottom one takes everything below
+    private double upper(int i) { return i == 0 ? Double.POSITIVE_INFINITY : bands.get(i - 1).getMin(); }
+    private double lower(int i) { return i == bands.size() - 1 ? Double.NEGATIVE_INFINITY : bands.get(i).getMin(); }
+
+    /** Band name -> number of students, highest band first. */
+    public Map<String, Integer> standingBreakdown() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < bands.size(); i++) out.put(bands.get(i).getName(), countBelow(lower(i), upper(i)));
+        return out;
+    }
+
+    /** Members of one band, highest CGPA first. */
+    public List<Student> studentsIn(String bandName) {
+        for (int i = 0; i < bands.size(); i++) {
+            if (bands.get(i).getName().equals(bandName)) return list(lower(i), upper(i), false);
+        }
+        throw new NoSuchElementException("No standing band " + bandName);
+    }
+}
@@ -0,0 +1,96 @@
+package smartstudentplatform.core;
+
+import java.util.*;
+
+/**
+ * Course by course comparison of two groups of students (say, two entry years
+ * or two departments) on a ScoreMatrix: count, mean and standard deviation in
+ * each, the difference of means and Welch's t for it. One pass over the scores.
+ */
+public final class CohortComparison {
+
+    public static final class CourseDiff {
+        private final String code;
+        private final int countA, countB;
+        private final double meanA, meanB, sdA, sdB;
+
+        CourseDiff(String code, int countA, double meanA, double sdA, int countB, double meanB, double sdB) {
+            this.code = code;
+            this.countA = countA;
+            this.meanA = meanA;
+            this.sdA = sdA;
+            this.countB = countB;
+            this.meanB = meanB;
+            this.sdB = sdB;
+        }
+
+        public String getCode() { return code; }
+        public int getCountA() { return countA; }
+        public int getCountB() { return countB; }
+        public double getMeanA() { return meanA; }  // NaN if no scores
+        public double getMeanB() { return meanB; }
+        public double getSdA() { return sdA; }      // sample standard deviation
+        public double getSdB() { return sdB; }
+        public double getDifference() { return meanA - meanB; }
+
+        /** Welch's t for meanA - meanB; NaN unless both groups have two or more scores. */
+        public double getWelchT() {
+            double se = Math.sqrt(sdA * sdA / countA + sdB * sdB / countB);
+            return countA > 1 && countB > 1 && se > 0 ? (meanA - meanB) / se : Double.NaN;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s A n=%d mean=%.2f, B n=%d mean=%.2f, diff=%.2f t=%.2f",
+                    code, countA, meanA, countB, meanB, getDifference(), getWelchT());
+        }
+    }
+
+    private final int sizeA, sizeB;
+    private final List<CourseDiff> courses;
+
+    private CohortComparison(int sizeA, int sizeB, List<CourseDiff> courses) {
+        this.sizeA = sizeA;
+        this.sizeB = sizeB;
+        this.courses = Collections.unmodifiableList(courses);
+    }
+
+    public int getSizeA() { return sizeA; } // students in each cohort
+    public int getSizeB() { return sizeB; }
+
+    /** Courses taken by either cohort, in code order. */
+    public List<CourseDiff> getCourses() { return courses; }
+
+    /** Compare the students in rows cohortA with those in cohortB (ScoreMatrix.rows). */
+    public static CohortComparison compare(ScoreMatrix m, BitSet cohortA, BitSet cohortB) {
+        int courses = m.courseCount();
+        int[] rowStart = m.rowStart(), course = m.course();
+        float[] score = m.score();
+        // per course and cohort: n, mean, M2 (Welford)
+        int[][] n = new int[2][courses];
+        double[][] mean = new double[2][courses], m2 = new double[2][courses];
+        for (int g = 0; g < 2; g++) {
+            BitSet rows = g == 0 ? cohortA : cohortB;
+            for (int row = rows.nextSetBit(0); row >= 0 && row < m.studentCount(); row = rows.nextSetBit(row + 1)) {
+                for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                    int c = course[k];
+                    double x = score[k], d = x - mean[g][c];
+                    mean[g][c] += d / ++n[g][c];
+                    m2[g][c] += d * (x - mean[g][c]);
+                }
+            }
+        }
+        List<CourseDiff> out = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            if (n[0][c] == 0 && n[1][c] == 0) continue;
+            out.add(new CourseDiff(m.courseCode(c),
+                    n[0][c], n[0][c] > 0 ? mean[0][c] : Double.NaN, sd(m2[0][c], n[0][c]),
+                    n[1][c], n[1][c] > 0 ? mean[1][c] : Double.NaN, sd(m2[1][c], n[1][c])));
+        }
+        return new CohortComparison(cohortA.cardinality(), cohortB.cardinality(), out);
+    }
+
+    private static double sd(double m2, int n) {
+        return n > 1 ? Math.sqrt(m2 / (n - 1)) : Double.NaN;
+    }
+}
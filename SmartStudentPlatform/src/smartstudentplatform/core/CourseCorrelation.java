@@ -0,0 +1,314 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.util.CsvWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pearson correlation of scores between every pair of courses, over the
+ * students who took both, plus how many students that is (co-enrollment).
+ *
+ * Works on a ScoreMatrix. The course x course output is cut into BLOCK x BLOCK
+ * tiles and each tile is one fork-join leaf with its own sums (n, x, y, x², y²,
+ * xy per pair, under 1 MB so they stay in cache), fed only by the students who
+ * have a score in the tile's first course block. Tiles never share state, so
+ * there is nothing to merge: a finished tile hands back its pairs.
+ *
+ * Only pairs with at least minOverlap students in common are kept, which
+ * bounds memory by the scores rather than by courses²: a roster with S scores
+ * per student can produce at most n * S * (S - 1) / 2 / minOverlap pairs.
+ */
+public final class CourseCorrelation {
+    public static final int DEFAULT_MIN_OVERLAP = 30;
+    static final int BLOCK = 128;
+
+    public static final class Pair {
+        private final String courseA, courseB;
+        private final int coEnrolled;
+        private final double r, slope;
+
+        Pair(String courseA, String courseB, int coEnrolled, double r, double slope) {
+            this.courseA = courseA;
+            this.courseB = courseB;
+            this.coEnrolled = coEnrolled;
+            this.r = r;
+            this.slope = slope;
+        }
+
+        public String getCourseA() { return courseA; }   // courseA < courseB
+        public String getCourseB() { return courseB; }
+        public int getCoEnrolled() { return coEnrolled; }
+        public double getR() { return r; }               // NaN if either course's scores are constant
+        public double getSlope() { return slope; }       // points in B per point in A (least squares)
+
+        @Override
+        public String toString() {
+            return String.format("%s~%s n=%d r=%.3f slope=%.3f", courseA, courseB, coEnrolled, r, slope);
+        }
+    }
+
+    private final ScoreMatrix matrix;
+    private final int minOverlap;
+    private final int[] a, b, n;     // kept pairs sorted by (a, b)
+    private final float[] r, slope;
+    private final int[] firstOfA;    // pairs of course c as A are firstOfA[c] .. firstOfA[c+1)
+    private final long dropped;      // co-enrolled pairs below minOverlap
+    private final long millis;
+
+    private CourseCorrelation(ScoreMatrix matrix, int minOverlap, int[] a, int[] b, int[] n, float[] r, float[] slope,
+                              long dropped, long millis) {
+        this.matrix = matrix;
+        this.minOverlap = minOverlap;
+        this.a = a;
+        this.b = b;
+        this.n = n;
+        this.r = r;
+        this.slope = slope;
+        this.dropped = dropped;
+        this.millis = millis;
+        this.firstOfA = new int[matrix.courseCount() + 1];
+        for (int c : a) firstOfA[c + 1]++;
+        for (int c = 0; c < matrix.courseCount(); c++) firstOfA[c + 1] += firstOfA[c];
+    }
+
+    public ScoreMatrix getMatrix() { return matrix; }
+    public int getMinOverlap() { return minOverlap; }
+    public int getPairCount() { return a.length; }
+    public long getDroppedPairs() { return dropped; }
+    public long getMillis() { return millis; }
+
+    public Pair get(int i) {
+        return new Pair(matrix.courseCode(a[i]), matrix.courseCode(b[i]), n[i], r[i], slope[i]);
+    }
+
+    /** The pair for two course codes in either order; null if they share fewer than minOverlap students. */
+    public Pair pair(String code1, String code2) {
+        int c1 = matrix.courseIndex(code1), c2 = matrix.courseIndex(code2);
+        if (c1 < 0 || c2 < 0 || c1 == c2) return null;
+        int ca = Math.min(c1, c2), cb = Math.max(c1, c2);
+        int i = Arrays.binarySearch(b, firstOfA[ca], firstOfA[ca + 1], cb);
+        return i >= 0 ? get(i) : null;
+    }
+
+    /** All kept pairs involving code, strongest |r| first. */
+    public List<Pair> partnersOf(String code) {
+        int c = matrix.courseIndex(code);
+        List<Pair> out = new ArrayList<>();
+        if (c < 0) return out;
+        for (int i = firstOfA[c]; i < firstOfA[c + 1]; i++) out.add(get(i));
+        for (int i = 0; i < firstOfA[c]; i++) if (b[i] == c) out.add(get(i));
+        out.sort(STRONGEST_FIRST);
+        return out;
+    }
+
+    /** The k pairs with the largest |r|, strongest first. */
+    public List<Pair> strongest(int k) {
+        if (k <= 0) return new ArrayList<>();
+        // bounded heap of indices keyed on |r|; NaN never enters
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k, Comparator.comparingDouble(i -> Math.abs(r[i])));
+        for (int i = 0; i < r.length; i++) {
+            if (Float.isNaN(r[i])) continue;
+            if (heap.size() < k) heap.add(i);
+            else if (Math.abs(r[i]) > Math.abs(r[heap.peek()])) { heap.poll(); heap.add(i); }
+        }
+        List<Pair> out = new ArrayList<>(heap.size());
+        for (int i : heap) out.add(get(i));
+        out.sort(STRONGEST_FIRST);
+        return out;
+    }
+
+    private static final Comparator<Pair> STRONGEST_FIRST =
+            Comparator.comparingDouble((Pair p) -> Double.isNaN(p.r) ? -1 : Math.abs(p.r)).reversed();
+
+    /** Every kept pair, in course order. */
+    public void exportCsv(File file) throws IOException {
+        try (CsvWriter w = new CsvWriter(file)) {
+            w.write("CourseA,CourseB,CoEnrolled,Pearson,Slope").newline();
+            for (int i = 0; i < a.length; i++) {
+                w.field(matrix.courseCode(a[i])).comma().field(matrix.courseCode(b[i])).comma();
+                w.write(Integer.toString(n[i])).comma().fixed(r[i], 4).comma().fixed(slope[i], 4).newline();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d students, %d courses, %d scores: %d pairs with >= %d shared students (%d below) in %d ms",
+                matrix.studentCount(), matrix.courseCount(), matrix.scoreCount(), a.length, minOverlap, dropped, millis);
+    }
+
+    /* -------- Computation -------- */
+    public static CourseCorrelation compute(ScoreMatrix m, int parallelism, int minOverlap) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        if (minOverlap < 2) throw new IllegalArgumentException("Minimum overlap must be at least 2");
+        long t0 = System.nanoTime();
+        int blocks = (m.courseCount() + BLOCK - 1) / BLOCK;
+        int[][] rowsOf = new int[blocks][], startOf = new int[blocks][];
+        indexBlocks(m, rowsOf, startOf);
+
+        Tile[] tiles = new Tile[blocks * (blocks + 1) / 2];
+        for (int ba = 0, t = 0; ba < blocks; ba++) {
+            for (int bb = ba; bb < blocks; bb++) tiles[t++] = new Tile(ba, bb);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Tiles(m, rowsOf, startOf, tiles, 0, tiles.length, minOverlap));
+        } finally {
+            pool.shutdown();
+        }
+
+        // Tiles are in (A block, B block) order and list their pairs by a then b, so a
+        // stable counting sort on a leaves everything ordered by (a, b).
+        int total = 0;
+        long dropped = 0;
+        int[] slot = new int[m.courseCount() + 1];
+        for (Tile t : tiles) {
+            total += t.a.length;
+            dropped += t.dropped;
+            for (int c : t.a) slot[c + 1]++;
+        }
+        for (int c = 0; c < m.courseCount(); c++) slot[c + 1] += slot[c];
+        int[] a = new int[total], b = new int[total], n = new int[total];
+        float[] r = new float[total], slope = new float[total];
+        for (Tile t : tiles) {
+            for (int i = 0; i < t.a.length; i++) {
+                int at = slot[t.a[i]]++;
+                a[at] = t.a[i];
+                b[at] = t.b[i];
+                n[at] = t.n[i];
+                r[at] = t.r[i];
+                slope[at] = t.slope[i];
+            }
+        }
+        return new CourseCorrelation(m, minOverlap, a, b, n, r, slope, dropped, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // For each course block, the rows with a score in it and where in each row that block starts
+    private static void indexBlocks(ScoreMatrix m, int[][] rowsOf, int[][] startOf) {
+        int[] rowStart = m.rowStart(), course = m.course();
+        int[] count = new int[rowsOf.length];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int row = 0; row < m.studentCount(); row++) {
+                int last = -1;
+                for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                    int blk = course[k] / BLOCK;
+                    if (blk == last) continue;
+                    last = blk;
+                    if (pass == 0) { count[blk]++; continue; }
+                    rowsOf[blk][count[blk]] = row;
+                    startOf[blk][count[blk]++] = k;
+                }
+            }
+            if (pass == 0) {
+                for (int blk = 0; blk < rowsOf.length; blk++) {
+                    rowsOf[blk] = new int[count[blk]];
+                    startOf[blk] = new int[count[blk]];
+                }
+                Arrays.fill(count, 0);
+            }
+        }
+    }
+
+    // One BLOCK x BLOCK piece of the upper triangle, and the pairs found in it
+    private static final class Tile {
+        final int blockA, blockB;
+        int[] a, b, n;
+        float[] r, slope;
+        long dropped;
+
+        Tile(int blockA, int blockB) {
+            this.blockA = blockA;
+            this.blockB = blockB;
+        }
+    }
+
+    private static final class Tiles extends RecursiveAction {
+        private final ScoreMatrix m;
+        private final int[][] rowsOf, startOf;
+        private final Tile[] tiles;
+        private final int from, to, minOverlap;
+
+        Tiles(ScoreMatrix m, int[][] rowsOf, int[][] startOf, Tile[] tiles, int from, int to, int minOverlap) {
+            this.m = m;
+            this.rowsOf = rowsOf;
+            this.startOf = startOf;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.minOverlap = minOverlap;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) { fill(tiles[from]); return; }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Tiles(m, rowsOf, startOf, tiles, from, mid, minOverlap),
+                    new Tiles(m, rowsOf, startOf, tiles, mid, to, minOverlap));
+        }
+
+        private void fill(Tile t) {
+            int[] rowStart = m.rowStart(), course = m.course();
+            float[] score = m.score();
+            int a0 = t.blockA * BLOCK, b0 = t.blockB * BLOCK;
+            int aEnd = a0 + BLOCK, bEnd = b0 + BLOCK;
+            boolean diagonal = t.blockA == t.blockB;
+            int[] cnt = new int[BLOCK * BLOCK];
+            double[] sx = new double[cnt.length], sy = new double[cnt.length], sxx = new double[cnt.length],
+                    syy = new double[cnt.length], sxy = new double[cnt.length];
+
+            int[] rows = rowsOf[t.blockA], starts = startOf[t.blockA];
+            for (int q = 0; q < rows.length; q++) {
+                int rowEnd = rowStart[rows[q] + 1];
+                int ia = starts[q], ja = ia;
+                while (ja < rowEnd && course[ja] < aEnd) ja++;
+                int ib = diagonal ? ia : ja, jb;
+                if (!diagonal) while (ib < rowEnd && course[ib] < b0) ib++;
+                jb = ib;
+                while (jb < rowEnd && course[jb] < bEnd) jb++;
+                if (ib == jb) continue;
+                for (int i = ia; i < ja; i++) {
+                    int base = (course[i] - a0) * BLOCK - b0;
+                    double x = score[i] - 50.0; // centred, so the sums lose less to cancellation
+                    for (int j = diagonal ? i + 1 : ib; j < jb; j++) {
+                        int p = base + course[j];
+                        double y = score[j] - 50.0;
+                        cnt[p]++;
+                        sx[p] += x;
+                        sy[p] += y;
+                        sxx[p] += x * x;
+                        syy[p] += y * y;
+                        sxy[p] += x * y;
+                    }
+                }
+            }
+
+            int kept = 0;
+            for (int c : cnt) {
+                if (c >= minOverlap) kept++;
+                else if (c > 0) t.dropped++;
+            }
+            t.a = new int[kept];
+            t.b = new int[kept];
+            t.n = new int[kept];
+            t.r = new float[kept];
+            t.slope = new float[kept];
+            int k = 0;
+            for (int p = 0; p < cnt.length; p++) {
+                if (cnt[p] < minOverlap) continue;
+                double nn = cnt[p];
+                double cov = sxy[p] - sx[p] * sy[p] / nn;
+                double vx = sxx[p] - sx[p] * sx[p] / nn, vy = syy[p] - sy[p] * sy[p] / nn;
+                t.a[k] = a0 + p / BLOCK;
+                t.b[k] = b0 + p % BLOCK;
+                t.n[k] = cnt[p];
+                t.r[k] = vx > 1e-9 && vy > 1e-9 ? (float) Math.max(-1, Math.min(1, cov / Math.sqrt(vx * vy))) : Float.NaN;
+                t.slope[k] = vx > 1e-9 ? (float) (cov / vx) : Float.NaN;
+                k++;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/** In-process shard: a StudentManager behind a lock. */
+public class LocalShard implements StudentShard {
+    private final StudentManager manager;
+
+    public LocalShard() { this(new StudentManager()); }
+
+    public LocalShard(StudentManager manager) { this.manager = manager; }
+
+    public StudentManager getManager() { return manager; }
+
+    @Override public synchronized void addStudent(Student s) { manager.addStudent(s); }
+    @Override public synchronized void updateStudentCgpa(String id, double cgpa) { manager.updateStudentCgpa(id, cgpa); }
+    @Override public synchronized void removeStudent(String id) { manager.removeStudent(id); }
+    @Override public synchronized void addResult(String studentId, Course course, double score) {
+        manager.addResult(studentId, course, score);
+    }
+
+    @Override public synchronized Student find(String id) { return manager.linearSearch(id); }
+    @Override public synchronized double[] courseSumCount(String courseCode) { return manager.courseSumCount(courseCode); }
+    @Override public synchronized List<Student> topByCgpa(int k) { return manager.topByCgpa(k); }
+    @Override public synchronized List<Student> topByAvgScore(int k) { return manager.topByAvgScore(k); }
+    @Override public synchronized int size() { return manager.size(); }
+    @Override public synchronized void scan(String fromId, boolean withGrades, Predicate<Student> visitor) {
+        manager.scan(fromId, withGrades, visitor);
+    }
+
+    @Override public void close() {}
+}
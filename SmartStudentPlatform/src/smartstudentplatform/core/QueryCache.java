@@ -0,0 +1,239 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the answers to StudentManager's repeated read queries (class
+ * average per course, top performers, term report, ID search) until the data
+ * they depend on changes.
+ *
+ * Each entry carries tags naming what it read: a course ("course:CSC100"), a
+ * student ("student:csc/18/001"), or a whole dimension ("roster" membership,
+ * any "cgpa", any "grades", roster "order"). A subscription delivered on the
+ * mutating thread maps every StudentEvent to the tags it touches and drops
+ * exactly those entries, so posting a CSC100 score keeps MTH200's average and
+ * a CGPA change keeps every search. Sorts publish no events; they bump
+ * StudentManager.orderVersion() instead, which is checked on each call.
+ * Inside a manager.batch() the events are held back, so the cache is bypassed
+ * until the batch ends.
+ *
+ * Bounded LRU (access order). Same threading rules as the manager.
+ */
+public final class QueryCache {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final String ROSTER = "roster", CGPA = "cgpa", GRADES = "grades", ORDER = "order";
+
+    public static final class Stats {
+        private final long hits, misses, bypassed, invalidated, evicted;
+        private final int size;
+
+        Stats(long hits, long misses, long bypassed, long invalidated, long evicted, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.bypassed = bypassed;
+            this.invalidated = invalidated;
+            this.evicted = evicted;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getBypassed() { return bypassed; }       // asked inside a batch, not cached
+        public long getInvalidated() { return invalidated; } // dropped because their data changed
+        public long getEvicted() { return evicted; }         // dropped for room
+        public int getSize() { return size; }
+
+        public double getHitRate() {
+            long asked = hits + misses;
+            return asked == 0 ? 0 : (double) hits / asked;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d entries, %d hits / %d misses (%.0f%%), %d invalidated, %d evicted, %d bypassed",
+                    size, hits, misses, getHitRate() * 100, invalidated, evicted, bypassed);
+        }
+    }
+
+    // Query name plus arguments
+    private static final class Key {
+        final String query;
+        final Object[] args;
+
+        Key(String query, Object... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).query.equals(query) && Arrays.equals(((Key) o).args, args);
+        }
+
+        @Override public int hashCode() { return query.hashCode() * 31 + Arrays.hashCode(args); }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final String[] tags;
+
+        Entry(Object value, String[] tags) {
+            this.value = value;
+            this.tags = tags;
+        }
+    }
+
+    private final StudentManager manager;
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // access order = LRU
+    private final Map<String, Set<Key>> byTag = new HashMap<>();
+    private final StudentEventBus.Subscription<StudentEvent> subscription;
+    private long seenOrder;
+    private long hits, misses, bypassed, invalidated, evicted;
+
+    public QueryCache(StudentManager manager, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.manager = manager;
+        this.capacity = capacity;
+        this.seenOrder = manager.orderVersion();
+        this.subscription = manager.events().subscribe(StudentEvent.class, Runnable::run, this::invalidate);
+    }
+
+    /* -------- Cached queries -------- */
+    /** As StudentManager.classAverage; the course's sum and count are what is cached. */
+    public double classAverage(String courseCode) {
+        double[] sumCount = courseSumCount(courseCode);
+        if (sumCount[1] == 0) throw new IllegalStateException("No scores for course " + courseCode);
+        return sumCount[0] / sumCount[1];
+    }
+
+    public double[] courseSumCount(String courseCode) {
+        double[] sumCount = get(new Key("courseSumCount", courseCode), () -> manager.courseSumCount(courseCode),
+                "course:" + courseCode, ROSTER);
+        return sumCount.clone();
+    }
+
+    public Optional<Student> topPerformerByCgpa() {
+        return get(new Key("topPerformerByCgpa"), manager::topPerformerByCgpa, ROSTER, CGPA, ORDER);
+    }
+
+    public Optional<Student> topPerformerByAvgScore() {
+        return get(new Key("topPerformerByAvgScore"), manager::topPerformerByAvgScore, ROSTER, GRADES, ORDER);
+    }
+
+    public AnalyticsReport analyticsReport(int parallelism, double passMark) {
+        return get(new Key("analyticsReport", parallelism, passMark), () -> manager.analyticsReport(parallelism, passMark),
+                ROSTER, GRADES, ORDER);
+    }
+
+    /** As StudentManager.linearSearch (case-insensitive); misses are cached too. */
+    public Student linearSearch(String id) {
+        String lower = id.toLowerCase(Locale.ROOT);
+        // order: with IDs differing only in case the first in the roster wins
+        return get(new Key("linearSearch", lower), () -> manager.linearSearch(id), studentTag(lower), ORDER);
+    }
+
+    /** As StudentManager.binarySearch, which sorts by ID first; a hit means the roster is still sorted. */
+    public Student binarySearch(String id) {
+        return get(new Key("binarySearch", id), () -> manager.binarySearch(id), ROSTER, ORDER);
+    }
+
+    /* -------- Statistics / control -------- */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, bypassed, invalidated, evicted, entries.size());
+    }
+
+    public synchronized void clear() {
+        invalidated += entries.size();
+        entries.clear();
+        byTag.clear();
+    }
+
+    /** Stop listening to the manager and drop everything. */
+    public void close() {
+        manager.events().unsubscribe(subscription);
+        clear();
+    }
+
+    /* -------- Internals -------- */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T get(Key key, Supplier<T> query, String... tags) {
+        if (manager.events().inBatch()) { // pending events not seen yet
+            bypassed++;
+            return query.get();
+        }
+        checkOrder();
+        Entry e = entries.get(key);
+        if (e != null) {
+            hits++;
+            return (T) e.value;
+        }
+        misses++;
+        T value = query.get();
+        checkOrder(); // binarySearch sorts as it goes
+        entries.put(key, new Entry(value, tags));
+        for (String tag : tags) byTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        if (entries.size() > capacity) {
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            Map.Entry<Key, Entry> eldest = it.next();
+            it.remove();
+            untag(eldest.getKey(), eldest.getValue());
+            evicted++;
+        }
+        return value;
+    }
+
+    private void checkOrder() {
+        long order = manager.orderVersion();
+        if (order != seenOrder) {
+            seenOrder = order;
+            drop(ORDER);
+        }
+    }
+
+    private synchronized void invalidate(List<? extends StudentEvent> events) {
+        for (StudentEvent ev : events) {
+            if (ev instanceof StudentEvent.RosterCleared) {
+                clear();
+            } else if (ev instanceof StudentEvent.StudentAdded || ev instanceof StudentEvent.StudentRemoved
+                    || ev instanceof StudentEvent.StudentReplaced) {
+                // not per course: reading the student's grades here would hydrate lazily loaded ones
+                drop(ROSTER);
+                drop(studentTag(ev.getStudentId()));
+            } else if (ev instanceof StudentEvent.CgpaUpdated) {
+                drop(CGPA);
+            } else if (ev instanceof StudentEvent.GradePosted) {
+                drop(GRADES);
+                drop("course:" + ((StudentEvent.GradePosted) ev).getCourseCode());
+            }
+            // NameChanged: results hold the Student itself, which shows the new name
+        }
+    }
+
+    private void drop(String tag) {
+        Set<Key> keys = byTag.remove(tag);
+        if (keys == null) return;
+        for (Key k : keys) {
+            Entry e = entries.remove(k);
+            if (e == null) continue;
+            invalidated++;
+            untag(k, e);
+        }
+    }
+
+    private void untag(Key key, Entry e) {
+        for (String tag : e.tags) {
+            Set<Key> keys = byTag.get(tag);
+            if (keys == null) continue;
+            keys.remove(key);
+            if (keys.isEmpty()) byTag.remove(tag);
+        }
+    }
+
+    private static String studentTag(String id) {
+        return "student:" + id.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,148 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/** Client side of a ShardServer running in another local JVM. One request at a time per connection. */
+public class RemoteShard implements StudentShard {
+    static final int SCAN_PAGE = 512;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public RemoteShard(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    @Override
+    public synchronized void addStudent(Student s) {
+        call(() -> { out.writeByte(ShardServer.ADD); ShardServer.writeStudent(out, s); });
+    }
+
+    @Override
+    public synchronized void updateStudentCgpa(String id, double cgpa) {
+        call(() -> { out.writeByte(ShardServer.UPDATE_CGPA); out.writeUTF(id); out.writeDouble(cgpa); });
+    }
+
+    @Override
+    public synchronized void removeStudent(String id) {
+        call(() -> { out.writeByte(ShardServer.REMOVE); out.writeUTF(id); });
+    }
+
+    @Override
+    public synchronized void addResult(String studentId, Course course, double score) {
+        call(() -> {
+            out.writeByte(ShardServer.ADD_RESULT);
+            out.writeUTF(studentId);
+            out.writeUTF(course.getCode());
+            out.writeUTF(course.getName());
+            out.writeInt(course.getCredits());
+            out.writeDouble(score);
+        });
+    }
+
+    @Override
+    public synchronized Student find(String id) {
+        call(() -> { out.writeByte(ShardServer.FIND); out.writeUTF(id); });
+        return read(() -> in.readBoolean() ? ShardServer.readStudent(in) : null);
+    }
+
+    @Override
+    public synchronized double[] courseSumCount(String courseCode) {
+        call(() -> { out.writeByte(ShardServer.SUM_COUNT); out.writeUTF(courseCode); });
+        return read(() -> new double[]{in.readDouble(), in.readDouble()});
+    }
+
+    @Override
+    public synchronized List<Student> topByCgpa(int k) { return top(ShardServer.TOP_CGPA, k); }
+
+    @Override
+    public synchronized List<Student> topByAvgScore(int k) { return top(ShardServer.TOP_AVG, k); }
+
+    private List<Student> top(byte op, int k) {
+        call(() -> { out.writeByte(op); out.writeInt(k); });
+        return read(() -> {
+            int n = in.readInt();
+            List<Student> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) list.add(ShardServer.readStudent(in));
+            return list;
+        });
+    }
+
+    @Override
+    public synchronized int size() {
+        call(() -> out.writeByte(ShardServer.SIZE));
+        return read(in::readInt);
+    }
+
+    /** One request per SCAN_PAGE students; the visitor runs between requests, outside the lock. */
+    @Override
+    public void scan(String fromId, boolean withGrades, Predicate<Student> visitor) {
+        String from = fromId, last = null;
+        while (true) {
+            List<Student> page = scanPage(from, withGrades);
+            for (Student s : page) {
+                if (last != null && s.getId().equalsIgnoreCase(last)) continue; // where the previous page ended
+                if (!visitor.test(s)) return;
+            }
+            if (page.size() < SCAN_PAGE) return;
+            last = from = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private synchronized List<Student> scanPage(String from, boolean withGrades) {
+        call(() -> { out.writeByte(ShardServer.SCAN); out.writeUTF(from); out.writeBoolean(withGrades); out.writeInt(SCAN_PAGE); });
+        return read(() -> {
+            int n = in.readInt();
+            List<Student> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) list.add(ShardServer.readStudent(in));
+            return list;
+        });
+    }
+
+    /** Ask the server process to stop listening (it exits once its last client is gone). */
+    public synchronized void shutdownServer() {
+        try {
+            out.writeByte(ShardServer.SHUTDOWN);
+            out.flush();
+            in.readByte();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        socket.close();
+    }
+
+    /* -------- Request / response plumbing -------- */
+    private interface Request { void write() throws IOException; }
+    private interface Reply<T> { T read() throws IOException; }
+
+    // Send a request and consume the status byte; throws the remote exception on ERR
+    private void call(Request request) {
+        try {
+            request.write();
+            out.flush();
+            if (in.readByte() == ShardServer.ERR) throw ShardServer.remoteError(in.readUTF(), in.readUTF());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Shard " + socket.getRemoteSocketAddress() + " unreachable", ex);
+        }
+    }
+
+    private <T> T read(Reply<T> reply) {
+        try { return reply.read(); }
+        catch (IOException ex) { throw new UncheckedIOException(ex); }
+    }
+}
@@ -0,0 +1,123 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.CsvTokenizer;
+import smartstudentplatform.util.CsvWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The roster operations every storage engine supports: StudentManager keeps
+ * the students in memory, StoredRoster in a StudentShard such as a
+ * DiskStudentStore. Everything here works by lookup or by streaming the
+ * students once (forEach / scan), so none of it needs the roster in the heap.
+ * What does - the List view, in-place sorts, the CGPA index, score matrices
+ * for correlations - is StudentManager's alone.
+ */
+public interface Roster {
+    StudentEventBus events();
+
+    /** Run a group of mutations; subscribers get the resulting events as one batch. */
+    void batch(Runnable mutations);
+
+    int size();
+
+    /* -------- Mutations -------- */
+    void addStudent(Student s);
+
+    default void addStudent(String id, String name, double cgpa) {
+        addStudent(new Student(id, name, cgpa));
+    }
+
+    void updateStudentCgpa(String id, double newCgpa);
+    void renameStudent(String id, String newName);
+
+    /** Swap in new objects for existing students (same IDs). */
+    void replaceStudents(Collection<Student> replacements);
+
+    void removeStudent(String id);
+    void removeStudents(Collection<String> ids);
+    void clear();
+    void addResult(String studentId, Course course, double score);
+
+    /* -------- Lookups -------- */
+    Student linearSearch(String id);                  // case-insensitive
+    Student findById(String id);                      // exact
+
+    /* -------- Streaming -------- */
+    /** Every student with grades, in roster order (insertion / sort order in memory, ID order in a shard). */
+    void forEach(Consumer<Student> action);
+
+    /** As StudentShard.scan: case-insensitive ID order from fromId until the visitor returns false. */
+    void scan(String fromId, boolean withGrades, Predicate<Student> visitor);
+
+    /* -------- Queries -------- */
+    /** Students with lo <= CGPA <= hi. */
+    int countByCgpa(double lo, double hi);
+
+    /** Students with lo <= CGPA <= hi, highest first (ties by ID). */
+    List<Student> studentsByCgpa(double lo, double hi);
+
+    /** Standing band name -> number of students, highest band first. */
+    Map<String, Integer> standingBreakdown();
+
+    double[] courseSumCount(String courseCode);       // {sum, count}
+    List<Student> topByCgpa(int k);                   // best first
+    List<Student> topByAvgScore(int k);               // best first
+
+    default double classAverage(String courseCode) {
+        double[] sumCount = courseSumCount(courseCode);
+        if (sumCount[1] == 0) throw new IllegalStateException("No scores for course " + courseCode);
+        return sumCount[0] / sumCount[1];
+    }
+
+    default Optional<Student> topPerformerByCgpa() { return topByCgpa(1).stream().findFirst(); }
+    default Optional<Student> topPerformerByAvgScore() { return topByAvgScore(1).stream().findFirst(); }
+
+    /* -------- Term report (all courses) -------- */
+    AnalyticsReport analyticsReport(int parallelism, double passMark);
+
+    default AnalyticsReport analyticsReport() {
+        return analyticsReport(Runtime.getRuntime().availableProcessors(), AnalyticsReport.DEFAULT_PASS_MARK);
+    }
+
+    /* -------- CSV File Handling -------- */
+    default void saveToCSV(File file) throws IOException {
+        try (CsvWriter writer = new CsvWriter(file)) {
+            writer.write("ID,Name,CGPA\n"); // header
+            forEach(s -> {
+                try {
+                    writer.write(s.getId()).comma();
+                    writer.field(s.getName()).comma();
+                    writer.shortest(s.getCgpa()).write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    default void loadFromCSV(File file) throws IOException {
+        clear();
+        try (CsvTokenizer t = new CsvTokenizer(new FileInputStream(file)).trimFields(true)) {
+            t.next(); // skip header
+            while (t.next()) {
+                if (t.fieldCount() >= 3) {
+                    String id = t.string(0);
+                    String name = t.string(1);
+                    double cgpa = t.parseDouble(2);
+                    addStudent(new Student(id, name, cgpa));
+                }
+            }
+        }
+    }
+}
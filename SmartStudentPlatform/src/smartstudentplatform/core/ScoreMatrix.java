@@ -0,0 +1,92 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Sparse student x course score matrix in compressed sparse row form: student
+ * i's scores are score[rowStart[i] .. rowStart[i+1]), with their course
+ * numbers (index into the sorted course codes) in course[] in increasing
+ * order. About 8 bytes per score, so 20M scores take ~160 MB.
+ *
+ * A snapshot: build it on the thread that owns the roster, then hand it to any
+ * thread.
+ */
+public final class ScoreMatrix {
+    private final String[] ids;
+    private final String[] codes;   // sorted
+    private final int[] rowStart;
+    private final int[] course;
+    private final float[] score;    // 0..100; float keeps ~7 significant digits, far finer than the 0.1 steps scores come in
+
+    private ScoreMatrix(String[] ids, String[] codes, int[] rowStart, int[] course, float[] score) {
+        this.ids = ids;
+        this.codes = codes;
+        this.rowStart = rowStart;
+        this.course = course;
+        this.score = score;
+    }
+
+    public static ScoreMatrix of(List<Student> roster) {
+        // pass 1: course numbering and row sizes
+        Map<String, Integer> index = new HashMap<>();
+        int[] rowStart = new int[roster.size() + 1];
+        for (int i = 0; i < roster.size(); i++) {
+            Map<String, Double> grades = roster.get(i).getGrades();
+            for (String code : grades.keySet()) index.putIfAbsent(code, 0);
+            rowStart[i + 1] = rowStart[i] + grades.size();
+        }
+        String[] codes = index.keySet().toArray(new String[0]);
+        Arrays.sort(codes);
+        for (int c = 0; c < codes.length; c++) index.put(codes[c], c);
+
+        // pass 2: fill rows, sorted by course number
+        String[] ids = new String[roster.size()];
+        int[] course = new int[rowStart[roster.size()]];
+        float[] score = new float[course.length];
+        long[] packed = new long[16];
+        for (int i = 0; i < roster.size(); i++) {
+            Student s = roster.get(i);
+            ids[i] = s.getId();
+            int n = 0;
+            if (packed.length < s.getGrades().size()) packed = new long[s.getGrades().size()];
+            for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+                // course number in the high half so sorting the longs sorts by course
+                packed[n++] = ((long) index.get(g.getKey()) << 32) | Float.floatToRawIntBits(g.getValue().floatValue()) & 0xFFFFFFFFL;
+            }
+            Arrays.sort(packed, 0, n);
+            for (int k = 0; k < n; k++) {
+                course[rowStart[i] + k] = (int) (packed[k] >>> 32);
+                score[rowStart[i] + k] = Float.intBitsToFloat((int) packed[k]);
+            }
+        }
+        return new ScoreMatrix(ids, codes, rowStart, course, score);
+    }
+
+    public int studentCount() { return ids.length; }
+    public int courseCount() { return codes.length; }
+    public long scoreCount() { return course.length; }
+    public String studentId(int row) { return ids[row]; }
+    public String courseCode(int c) { return codes[c]; }
+
+    /** Course number of code, matched exactly if possible, otherwise ignoring case; or -1. */
+    public int courseIndex(String code) {
+        int c = Arrays.binarySearch(codes, code);
+        if (c >= 0) return c;
+        for (c = 0; c < codes.length; c++) if (codes[c].equalsIgnoreCase(code)) return c;
+        return -1;
+    }
+
+    /** Rows whose student ID satisfies the test. */
+    public BitSet rows(java.util.function.Predicate<String> idTest) {
+        BitSet out = new BitSet(ids.length);
+        for (int i = 0; i < ids.length; i++) if (idTest.test(ids[i])) out.set(i);
+        return out;
+    }
+
+    /* -------- Raw arrays for the kernels (package) -------- */
+    int[] rowStart() { return rowStart; }
+    int[] course() { return course; }
+    float[] score() { return score; }
+}
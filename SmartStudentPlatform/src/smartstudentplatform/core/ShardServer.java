@@ -0,0 +1,187 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Hosts one shard in its own JVM: {@code java smartstudentplatform.core.ShardServer [port]}.
+ * Listens on the loopback interface (port 0 = any free port) and prints
+ * "LISTENING <port>" once ready. The wire format is a DataStream request/response
+ * protocol: one opcode byte plus arguments, answered with OK + payload or ERR +
+ * exception type and message.
+ */
+public class ShardServer {
+    // Opcodes
+    static final byte ADD = 1, UPDATE_CGPA = 2, REMOVE = 3, ADD_RESULT = 4, FIND = 5,
+            SUM_COUNT = 6, TOP_CGPA = 7, TOP_AVG = 8, SIZE = 9, SHUTDOWN = 10, SCAN = 11;
+    static final byte OK = 0, ERR = 1;
+
+    private final LocalShard shard = new LocalShard();
+    private final ServerSocket server;
+
+    public ShardServer(int port) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() { return server.getLocalPort(); }
+
+    public static void main(String[] args) throws IOException {
+        ShardServer s = new ShardServer(args.length > 0 ? Integer.parseInt(args[0]) : 0);
+        System.out.println("LISTENING " + s.getPort());
+        System.out.flush();
+        s.serve();
+    }
+
+    public void serve() throws IOException {
+        while (!server.isClosed()) {
+            Socket client;
+            try { client = server.accept(); }
+            catch (IOException ex) { if (server.isClosed()) return; throw ex; }
+            Thread t = new Thread(() -> handle(client), "shard-client");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte op;
+                try { op = in.readByte(); } catch (EOFException eof) { return; }
+                if (op == SHUTDOWN) {
+                    out.writeByte(OK);
+                    out.flush();
+                    server.close();
+                    return;
+                }
+                try {
+                    // Read all arguments first, then answer
+                    Runnable reply = dispatch(op, in, out);
+                    out.writeByte(OK);
+                    reply.run();
+                } catch (RuntimeException ex) {
+                    out.writeByte(ERR);
+                    out.writeUTF(ex.getClass().getSimpleName());
+                    out.writeUTF(String.valueOf(ex.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            // client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    private Runnable dispatch(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (op) {
+            case ADD: {
+                Student s = readStudent(in);
+                shard.addStudent(s);
+                return () -> {};
+            }
+            case UPDATE_CGPA: {
+                String id = in.readUTF();
+                double cgpa = in.readDouble();
+                shard.updateStudentCgpa(id, cgpa);
+                return () -> {};
+            }
+            case REMOVE: {
+                shard.removeStudent(in.readUTF());
+                return () -> {};
+            }
+            case ADD_RESULT: {
+                String id = in.readUTF();
+                Course c = new Course(in.readUTF(), in.readUTF(), in.readInt());
+                shard.addResult(id, c, in.readDouble());
+                return () -> {};
+            }
+            case FIND: {
+                Student s = shard.find(in.readUTF());
+                return io(() -> {
+                    out.writeBoolean(s != null);
+                    if (s != null) writeStudent(out, s);
+                });
+            }
+            case SUM_COUNT: {
+                double[] sc = shard.courseSumCount(in.readUTF());
+                return io(() -> { out.writeDouble(sc[0]); out.writeDouble(sc[1]); });
+            }
+            case TOP_CGPA:
+            case TOP_AVG: {
+                int k = in.readInt();
+                List<Student> top = op == TOP_CGPA ? shard.topByCgpa(k) : shard.topByAvgScore(k);
+                return io(() -> {
+                    out.writeInt(top.size());
+                    for (Student s : top) writeStudent(out, s);
+                });
+            }
+            case SCAN: {
+                // one page: up to limit students from fromId on
+                String from = in.readUTF();
+                boolean withGrades = in.readBoolean();
+                int limit = in.readInt();
+                List<Student> page = new ArrayList<>();
+                shard.scan(from, withGrades, s -> page.add(s) && page.size() < limit);
+                return io(() -> {
+                    out.writeInt(page.size());
+                    for (Student s : page) writeStudent(out, s);
+                });
+            }
+            case SIZE: {
+                int n = shard.size();
+                return io(() -> out.writeInt(n));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown opcode " + op);
+        }
+    }
+
+    private interface IoAction { void run() throws IOException; }
+
+    private static Runnable io(IoAction a) {
+        return () -> {
+            try { a.run(); } catch (IOException ex) { throw new UncheckedIOException(ex); }
+        };
+    }
+
+    /* -------- Student wire format (shared with RemoteShard) -------- */
+    static void writeStudent(DataOutputStream out, Student s) throws IOException {
+        out.writeUTF(s.getId());
+        out.writeUTF(s.getName());
+        out.writeDouble(s.getCgpa());
+        Map<String, Double> grades = s.getGrades();
+        out.writeInt(grades.size());
+        for (Map.Entry<String, Double> g : grades.entrySet()) {
+            out.writeUTF(g.getKey());
+            out.writeUTF(s.getCourseName(g.getKey()));
+            out.writeDouble(g.getValue());
+        }
+    }
+
+    static Student readStudent(DataInputStream in) throws IOException {
+        Student s = new Student(in.readUTF(), in.readUTF(), in.readDouble());
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) s.addGrade(in.readUTF(), in.readUTF(), in.readDouble());
+        return s;
+    }
+
+    // Re-create the server-side exception type on the client
+    static RuntimeException remoteError(String type, String message) {
+        switch (type) {
+            case "NoSuchElementException": return new NoSuchElementException(message);
+            case "IllegalArgumentException": return new IllegalArgumentException(message);
+            case "IllegalStateException": return new IllegalStateException(message);
+            default: return new IllegalStateException(type + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * A roster hash-partitioned by student ID over N shards (in-process or remote).
+ *
+ * Writes and ID lookups go to the one shard that owns the ID; summaries fan out
+ * to every shard in parallel and merge the partial results (sum/count for
+ * averages, per-shard top-k for rankings), so the answers match a single
+ * StudentManager holding the same students.
+ */
+public class ShardedStudentManager implements Closeable {
+    private final List<StudentShard> shards;
+    private final ExecutorService fanOut;
+
+    public ShardedStudentManager(List<? extends StudentShard> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        this.shards = List.copyOf(shards);
+        this.fanOut = Executors.newFixedThreadPool(this.shards.size(), r -> {
+            Thread t = new Thread(r, "shard-fanout");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** N LocalShards in this JVM. */
+    public static ShardedStudentManager inProcess(int shardCount) {
+        List<StudentShard> list = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) list.add(new LocalShard());
+        return new ShardedStudentManager(list);
+    }
+
+    public int shardCount() { return shards.size(); }
+
+    /* -------- Routing -------- */
+    public int shardOf(String id) {
+        // lower-cased so every spelling of an ID lands where a case-insensitive search looks
+        return Math.floorMod(id.toLowerCase(Locale.ROOT).hashCode(), shards.size());
+    }
+
+    private StudentShard owner(String id) { return shards.get(shardOf(id)); }
+
+    /* -------- Add / Update -------- */
+    public void addStudent(Student s) { owner(s.getId()).addStudent(s); }
+
+    public void addStudent(String id, String name, double cgpa) {
+        addStudent(new Student(id, name, cgpa));
+    }
+
+    public void updateStudentCgpa(String id, double newCgpa) { owner(id).updateStudentCgpa(id, newCgpa); }
+
+    public void removeStudent(String id) { owner(id).removeStudent(id); }
+
+    public void addResult(String studentId, Course course, double score) {
+        owner(studentId).addResult(studentId, course, score);
+    }
+
+    /* -------- Searching -------- */
+    public Student search(String id) { return owner(id).find(id); }
+
+    /* -------- Summaries -------- */
+    public double classAverage(String courseCode) {
+        double sum = 0, n = 0;
+        for (double[] part : fanOut(s -> s.courseSumCount(courseCode))) {
+            sum += part[0];
+            n += part[1];
+        }
+        if (n == 0) throw new IllegalStateException("No scores for course " + courseCode);
+        return sum / n;
+    }
+
+    public Optional<Student> topPerformerByCgpa() {
+        return topByCgpa(1).stream().findFirst();
+    }
+
+    public Optional<Student> topPerformerByAvgScore() {
+        return topByAvgScore(1).stream().findFirst();
+    }
+
+    public List<Student> topByCgpa(int k) {
+        return mergeTop(fanOut(s -> s.topByCgpa(k)), k, Comparator.comparingDouble(Student::getCgpa));
+    }
+
+    public List<Student> topByAvgScore(int k) {
+        return mergeTop(fanOut(s -> s.topByAvgScore(k)), k,
+                Comparator.comparingDouble(StudentManager::averageScore));
+    }
+
+    public int size() {
+        int n = 0;
+        for (int part : fanOut(StudentShard::size)) n += part;
+        return n;
+    }
+
+    // The global top k is contained in the union of every shard's top k
+    private static List<Student> mergeTop(List<List<Student>> parts, int k, Comparator<Student> order) {
+        List<Student> all = new ArrayList<>();
+        for (List<Student> p : parts) all.addAll(p);
+        all.sort(order.reversed());
+        return all.size() > k ? new ArrayList<>(all.subList(0, k)) : all;
+    }
+
+    /* -------- Fan-out -------- */
+    private <R> List<R> fanOut(Function<StudentShard, R> query) {
+        List<Callable<R>> calls = new ArrayList<>(shards.size());
+        for (StudentShard s : shards) calls.add(() -> query.apply(s));
+        try {
+            List<R> results = new ArrayList<>(shards.size());
+            for (Future<R> f : fanOut.invokeAll(calls)) results.add(f.get());
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fanOut.shutdownNow();
+        IOException first = null;
+        for (StudentShard s : shards) {
+            try { s.close(); }
+            catch (IOException ex) { if (first == null) first = ex; }
+        }
+        if (first != null) throw first;
+    }
+}
@@ -0,0 +1,204 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A Roster kept in a StudentShard - typically a DiskStudentStore, for rosters
+ * larger than the heap. Lookups, updates and top-k go to the shard; CGPA
+ * ranges, standing bands, the term report and CSV saves stream the shard's
+ * ID-ordered scan, holding only the answer (and, for the term report, one
+ * chunk of REPORT_CHUNK students at a time). Renames and replacements
+ * rewrite the student in the shard. Events are published as StudentManager
+ * publishes them. The caller owns the shard and closes it.
+ */
+public class StoredRoster implements Roster {
+    static final int REPORT_CHUNK = 10_000;
+    private static final int CLEAR_PAGE = 1_000;
+
+    private final StudentShard store;
+    private final StudentEventBus events = new StudentEventBus();
+    private volatile List<CgpaIndex.Band> bands = CgpaIndex.DEFAULT_BANDS;
+
+    public StoredRoster(StudentShard store) {
+        this.store = Objects.requireNonNull(store);
+    }
+
+    public StudentShard getStore() { return store; }
+
+    @Override public StudentEventBus events() { return events; }
+
+    @Override
+    public void batch(Runnable mutations) {
+        events.beginBatch();
+        try { mutations.run(); }
+        finally { events.endBatch(); }
+    }
+
+    @Override public int size() { return store.size(); }
+
+    /* -------- Mutations -------- */
+    @Override
+    public void addStudent(Student s) {
+        store.addStudent(s);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.StudentAdded(s));
+    }
+
+    @Override
+    public void updateStudentCgpa(String id, double newCgpa) {
+        Student before = require(id);
+        store.updateStudentCgpa(id, newCgpa);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.CgpaUpdated(id, before.getCgpa(), newCgpa));
+    }
+
+    @Override
+    public void renameStudent(String id, String newName) {
+        Student s = require(id);
+        String old = s.getName();
+        store.removeStudent(id);
+        s.setName(newName);
+        store.addStudent(s); // with its grades
+        if (events.hasSubscribers()) events.publish(new StudentEvent.NameChanged(id, old, newName));
+    }
+
+    @Override
+    public void replaceStudents(Collection<Student> replacements) {
+        Map<String, Student> old = new LinkedHashMap<>();
+        for (Student s : replacements) old.put(s.getId(), require(s.getId())); // all known before anything changes
+        for (Student fresh : replacements) {
+            store.removeStudent(fresh.getId());
+            store.addStudent(fresh);
+            if (events.hasSubscribers()) events.publish(new StudentEvent.StudentReplaced(old.get(fresh.getId()), fresh));
+        }
+    }
+
+    @Override
+    public void removeStudent(String id) {
+        Student s = findById(id);
+        if (s == null) return;
+        store.removeStudent(id);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.StudentRemoved(s));
+    }
+
+    @Override
+    public void removeStudents(Collection<String> ids) {
+        for (String id : ids) removeStudent(id);
+    }
+
+    @Override
+    public void clear() {
+        // a page of IDs at a time: the scan must not run while the shard is being changed
+        List<String> ids = new ArrayList<>(CLEAR_PAGE);
+        do {
+            ids.clear();
+            store.scan("", false, s -> { ids.add(s.getId()); return ids.size() < CLEAR_PAGE; });
+            for (String id : ids) store.removeStudent(id);
+        } while (!ids.isEmpty());
+        if (events.hasSubscribers()) events.publish(new StudentEvent.RosterCleared());
+    }
+
+    @Override
+    public void addResult(String studentId, Course course, double score) {
+        Student before = require(studentId); // exact ID, as StudentManager
+        store.addResult(studentId, course, score);
+        if (events.hasSubscribers()) {
+            events.publish(new StudentEvent.GradePosted(studentId, course.getCode(),
+                    before.getGrades().get(course.getCode()), score));
+        }
+    }
+
+    /* -------- Lookups -------- */
+    @Override public Student linearSearch(String id) { return store.find(id); }
+
+    @Override
+    public Student findById(String id) {
+        Student s = store.find(id); // the shard ignores case
+        return s != null && s.getId().equals(id) ? s : null;
+    }
+
+    private Student require(String id) {
+        Student s = findById(id);
+        if (s == null) throw new NoSuchElementException("No student with ID " + id);
+        return s;
+    }
+
+    /* -------- Streaming -------- */
+    @Override
+    public void forEach(Consumer<Student> action) {
+        store.scan("", true, s -> { action.accept(s); return true; });
+    }
+
+    @Override
+    public void scan(String fromId, boolean withGrades, Predicate<Student> visitor) {
+        store.scan(fromId, withGrades, visitor);
+    }
+
+    /* -------- Queries -------- */
+    @Override
+    public int countByCgpa(double lo, double hi) {
+        int[] n = new int[1];
+        store.scan("", false, s -> {
+            if (s.getCgpa() >= lo && s.getCgpa() <= hi) n[0]++;
+            return true;
+        });
+        return n[0];
+    }
+
+    @Override
+    public List<Student> studentsByCgpa(double lo, double hi) {
+        List<Student> out = new ArrayList<>();
+        store.scan("", false, s -> {
+            if (s.getCgpa() >= lo && s.getCgpa() <= hi) out.add(s);
+            return true;
+        });
+        out.sort(Comparator.comparingDouble(Student::getCgpa).reversed().thenComparing(Student::getId));
+        return out;
+    }
+
+    public List<CgpaIndex.Band> getBands() { return bands; }
+
+    /** Bands in any order; they are kept highest minimum first. Names must be unique. */
+    public void setBands(List<CgpaIndex.Band> newBands) { bands = CgpaIndex.sortBands(newBands); }
+
+    @Override
+    public Map<String, Integer> standingBreakdown() {
+        List<CgpaIndex.Band> b = bands;
+        int[] counts = new int[b.size()];
+        store.scan("", false, s -> {
+            double v = s.getCgpa();
+            if (Double.isNaN(v)) return true; // in no band, as in CgpaIndex
+            int i = 0;
+            while (i < b.size() - 1 && v < b.get(i).getMin()) i++; // the bottom band takes everything below
+            counts[i]++;
+            return true;
+        });
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < b.size(); i++) out.put(b.get(i).getName(), counts[i]);
+        return out;
+    }
+
+    @Override public double[] courseSumCount(String courseCode) { return store.courseSumCount(courseCode); }
+    @Override public List<Student> topByCgpa(int k) { return store.topByCgpa(k); }
+    @Override public List<Student> topByAvgScore(int k) { return store.topByAvgScore(k); }
+
+    /* -------- Term report -------- */
+    @Override
+    public AnalyticsReport analyticsReport(int parallelism, double passMark) {
+        AnalyticsReport.Builder report = new AnalyticsReport.Builder(parallelism, passMark);
+        List<Student> chunk = new ArrayList<>(REPORT_CHUNK);
+        store.scan("", true, s -> {
+            chunk.add(s);
+            if (chunk.size() == REPORT_CHUNK) {
+                report.add(chunk);
+                chunk.clear();
+            }
+            return true;
+        });
+        report.add(chunk);
+        return report.build();
+    }
+}
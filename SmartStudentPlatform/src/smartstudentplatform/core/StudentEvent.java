@@ -0,0 +1,128 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+/**
+ * Change published by StudentManager after a mutation. Subscribe on
+ * StudentManager.events() to one subtype, or to StudentEvent itself to get
+ * every change in order.
+ */
+public abstract class StudentEvent {
+    private final String studentId;
+
+    protected StudentEvent(String studentId) { this.studentId = studentId; }
+
+    public String getStudentId() { return studentId; }
+
+    // Events with equal keys (per student) may be folded into one; null = never folded
+    String coalesceKey() { return null; }
+
+    // Fold a later event with the same key into this one
+    StudentEvent merge(StudentEvent later) { return later; }
+
+    /* -------- Event types -------- */
+    public static final class StudentAdded extends StudentEvent {
+        private final Student student;
+
+        StudentAdded(Student student) {
+            super(student.getId());
+            this.student = student;
+        }
+
+        public Student getStudent() { return student; }
+    }
+
+    public static final class StudentRemoved extends StudentEvent {
+        private final Student student;
+
+        StudentRemoved(Student student) {
+            super(student.getId());
+            this.student = student;
+        }
+
+        public Student getStudent() { return student; }
+    }
+
+    /** A student's object was swapped for a new one with the same ID, keeping its roster position. */
+    public static final class StudentReplaced extends StudentEvent {
+        private final Student oldStudent;
+        private final Student newStudent;
+
+        StudentReplaced(Student oldStudent, Student newStudent) {
+            super(newStudent.getId());
+            this.oldStudent = oldStudent;
+            this.newStudent = newStudent;
+        }
+
+        public Student getOldStudent() { return oldStudent; }
+        public Student getNewStudent() { return newStudent; }
+    }
+
+    public static final class CgpaUpdated extends StudentEvent {
+        private final double oldCgpa;
+        private final double newCgpa;
+
+        CgpaUpdated(String studentId, double oldCgpa, double newCgpa) {
+            super(studentId);
+            this.oldCgpa = oldCgpa;
+            this.newCgpa = newCgpa;
+        }
+
+        public double getOldCgpa() { return oldCgpa; }
+        public double getNewCgpa() { return newCgpa; }
+
+        @Override String coalesceKey() { return "cgpa"; }
+
+        @Override StudentEvent merge(StudentEvent later) {
+            return new CgpaUpdated(getStudentId(), oldCgpa, ((CgpaUpdated) later).newCgpa);
+        }
+    }
+
+    public static final class NameChanged extends StudentEvent {
+        private final String oldName;
+        private final String newName;
+
+        NameChanged(String studentId, String oldName, String newName) {
+            super(studentId);
+            this.oldName = oldName;
+            this.newName = newName;
+        }
+
+        public String getOldName() { return oldName; }
+        public String getNewName() { return newName; }
+
+        @Override String coalesceKey() { return "name"; }
+
+        @Override StudentEvent merge(StudentEvent later) {
+            return new NameChanged(getStudentId(), oldName, ((NameChanged) later).newName);
+        }
+    }
+
+    public static final class GradePosted extends StudentEvent {
+        private final String courseCode;
+        private final Double oldScore; // null if the student had no score for the course
+        private final double newScore;
+
+        GradePosted(String studentId, String courseCode, Double oldScore, double newScore) {
+            super(studentId);
+            this.courseCode = courseCode;
+            this.oldScore = oldScore;
+            this.newScore = newScore;
+        }
+
+        public String getCourseCode() { return courseCode; }
+        public Double getOldScore() { return oldScore; }
+        public double getNewScore() { return newScore; }
+
+        @Override String coalesceKey() { return "grade:" + courseCode; }
+
+        @Override StudentEvent merge(StudentEvent later) {
+            return new GradePosted(getStudentId(), courseCode, oldScore, ((GradePosted) later).newScore);
+        }
+    }
+
+    /** Every student was dropped at once (clear / full reload). */
+    public static final class RosterCleared extends StudentEvent {
+        RosterCleared() { super(null); }
+    }
+}
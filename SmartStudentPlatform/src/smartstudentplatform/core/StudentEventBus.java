@@ -0,0 +1,141 @@
+package smartstudentplatform.core;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed, batched delivery of StudentEvents.
+ *
+ * Each subscription has its own queue and executor. Events published while a
+ * delivery is already scheduled (or while a batch is open) are handed over in
+ * one list, and repeated CGPA / grade changes of the same student inside that
+ * list are folded into a single event carrying the first old and last new value.
+ */
+public class StudentEventBus {
+
+    public interface Listener<T extends StudentEvent> {
+        void onEvents(List<? extends T> events);
+    }
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger batchDepth = new AtomicInteger();
+    private volatile Executor defaultExecutor = Runnable::run; // deliver on the mutating thread
+
+    /* -------- Subscribe -------- */
+    public <T extends StudentEvent> Subscription<T> subscribe(Class<T> type, Listener<? super T> listener) {
+        return subscribe(type, null, listener);
+    }
+
+    /** executor == null means "use the bus default executor at delivery time". */
+    public <T extends StudentEvent> Subscription<T> subscribe(Class<T> type, Executor executor,
+                                                              Listener<? super T> listener) {
+        Subscription<T> sub = new Subscription<>(type, executor, listener);
+        subscriptions.add(sub);
+        return sub;
+    }
+
+    public void unsubscribe(Subscription<?> sub) { subscriptions.remove(sub); }
+
+    public void setDefaultExecutor(Executor executor) {
+        this.defaultExecutor = Objects.requireNonNull(executor);
+    }
+
+    public boolean hasSubscribers() { return !subscriptions.isEmpty(); }
+
+    /* -------- Publish -------- */
+    void publish(StudentEvent event) {
+        boolean deferred = batchDepth.get() > 0;
+        for (Subscription<?> sub : subscriptions) {
+            if (sub.type.isInstance(event)) sub.enqueue(event, deferred);
+        }
+    }
+
+    void beginBatch() { batchDepth.incrementAndGet(); }
+
+    // Events are being held back until the outermost batch ends
+    boolean inBatch() { return batchDepth.get() > 0; }
+
+    void endBatch() {
+        if (batchDepth.decrementAndGet() > 0) return;
+        for (Subscription<?> sub : subscriptions) sub.schedule();
+    }
+
+    /* -------- Subscription -------- */
+    public final class Subscription<T extends StudentEvent> {
+        private final Class<T> type;
+        private final Executor executor;
+        private final Listener<? super T> listener;
+        private List<StudentEvent> pending = new ArrayList<>();
+        private boolean scheduled;
+
+        private Subscription(Class<T> type, Executor executor, Listener<? super T> listener) {
+            this.type = type;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        private void enqueue(StudentEvent event, boolean deferred) {
+            synchronized (this) {
+                pending.add(event);
+                if (deferred || scheduled) return;
+                scheduled = true;
+            }
+            dispatch();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled || pending.isEmpty()) return;
+                scheduled = true;
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            Executor ex = executor != null ? executor : defaultExecutor;
+            ex.execute(this::drain);
+        }
+
+        private void drain() {
+            List<StudentEvent> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+                scheduled = false;
+            }
+            if (batch.isEmpty() || !subscriptions.contains(this)) return;
+
+            List<T> events = new ArrayList<>(batch.size());
+            for (StudentEvent e : coalesce(batch)) events.add(type.cast(e));
+            listener.onEvents(events);
+        }
+    }
+
+    // Fold same-key events per student; an add/remove/clear of that student is a
+    // barrier so changes are never folded across a different incarnation of it.
+    static List<StudentEvent> coalesce(List<StudentEvent> batch) {
+        if (batch.size() < 2) return batch;
+        List<StudentEvent> out = new ArrayList<>(batch.size());
+        Map<String, Map<String, Integer>> open = new HashMap<>(); // studentId -> key -> slot in out
+        for (StudentEvent e : batch) {
+            String key = e.coalesceKey();
+            if (key == null) {
+                if (e.getStudentId() == null) open.clear();
+                else open.remove(e.getStudentId());
+                out.add(e);
+                continue;
+            }
+            Map<String, Integer> keys = open.computeIfAbsent(e.getStudentId(), k -> new HashMap<>());
+            Integer slot = keys.get(key);
+            if (slot == null) {
+                keys.put(key, out.size());
+                out.add(e);
+            } else {
+                out.set(slot, out.get(slot).merge(e));
+            }
+        }
+        return out;
+    }
+}
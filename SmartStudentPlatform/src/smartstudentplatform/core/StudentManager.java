@@ -4,21 +4,44 @@ import smartstudentplatform.model.Student;
 import smartstudentplatform.model.Course;
 import smartstudentplatform.util.Algorithms;
 
-import java.io.*;
 import java.util.*;
-
-public class StudentManager {
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The roster, in memory: an ordered list plus an ID index and a CGPA index.
+ * Besides the Roster operations it offers what only an in-memory roster can:
+ * the List view (getAll), in-place sorts, the CgpaIndex and score matrices.
+ * For rosters larger than the heap, see StoredRoster.
+ */
+public class StudentManager implements Roster {
     private final List<Student> students = new ArrayList<>();             // ordered list
     private final Map<String, Student> indexById = new HashMap<>();       // fast lookup
+    private final StudentEventBus events = new StudentEventBus();         // change notifications
+    private final CgpaIndex cgpaIndex = new CgpaIndex();                  // CGPA range counts / listings
+    private long orderVersion;                                            // bumped when the roster is re-ordered
 
     public List<Student> getAll() { return students; }
 
+    public int size() { return students.size(); }
+
+    public StudentEventBus events() { return events; }
+
+    /** Run a group of mutations; subscribers get the resulting events as one batch. */
+    public void batch(Runnable mutations) {
+        events.beginBatch();
+        try { mutations.run(); }
+        finally { events.endBatch(); }
+    }
+
     /* -------- Add / Update -------- */
     public void addStudent(Student s) {
         if (indexById.containsKey(s.getId()))
             throw new IllegalArgumentException("Student with ID " + s.getId() + " already exists");
         students.add(s);
         indexById.put(s.getId(), s);
+        cgpaIndex.add(s);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.StudentAdded(s));
     }
 
     public void addStudent(String id, String name, double cgpa) {
@@ -28,12 +51,86 @@ public class StudentManager {
     public void updateStudentCgpa(String id, double newCgpa) {
         Student s = indexById.get(id);
         if (s == null) throw new NoSuchElementException("No student with ID " + id);
+        double old = s.getCgpa();
         s.setCgpa(newCgpa);
+        cgpaIndex.moved(s);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.CgpaUpdated(id, old, newCgpa));
+    }
+
+    public void renameStudent(String id, String newName) {
+        Student s = indexById.get(id);
+        if (s == null) throw new NoSuchElementException("No student with ID " + id);
+        String old = s.getName();
+        s.setName(newName);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.NameChanged(id, old, newName));
+    }
+
+    /** Swap in new objects for existing students, keeping their roster positions (one pass). */
+    public void replaceStudents(Collection<Student> replacements) {
+        Map<String, Student> byId = new HashMap<>();
+        for (Student s : replacements) {
+            if (!indexById.containsKey(s.getId())) throw new NoSuchElementException("No student with ID " + s.getId());
+            byId.put(s.getId(), s);
+        }
+        for (ListIterator<Student> it = students.listIterator(); it.hasNext() && !byId.isEmpty(); ) {
+            Student old = it.next();
+            Student fresh = byId.remove(old.getId());
+            if (fresh == null) continue;
+            it.set(fresh);
+            indexById.put(fresh.getId(), fresh);
+            cgpaIndex.remove(old);
+            cgpaIndex.add(fresh);
+            if (events.hasSubscribers()) events.publish(new StudentEvent.StudentReplaced(old, fresh));
+        }
     }
 
     public void removeStudent(String id) {
         Student s = indexById.remove(id);
-        if (s != null) students.remove(s);
+        if (s != null) {
+            students.remove(s);
+            cgpaIndex.remove(s);
+            if (events.hasSubscribers()) events.publish(new StudentEvent.StudentRemoved(s));
+        }
+    }
+
+    /** Remove many students in one pass over the roster instead of one list scan each. */
+    public void removeStudents(Collection<String> ids) {
+        List<Student> removed = new ArrayList<>();
+        for (String id : ids) {
+            Student s = indexById.remove(id);
+            if (s != null) {
+                removed.add(s);
+                cgpaIndex.remove(s);
+            }
+        }
+        if (removed.isEmpty()) return;
+        Set<Student> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        gone.addAll(removed);
+        students.removeIf(gone::contains);
+        if (events.hasSubscribers()) {
+            for (Student s : removed) events.publish(new StudentEvent.StudentRemoved(s));
+        }
+    }
+
+    public void clear() {
+        students.clear();
+        indexById.clear();
+        cgpaIndex.clear();
+        if (events.hasSubscribers()) events.publish(new StudentEvent.RosterCleared());
+    }
+
+    /* -------- Streaming -------- */
+    public void forEach(Consumer<Student> action) { students.forEach(action); }
+
+    /** Sorts a copy by ID first: O(n log n) here, where a shard walks its ID index. */
+    public void scan(String fromId, boolean withGrades, Predicate<Student> visitor) {
+        String from = fromId.toLowerCase(Locale.ROOT);
+        List<Student> sorted = new ArrayList<>();
+        for (Student s : students) {
+            if (s.getId().toLowerCase(Locale.ROOT).compareTo(from) >= 0) sorted.add(s);
+        }
+        sorted.sort(Comparator.comparing(s -> s.getId().toLowerCase(Locale.ROOT)));
+        for (Student s : sorted) if (!visitor.test(s)) return;
     }
 
     /* -------- Searching -------- */
@@ -41,76 +138,106 @@ public class StudentManager {
         return Algorithms.linearSearchById(students, id);
     }
 
+    /** Exact (case-sensitive) ID lookup through the index. */
+    public Student findById(String id) {
+        return indexById.get(id);
+    }
+
     public Student binarySearch(String id) {
         Algorithms.insertionSortById(students); // ensure sorted by ID
+        orderVersion++;
         return Algorithms.binarySearchById(students, id);
     }
 
+    /* -------- CGPA ranges (see CgpaIndex) -------- */
+    public CgpaIndex cgpaIndex() { return cgpaIndex; }
+
+    /** Students with lo <= CGPA <= hi, without a scan. */
+    public int countByCgpa(double lo, double hi) { return cgpaIndex().count(lo, hi); }
+
+    /** Students with lo <= CGPA <= hi, highest first. */
+    public List<Student> studentsByCgpa(double lo, double hi) { return cgpaIndex().list(lo, hi); }
+
+    public Map<String, Integer> standingBreakdown() { return cgpaIndex().standingBreakdown(); }
+
     /* -------- Sorting -------- */
-    public void sortByNameQuick() { Algorithms.quickSortByName(students); }
-    public void sortByCgpaBubbleDesc() { Algorithms.bubbleSortByCgpa(students); }
-    public void sortByIdInsertion() { Algorithms.insertionSortById(students); }
+    public void sortByNameQuick() { Algorithms.quickSortByName(getAll()); orderVersion++; }
+    public void sortByCgpaBubbleDesc() { Algorithms.bubbleSortByCgpa(getAll()); orderVersion++; }
+    public void sortByIdInsertion() { Algorithms.insertionSortById(getAll()); orderVersion++; }
+
+    /** Changes whenever a sort may have re-ordered the roster (sorts publish no events). */
+    public long orderVersion() { return orderVersion; }
 
     /* -------- Results (grades) -------- */
     public void addResult(String studentId, Course course, double score) {
         Student s = indexById.get(studentId);
         if (s == null) throw new NoSuchElementException("No student with ID " + studentId);
         if (score < 0 || score > 100) throw new IllegalArgumentException("Score must be 0..100");
+        Double old = events.hasSubscribers() ? s.getGrades().get(course.getCode()) : null;
         s.addGrade(course.getCode(), course.getName(), score);
+        if (events.hasSubscribers()) events.publish(new StudentEvent.GradePosted(studentId, course.getCode(), old, score));
     }
 
     /* -------- Summaries -------- */
-    public double classAverage(String courseCode) {
+    @Override
+    public Optional<Student> topPerformerByCgpa() {
+        return students.stream().max(Comparator.comparingDouble(Student::getCgpa));
+    }
+
+    @Override
+    public Optional<Student> topPerformerByAvgScore() {
+        return students.stream().max(Comparator.comparingDouble(StudentManager::averageScore));
+    }
+
+    public static double averageScore(Student s) {
+        if (s.getGrades().isEmpty()) return -1; // treat as lowest
+        double sum = 0;
+        for (double v : s.getGrades().values()) sum += v;
+        return sum / s.getGrades().size();
+    }
+
+    /* -------- Partial results (merged across shards, see ShardedStudentManager) -------- */
+    public double[] courseSumCount(String courseCode) {
         double sum = 0; int n = 0;
         for (Student s : students) {
             Double sc = s.getGrades().get(courseCode);
             if (sc != null) { sum += sc; n++; }
         }
-        if (n == 0) throw new IllegalStateException("No scores for course " + courseCode);
-        return sum / n;
+        return new double[]{sum, n};
     }
 
-    public Optional<Student> topPerformerByCgpa() {
-        return students.stream().max(Comparator.comparingDouble(Student::getCgpa));
+    public List<Student> topByCgpa(int k) {
+        return topK(k, Comparator.comparingDouble(Student::getCgpa));
     }
 
-    public Optional<Student> topPerformerByAvgScore() {
-        return students.stream().max(Comparator.comparingDouble(s -> {
-            if (s.getGrades().isEmpty()) return -1; // treat as lowest
-            double sum = 0;
-            for (double v : s.getGrades().values()) sum += v;
-            return sum / s.getGrades().size();
-        }));
-    }
-
-    /* -------- CSV File Handling -------- */
-    public void saveToCSV(File file) throws IOException {
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.append("ID,Name,CGPA\n"); // header
-            for (Student s : students) {
-                writer.append(s.getId()).append(",");
-                writer.append(s.getName()).append(",");
-                writer.append(String.valueOf(s.getCgpa())).append("\n");
-            }
-        }
+    public List<Student> topByAvgScore(int k) {
+        return topK(k, Comparator.comparingDouble(StudentManager::averageScore));
     }
 
-    public void loadFromCSV(File file) throws IOException {
-        students.clear();
-        indexById.clear();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean firstLine = true;
-            while ((line = br.readLine()) != null) {
-                if (firstLine) { firstLine = false; continue; } // skip header
-                String[] values = line.split(",");
-                if (values.length >= 3) {
-                    String id = values[0].trim();
-                    String name = values[1].trim();
-                    double cgpa = Double.parseDouble(values[2].trim());
-                    addStudent(new Student(id, name, cgpa));
-                }
-            }
+    // Best k students, best first (bounded min-heap, O(n log k))
+    private List<Student> topK(int k, Comparator<Student> order) {
+        if (k <= 0) return new ArrayList<>();
+        PriorityQueue<Student> heap = new PriorityQueue<>(k, order);
+        for (Student s : students) {
+            if (heap.size() < k) heap.add(s);
+            else if (order.compare(s, heap.peek()) > 0) { heap.poll(); heap.add(s); }
         }
+        List<Student> out = new ArrayList<>(heap);
+        out.sort(order.reversed());
+        return out;
+    }
+
+    /* -------- Term report (all courses, one parallel pass) -------- */
+    public AnalyticsReport analyticsReport(int parallelism, double passMark) {
+        return AnalyticsReport.compute(getAll(), parallelism, passMark);
+    }
+
+    /* -------- Course correlations (snapshot here, compute on any thread) -------- */
+    public ScoreMatrix scoreMatrix() {
+        return ScoreMatrix.of(getAll());
+    }
+
+    public CourseCorrelation courseCorrelation(int parallelism, int minOverlap) {
+        return CourseCorrelation.compute(scoreMatrix(), parallelism, minOverlap);
     }
 }
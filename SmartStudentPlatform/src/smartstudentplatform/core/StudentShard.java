@@ -0,0 +1,31 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * One partition of a sharded roster. Mutations are routed to the owning shard;
+ * queries return partial results that ShardedStudentManager merges.
+ */
+public interface StudentShard extends Closeable {
+    void addStudent(Student s);                       // with any grades it already has
+    void updateStudentCgpa(String id, double cgpa);
+    void removeStudent(String id);
+    void addResult(String studentId, Course course, double score);
+
+    Student find(String id);                          // case-insensitive, null if absent
+    double[] courseSumCount(String courseCode);       // {sum, count}
+    List<Student> topByCgpa(int k);                   // best first
+    List<Student> topByAvgScore(int k);               // best first
+    int size();
+
+    /**
+     * Students in case-insensitive ID order from fromId (inclusive) until the
+     * visitor returns false. Grades are only guaranteed if withGrades.
+     */
+    void scan(String fromId, boolean withGrades, Predicate<Student> visitor);
+}
@@ -1,39 +1,103 @@
 package smartstudentplatform.model;
 
+import smartstudentplatform.util.CsvTokenizer;
+import smartstudentplatform.util.CsvWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringJoiner;
 
 public class Student extends Person {
     private double cgpa;                           // encapsulated field
-    private final Map<String, Double> grades;      // courseCode -> score (0-100)
-    private final Map<String, String> courseNames; // courseCode -> courseName
+    private volatile GradeData data;               // null while grades are not hydrated
+    private final GradeSource gradeSource;         // non-null for lazily loaded students
+
+    /** Supplies the raw grade field bytes ("code:score:name;...") of a lazily loaded student. */
+    public interface GradeSource {
+        byte[] load(Student s);
+
+        /** Hydrated grades of s were read again (for LRU bookkeeping). */
+        default void touched(Student s) {}
+    }
+
+    // courseCode -> score (0-100) and courseCode -> courseName, swapped as one unit
+    private static final class GradeData {
+        final Map<String, Double> grades = new HashMap<>();
+        final Map<String, String> courseNames = new HashMap<>();
+        volatile boolean dirty; // changed since hydration, must never be evicted
+    }
 
     public Student(String id, String name, double cgpa) {
         super(id, name);
         this.cgpa = cgpa;
-        this.grades = new HashMap<>();
-        this.courseNames = new HashMap<>();
+        this.data = new GradeData();
+        this.gradeSource = null;
+    }
+
+    // Lazy form: grades are read from the source on first access
+    public Student(String id, String name, double cgpa, GradeSource gradeSource) {
+        super(id, name);
+        this.cgpa = cgpa;
+        this.gradeSource = gradeSource;
+    }
+
+    private GradeData gradeData() {
+        GradeData d = data;
+        if (d == null) return hydrate();
+        if (gradeSource != null) gradeSource.touched(this);
+        return d;
+    }
+
+    private synchronized GradeData hydrate() {
+        GradeData d = data;
+        if (d != null) return d; // another thread got here first
+        d = new GradeData();
+        try {
+            CsvTokenizer t = CsvTokenizer.of(gradeSource.load(this));
+            if (t.next()) parseGrades(t, t.start(0), t.end(0), d);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // in-memory stream, not expected
+        }
+        data = d;
+        return d;
+    }
+
+    public boolean isGradesLoaded() { return data != null; }
+
+    /** Drop hydrated grades so they are re-read on next access; false if they were modified. */
+    public boolean evictGrades() {
+        GradeData d = data;
+        if (gradeSource == null || d == null || d.dirty) return false;
+        data = null;
+        return true;
     }
 
     // Add grade by courseCode only
     public void addGrade(String courseCode, double score) {
-        grades.put(courseCode, score);
+        GradeData d = gradeData();
+        d.dirty = true;
+        d.grades.put(courseCode, score);
+        data = d; // re-pin in case a concurrent eviction dropped it meanwhile
     }
 
     // Add grade with both code and name
     public void addGrade(String courseCode, String courseName, double score) {
-        grades.put(courseCode, score);
-        courseNames.put(courseCode, courseName);
+        GradeData d = gradeData();
+        d.dirty = true;
+        d.grades.put(courseCode, score);
+        d.courseNames.put(courseCode, courseName);
+        data = d;
     }
 
     // Getters
-    public Map<String, Double> getGrades() { return grades; }
+    public Map<String, Double> getGrades() { return gradeData().grades; }
     public double getCgpa() { return cgpa; }
     public void setCgpa(double cgpa) { this.cgpa = cgpa; }
 
     public String getCourseName(String courseCode) {
-        return courseNames.getOrDefault(courseCode, "Unknown Course");
+        return gradeData().courseNames.getOrDefault(courseCode, "Unknown Course");
     }
 
     @Override
@@ -48,7 +112,7 @@ public class Student extends Person {
     /** Convert Student object to CSV row */
     public String toCSV() {
         StringJoiner gradeJoiner = new StringJoiner(";");
-        for (Map.Entry<String, Double> entry : grades.entrySet()) {
+        for (Map.Entry<String, Double> entry : getGrades().entrySet()) {
             String code = entry.getKey();
             double score = entry.getValue();
             String name = getCourseName(code);
@@ -57,37 +121,78 @@ public class Student extends Person {
 
         return String.join(",",
                 getId(),
-                getName(),
+                CsvTokenizer.escape(getName()),
                 String.valueOf(cgpa),
-                gradeJoiner.toString()
+                CsvTokenizer.escape(gradeJoiner.toString())
         );
     }
 
+    /** Write the same row as toCSV() straight into a writer (no intermediate Strings) */
+    public void writeCSV(CsvWriter w) throws IOException {
+        Map<String, Double> grades = getGrades();
+        for (Map.Entry<String, Double> entry : grades.entrySet()) {
+            if (CsvWriter.needsQuoting(entry.getKey()) || CsvWriter.needsQuoting(getCourseName(entry.getKey()))) {
+                w.write(toCSV()); // grade field must be quoted as a whole - rare, take the slow path
+                return;
+            }
+        }
+
+        w.write(getId()).comma().field(getName()).comma().shortest(cgpa).comma();
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : grades.entrySet()) {
+            if (!first) w.write(';');
+            first = false;
+            w.write(entry.getKey()).write(':').shortest(entry.getValue()).write(':').write(getCourseName(entry.getKey()));
+        }
+    }
+
     /** Create a Student object from a CSV row */
     public static Student fromCSV(String csvLine) {
-        String[] parts = csvLine.split(",", -1);
-        if (parts.length < 3) {
-            throw new IllegalArgumentException("Invalid CSV line: " + csvLine);
+        try {
+            CsvTokenizer t = CsvTokenizer.of(csvLine);
+            if (!t.next()) throw new IllegalArgumentException("Invalid CSV line: " + csvLine);
+            return fromCSV(t);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // in-memory stream, not expected
+        }
+    }
+
+    /** Create a Student object from the current record of a tokenizer (no per-field splitting) */
+    public static Student fromCSV(CsvTokenizer t) {
+        if (t.fieldCount() < 3) {
+            throw new IllegalArgumentException("Invalid CSV line: " + t.recordText());
         }
 
-        String id = parts[0];
-        String name = parts[1];
-        double cgpa = Double.parseDouble(parts[2]);
+        String id = t.string(0);
+        String name = t.string(1);
+        double cgpa = t.parseDouble(2);
 
         Student student = new Student(id, name, cgpa);
 
-        if (parts.length > 3 && !parts[3].isEmpty()) {
-            String[] gradeTokens = parts[3].split(";");
-            for (String token : gradeTokens) {
-                String[] kv = token.split(":");
-                if (kv.length >= 2) {
-                    String courseCode = kv[0];
-                    double score = Double.parseDouble(kv[1]);
-                    String courseName = kv.length == 3 ? kv[2] : "Unknown Course";
-                    student.addGrade(courseCode, courseName, score);
-                }
+        if (t.fieldCount() > 3) parseGrades(t, t.start(3), t.end(3), student.data);
+        return student;
+    }
+
+    // Grade field: "code:score:name;code:score:name;..." - walked in place, codes/names interned
+    private static void parseGrades(CsvTokenizer t, int from, int to, GradeData into) {
+        int p = from;
+        while (p < to) {
+            int tokenEnd = t.indexOf((byte) ';', p, to);
+            // split(":") dropped trailing empty parts: "A:" and "A::" have no score, "A:70:Name:" keeps its name
+            int end = tokenEnd;
+            while (end > p && t.indexOf((byte) ':', end - 1, end) == end - 1) end--;
+            int c1 = t.indexOf((byte) ':', p, end);
+            if (c1 < end) {
+                int c2 = t.indexOf((byte) ':', c1 + 1, end);
+                String courseCode = t.intern(p, c1);
+                double score = t.parseDouble(c1 + 1, c2);
+                // exactly three parts with a non-empty name, as split(":") used to require
+                boolean hasName = c2 < end && t.indexOf((byte) ':', c2 + 1, end) == end;
+                String courseName = hasName ? t.intern(c2 + 1, end) : "Unknown Course";
+                into.grades.put(courseCode, score);
+                into.courseNames.put(courseCode, courseName);
             }
+            p = tokenEnd + 1;
         }
-        return student;
     }
 }
@@ -0,0 +1,378 @@
+package smartstudentplatform.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A B+tree of byte[] keys (unsigned lexicographic order) to byte[] values,
+ * one node per page, leaves chained left to right for ordered scans.
+ *
+ * Nodes are slotted pages:
+ *   [type:1][count:2][freeEnd:2][link:4] ... slots (2 bytes each, in key order) ...
+ *   free space ... cells, written from the end of the page backwards
+ * Leaf cell: [keyLen:2][valueLen:2][key][value]; link = next leaf.
+ * Inner cell: [keyLen:2][child:4][key], the child holding keys >= key;
+ * link = the child holding keys below the first cell.
+ *
+ * Inserts go into the page in place; a full page is compacted if deletes left
+ * garbage, otherwise split in half with the separator pushed up. Deletes only
+ * drop the slot - pages are never merged, so the tree does not shrink.
+ */
+final class BPlusTree {
+    /** Receives entries in key order; return false to stop. */
+    interface Visitor {
+        boolean visit(byte[] key, byte[] value);
+    }
+
+    static final int MAX_ENTRY = 1024; // key + value; keeps at least 4 cells per page so splits always succeed
+
+    private static final byte LEAF = 1, INNER = 2;
+    private static final int TYPE = 0, COUNT = 1, FREE_END = 3, LINK = 5, SLOTS = 16;
+    private static final int MAX_DEPTH = 32;
+
+    private final BufferPool pool;
+    private final PageFile file;
+    private final int rootSlot;
+
+    BPlusTree(BufferPool pool, PageFile file, int rootSlot) {
+        this.pool = pool;
+        this.file = file;
+        this.rootSlot = rootSlot;
+    }
+
+    /* -------- Public operations -------- */
+
+    byte[] get(byte[] key) {
+        int root = file.getRoot(rootSlot);
+        if (root == 0) return null;
+        int leaf = findLeaf(root, key, null);
+        ByteBuffer b = pool.pin(leaf);
+        try {
+            int i = search(b, key);
+            return i >= 0 ? value(b, slot(b, i)) : null;
+        } finally {
+            pool.unpin(leaf, false);
+        }
+    }
+
+    /** Insert or replace; true if the key is new. */
+    boolean put(byte[] key, byte[] value) {
+        if (key.length + value.length > MAX_ENTRY)
+            throw new IllegalArgumentException("Entry too large (" + (key.length + value.length) + " bytes)");
+        int root = file.getRoot(rootSlot);
+        if (root == 0) root = newRoot(LEAF, 0);
+
+        int[] path = new int[MAX_DEPTH];
+        int depth = descend(root, key, path);
+        int leaf = path[depth - 1];
+        ByteBuffer b = pool.pin(leaf);
+        int i = search(b, key);
+        boolean fresh = i < 0;
+        int at = fresh ? -i - 1 : i;
+        if (!fresh) removeSlot(b, i);
+
+        int size = 4 + key.length + value.length;
+        if (fits(b, size)) {
+            insertLeafCell(b, at, key, value);
+            pool.unpin(leaf, true);
+            return fresh;
+        }
+
+        // split: left half stays, right half moves to a new page
+        Node n = Node.decode(b);
+        n.keys.add(at, key);
+        n.values.add(at, value);
+        int mid = n.splitPoint();
+        int right = pool.allocate();
+        ByteBuffer rb = pool.pin(right);
+        Node r = n.tail(mid);
+        r.link = n.link;
+        r.encode(rb);
+        n.truncate(mid);
+        n.link = right;
+        n.encode(b);
+        byte[] separator = r.keys.get(0);
+        pool.unpin(right, true);
+        pool.unpin(leaf, true);
+        insertIntoParent(path, depth - 1, leaf, separator, right);
+        return fresh;
+    }
+
+    boolean delete(byte[] key) {
+        int root = file.getRoot(rootSlot);
+        if (root == 0) return false;
+        int leaf = findLeaf(root, key, null);
+        ByteBuffer b = pool.pin(leaf);
+        int i = search(b, key);
+        if (i >= 0) removeSlot(b, i);
+        pool.unpin(leaf, i >= 0);
+        return i >= 0;
+    }
+
+    /** Entries with key >= from, in order, until the visitor returns false. */
+    void scan(byte[] from, Visitor visitor) {
+        int root = file.getRoot(rootSlot);
+        if (root == 0) return;
+        int page = findLeaf(root, from, null);
+        ByteBuffer b = pool.pin(page);
+        int i = search(b, from);
+        int start = i >= 0 ? i : -i - 1;
+        while (true) {
+            // copy the rest of the leaf and unpin before calling out
+            int count = count(b);
+            List<byte[]> keys = new ArrayList<>(count - Math.min(start, count));
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (int k = start; k < count; k++) {
+                int cell = slot(b, k);
+                keys.add(key(b, cell, LEAF));
+                values.add(value(b, cell));
+            }
+            int next = b.getInt(LINK);
+            pool.unpin(page, false);
+            for (int k = 0; k < keys.size(); k++) {
+                if (!visitor.visit(keys.get(k), values.get(k))) return;
+            }
+            if (next == 0) return;
+            page = next;
+            b = pool.pin(page);
+            start = 0;
+        }
+    }
+
+    /** Entries whose key starts with prefix. */
+    void scanPrefix(byte[] prefix, Visitor visitor) {
+        scan(prefix, (k, v) -> startsWith(k, prefix) && visitor.visit(k, v));
+    }
+
+    static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    /* -------- Navigation -------- */
+
+    // Leaf for key; path (if given) receives the pages from the root down
+    private int findLeaf(int page, byte[] key, int[] path) {
+        int depth = 0;
+        while (true) {
+            if (path != null) path[depth++] = page;
+            ByteBuffer b = pool.pin(page);
+            byte type = b.get(TYPE);
+            int child = type == INNER ? childFor(b, key) : 0;
+            pool.unpin(page, false);
+            if (type != INNER) return page;
+            if (depth >= MAX_DEPTH) throw new IllegalStateException("Tree deeper than " + MAX_DEPTH);
+            page = child;
+        }
+    }
+
+    // Fills path root..leaf and returns its length
+    private int descend(int root, byte[] key, int[] path) {
+        findLeaf(root, key, path);
+        int depth = 0;
+        while (depth < MAX_DEPTH && path[depth] != 0) depth++;
+        return depth;
+    }
+
+    private int childFor(ByteBuffer b, byte[] key) {
+        int i = search(b, key);
+        int at = i >= 0 ? i : -i - 2; // last cell with key <= search key
+        return at < 0 ? b.getInt(LINK) : b.getInt(slot(b, at) + 2);
+    }
+
+    private void insertIntoParent(int[] path, int level, int left, byte[] separator, int right) {
+        if (level == 0) {
+            int root = newRoot(INNER, left);
+            ByteBuffer b = pool.pin(root);
+            insertInnerCell(b, 0, separator, right);
+            pool.unpin(root, true);
+            return;
+        }
+        int parent = path[level - 1];
+        ByteBuffer b = pool.pin(parent);
+        int i = search(b, separator);
+        int at = i >= 0 ? i + 1 : -i - 1;
+        if (fits(b, 6 + separator.length)) {
+            insertInnerCell(b, at, separator, right);
+            pool.unpin(parent, true);
+            return;
+        }
+        Node n = Node.decode(b);
+        n.keys.add(at, separator);
+        n.children.add(at, right);
+        int mid = n.splitPoint();
+        byte[] up = n.keys.get(mid);
+        int newPage = pool.allocate();
+        ByteBuffer rb = pool.pin(newPage);
+        Node r = n.tail(mid + 1);
+        r.link = n.children.get(mid); // the separator's child becomes the new node's leftmost
+        r.encode(rb);
+        n.truncate(mid);
+        n.encode(b);
+        pool.unpin(newPage, true);
+        pool.unpin(parent, true);
+        insertIntoParent(path, level - 1, parent, up, newPage);
+    }
+
+    private int newRoot(byte type, int leftmost) {
+        int page = pool.allocate();
+        ByteBuffer b = pool.pin(page);
+        init(b, type, leftmost);
+        pool.unpin(page, true);
+        file.setRoot(rootSlot, page);
+        return page;
+    }
+
+    /* -------- Page layout -------- */
+
+    private static void init(ByteBuffer b, byte type, int link) {
+        Arrays.fill(b.array(), 0, SLOTS, (byte) 0);
+        b.put(TYPE, type);
+        b.putShort(COUNT, (short) 0);
+        b.putShort(FREE_END, (short) PageFile.PAGE_SIZE);
+        b.putInt(LINK, link);
+    }
+
+    private static int count(ByteBuffer b) { return b.getShort(COUNT) & 0xFFFF; }
+    private static int freeEnd(ByteBuffer b) { int v = b.getShort(FREE_END) & 0xFFFF; return v == 0 ? PageFile.PAGE_SIZE : v; }
+    private static int slot(ByteBuffer b, int i) { return b.getShort(SLOTS + 2 * i) & 0xFFFF; }
+
+    private static int keyStart(ByteBuffer b, int cell) { return cell + (b.get(TYPE) == LEAF ? 4 : 6); }
+
+    private static byte[] key(ByteBuffer b, int cell, byte type) {
+        int len = b.getShort(cell) & 0xFFFF;
+        int from = cell + (type == LEAF ? 4 : 6);
+        return Arrays.copyOfRange(b.array(), from, from + len);
+    }
+
+    private static byte[] value(ByteBuffer b, int cell) {
+        int keyLen = b.getShort(cell) & 0xFFFF, valueLen = b.getShort(cell + 2) & 0xFFFF;
+        int from = cell + 4 + keyLen;
+        return Arrays.copyOfRange(b.array(), from, from + valueLen);
+    }
+
+    // Binary search: slot index, or -(insertion point + 1)
+    private static int search(ByteBuffer b, byte[] key) {
+        byte[] a = b.array();
+        int lo = 0, hi = count(b) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cell = slot(b, mid);
+            int from = keyStart(b, cell);
+            int c = Arrays.compareUnsigned(a, from, from + (b.getShort(cell) & 0xFFFF), key, 0, key.length);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // Room for a cell of size bytes plus its slot, compacting away deleted cells if that helps
+    private static boolean fits(ByteBuffer b, int size) {
+        int need = size + 2;
+        if (freeEnd(b) - (SLOTS + 2 * count(b)) >= need) return true;
+        Node n = Node.decode(b);
+        if (PageFile.PAGE_SIZE - SLOTS - n.bytes() < need) return false;
+        n.encode(b); // rewrite without garbage
+        return true;
+    }
+
+    private static int reserve(ByteBuffer b, int at, int size) {
+        int count = count(b);
+        int cell = freeEnd(b) - size;
+        byte[] a = b.array();
+        System.arraycopy(a, SLOTS + 2 * at, a, SLOTS + 2 * at + 2, 2 * (count - at));
+        b.putShort(SLOTS + 2 * at, (short) cell);
+        b.putShort(COUNT, (short) (count + 1));
+        b.putShort(FREE_END, (short) cell);
+        return cell;
+    }
+
+    private static void insertLeafCell(ByteBuffer b, int at, byte[] key, byte[] value) {
+        int cell = reserve(b, at, 4 + key.length + value.length);
+        b.putShort(cell, (short) key.length);
+        b.putShort(cell + 2, (short) value.length);
+        System.arraycopy(key, 0, b.array(), cell + 4, key.length);
+        System.arraycopy(value, 0, b.array(), cell + 4 + key.length, value.length);
+    }
+
+    private static void insertInnerCell(ByteBuffer b, int at, byte[] key, int child) {
+        int cell = reserve(b, at, 6 + key.length);
+        b.putShort(cell, (short) key.length);
+        b.putInt(cell + 2, child);
+        System.arraycopy(key, 0, b.array(), cell + 6, key.length);
+    }
+
+    private static void removeSlot(ByteBuffer b, int i) {
+        int count = count(b);
+        byte[] a = b.array();
+        System.arraycopy(a, SLOTS + 2 * i + 2, a, SLOTS + 2 * i, 2 * (count - i - 1));
+        b.putShort(COUNT, (short) (count - 1)); // the cell stays as garbage until the page is compacted
+    }
+
+    /* -------- Decoded node (compaction and splits only) -------- */
+    private static final class Node {
+        byte type;
+        int link;
+        final List<byte[]> keys = new ArrayList<>();
+        final List<byte[]> values = new ArrayList<>();   // leaf
+        final List<Integer> children = new ArrayList<>(); // inner: child of each key
+
+        static Node decode(ByteBuffer b) {
+            Node n = new Node();
+            n.type = b.get(TYPE);
+            n.link = b.getInt(LINK);
+            for (int i = 0, count = count(b); i < count; i++) {
+                int cell = slot(b, i);
+                n.keys.add(key(b, cell, n.type));
+                if (n.type == LEAF) n.values.add(value(b, cell));
+                else n.children.add(b.getInt(cell + 2));
+            }
+            return n;
+        }
+
+        int cellSize(int i) {
+            return type == LEAF ? 4 + keys.get(i).length + values.get(i).length : 6 + keys.get(i).length;
+        }
+
+        int bytes() {
+            int total = 0;
+            for (int i = 0; i < keys.size(); i++) total += cellSize(i) + 2;
+            return total;
+        }
+
+        // First index of the upper half by bytes, leaving at least one cell on each side
+        int splitPoint() {
+            int half = bytes() / 2, sum = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                sum += cellSize(i) + 2;
+                if (sum >= half) return Math.max(1, Math.min(i + 1, keys.size() - 1));
+            }
+            return keys.size() / 2;
+        }
+
+        Node tail(int from) {
+            Node r = new Node();
+            r.type = type;
+            r.keys.addAll(keys.subList(from, keys.size()));
+            if (type == LEAF) r.values.addAll(values.subList(from, values.size()));
+            else r.children.addAll(children.subList(from, children.size()));
+            return r;
+        }
+
+        void truncate(int size) {
+            keys.subList(size, keys.size()).clear();
+            if (type == LEAF) values.subList(size, values.size()).clear();
+            else children.subList(size, children.size()).clear();
+        }
+
+        void encode(ByteBuffer b) {
+            init(b, type, link);
+            for (int i = 0; i < keys.size(); i++) {
+                if (type == LEAF) insertLeafCell(b, i, keys.get(i), values.get(i));
+                else insertInnerCell(b, i, keys.get(i), children.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package smartstudentplatform.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed number of in-memory page frames over a PageFile - the store's whole
+ * memory budget for pages. Frames are replaced with the CLOCK algorithm: the
+ * hand sweeps the frames, skipping pinned ones and giving recently used ones a
+ * second chance; dirty pages are written back when evicted or flushed.
+ *
+ * Callers pin a page, use its buffer, and unpin it (saying whether they
+ * changed it). Not thread-safe; DiskStudentStore serializes access.
+ */
+final class BufferPool {
+    private final PageFile file;
+    private final ByteBuffer[] frames;
+    private final int[] pageOf, pins;
+    private final boolean[] dirty, referenced;
+    private final Map<Integer, Integer> frameOf = new HashMap<>();
+    private int hand;
+    private long hits, misses, evictions;
+
+    BufferPool(PageFile file, int capacity) {
+        if (capacity < 8) throw new IllegalArgumentException("Buffer pool needs at least 8 pages");
+        this.file = file;
+        this.frames = new ByteBuffer[capacity];
+        this.pageOf = new int[capacity];
+        this.pins = new int[capacity];
+        this.dirty = new boolean[capacity];
+        this.referenced = new boolean[capacity];
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = ByteBuffer.allocate(PageFile.PAGE_SIZE);
+            pageOf[i] = -1;
+        }
+    }
+
+    int getCapacity() { return frames.length; }
+    long getHits() { return hits; }
+    long getMisses() { return misses; }
+    long getEvictions() { return evictions; }
+
+    /** A fresh page (reads as zeros until written). */
+    int allocate() { return file.allocate(); }
+
+    ByteBuffer pin(int page) {
+        Integer f = frameOf.get(page);
+        if (f != null) {
+            hits++;
+        } else {
+            misses++;
+            f = victim();
+            try {
+                file.read(page, frames[f]);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            pageOf[f] = page;
+            frameOf.put(page, f);
+        }
+        pins[f]++;
+        referenced[f] = true;
+        return frames[f];
+    }
+
+    void unpin(int page, boolean modified) {
+        int f = frameOf.get(page);
+        pins[f]--;
+        if (modified) dirty[f] = true;
+    }
+
+    // CLOCK: an unpinned frame whose reference bit is clear, clearing bits on the way
+    private int victim() {
+        for (int sweep = 0; sweep < frames.length * 2; sweep++) {
+            int f = hand;
+            hand = (hand + 1) % frames.length;
+            if (pins[f] > 0) continue;
+            if (referenced[f]) {
+                referenced[f] = false;
+                continue;
+            }
+            if (pageOf[f] >= 0) {
+                writeBack(f);
+                frameOf.remove(pageOf[f]);
+                pageOf[f] = -1;
+                evictions++;
+            }
+            return f;
+        }
+        throw new IllegalStateException("Buffer pool exhausted: all " + frames.length + " pages are pinned");
+    }
+
+    private void writeBack(int f) {
+        if (!dirty[f]) return;
+        try {
+            file.write(pageOf[f], frames[f]);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        dirty[f] = false;
+    }
+
+    /** Write every dirty page and the header, and force them to disk. */
+    void flush() throws IOException {
+        try {
+            for (int f = 0; f < frames.length; f++) if (pageOf[f] >= 0) writeBack(f);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        file.sync();
+    }
+}
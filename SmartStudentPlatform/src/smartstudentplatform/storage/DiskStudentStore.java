@@ -0,0 +1,305 @@
+package smartstudentplatform.storage;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.core.StudentShard;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A roster kept on disk, for rosters larger than the heap: the disk-backed
+ * counterpart of LocalShard, usable on its own or as a shard of a
+ * ShardedStudentManager.
+ *
+ * Four B+trees share one page file and one buffer pool of poolPages pages
+ * (8 KiB each), which is all the memory pages ever take:
+ * - students: lower-cased ID -> ID, name, CGPA
+ * - grades:   lower-cased ID, 0, course code -> score (a student's grades are adjacent)
+ * - byCourse: course code, 0, lower-cased ID -> score (the same scores, a course's adjacent)
+ * - courses:  course code -> name, credits
+ * IDs are unique ignoring case (as StudentShard lookups are). Students handed
+ * out are copies; change them through the store. Changes reach the disk when
+ * pages are evicted and on flush()/close(); there is no journal, so a crash
+ * before close() can leave the file inconsistent. Disk errors inside the
+ * StudentShard methods surface as UncheckedIOException.
+ */
+public final class DiskStudentStore implements StudentShard {
+    public static final int DEFAULT_POOL_PAGES = 4096; // 32 MiB
+
+    private static final int STUDENTS = 0, GRADES = 1, COURSES = 2, BY_COURSE = 3; // root slots
+    private static final int STUDENT_COUNT = 0;                     // counter slot
+
+    private final PageFile file;
+    private final BufferPool pool;
+    private final BPlusTree students, grades, courses, byCourse;
+    private final Map<String, Course> courseCache = new HashMap<>(); // catalogs are small
+
+    private DiskStudentStore(PageFile file, int poolPages) {
+        this.file = file;
+        this.pool = new BufferPool(file, poolPages);
+        this.students = new BPlusTree(pool, file, STUDENTS);
+        this.grades = new BPlusTree(pool, file, GRADES);
+        this.courses = new BPlusTree(pool, file, COURSES);
+        this.byCourse = new BPlusTree(pool, file, BY_COURSE);
+    }
+
+    /** Open (or create) a store file. */
+    public static DiskStudentStore open(File file, int poolPages) throws IOException {
+        return new DiskStudentStore(new PageFile(file.toPath()), poolPages);
+    }
+
+    /* -------- Mutations -------- */
+    @Override
+    public synchronized void addStudent(Student s) {
+        byte[] key = key(s.getId());
+        if (students.get(key) != null)
+            throw new IllegalArgumentException("Student with ID " + s.getId() + " already exists");
+        students.put(key, encodeStudent(s.getId(), s.getName(), s.getCgpa()));
+        file.setCounter(STUDENT_COUNT, file.getCounter(STUDENT_COUNT) + 1);
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+            Course known = course(g.getKey());
+            String name = s.getCourseName(g.getKey());
+            putCourse(new Course(g.getKey(), name, known != null ? known.getCredits() : 0));
+            putScore(key, g.getKey(), g.getValue());
+        }
+    }
+
+    @Override
+    public synchronized void updateStudentCgpa(String id, double cgpa) {
+        byte[] key = key(id);
+        Student s = decodeStudent(require(key, id));
+        students.put(key, encodeStudent(s.getId(), s.getName(), cgpa));
+    }
+
+    @Override
+    public synchronized void removeStudent(String id) {
+        byte[] key = key(id);
+        if (!students.delete(key)) return;
+        file.setCounter(STUDENT_COUNT, file.getCounter(STUDENT_COUNT) - 1);
+        List<byte[]> gone = new ArrayList<>();
+        byte[] prefix = gradePrefix(key);
+        grades.scanPrefix(prefix, (k, v) -> gone.add(k));
+        for (byte[] k : gone) {
+            grades.delete(k);
+            byCourse.delete(courseKey(Arrays.copyOfRange(k, prefix.length, k.length), key));
+        }
+    }
+
+    @Override
+    public synchronized void addResult(String studentId, Course course, double score) {
+        byte[] key = key(studentId);
+        require(key, studentId);
+        if (score < 0 || score > 100) throw new IllegalArgumentException("Score must be 0..100");
+        putCourse(course);
+        putScore(key, course.getCode(), score);
+    }
+
+    /* -------- Queries -------- */
+    @Override
+    public synchronized Student find(String id) {
+        byte[] key = key(id);
+        byte[] value = students.get(key);
+        return value == null ? null : withGrades(key, decodeStudent(value));
+    }
+
+    @Override
+    public synchronized double[] courseSumCount(String courseCode) {
+        double[] sumCount = new double[2];
+        byCourse.scanPrefix(gradePrefix(courseCode.getBytes(StandardCharsets.UTF_8)), (k, v) -> {
+            sumCount[0] += ByteBuffer.wrap(v).getDouble();
+            sumCount[1]++;
+            return true;
+        });
+        return sumCount;
+    }
+
+    @Override
+    public synchronized List<Student> topByCgpa(int k) {
+        if (k <= 0) return new ArrayList<>();
+        Comparator<Student> order = Comparator.comparingDouble(Student::getCgpa);
+        PriorityQueue<Student> heap = new PriorityQueue<>(k, order);
+        students.scan(new byte[0], (key, v) -> {
+            Student s = decodeStudent(v);
+            if (heap.size() < k) heap.add(s);
+            else if (order.compare(s, heap.peek()) > 0) { heap.poll(); heap.add(s); }
+            return true;
+        });
+        List<Student> out = new ArrayList<>();
+        for (Student s : heap) out.add(withGrades(key(s.getId()), s));
+        out.sort(order.reversed());
+        return out;
+    }
+
+    @Override
+    public synchronized List<Student> topByAvgScore(int k) {
+        if (k <= 0) return new ArrayList<>();
+        // one pass over the grade tree; each student's grades are adjacent
+        record Mean(byte[] key, double value) {}
+        Comparator<Mean> order = Comparator.comparingDouble(Mean::value);
+        PriorityQueue<Mean> heap = new PriorityQueue<>(k, order);
+        byte[][] current = { null };
+        double[] sumCount = new double[2];
+        Runnable close = () -> {
+            if (current[0] == null) return;
+            Mean m = new Mean(current[0], sumCount[0] / sumCount[1]);
+            if (heap.size() < k) heap.add(m);
+            else if (order.compare(m, heap.peek()) > 0) { heap.poll(); heap.add(m); }
+        };
+        grades.scan(new byte[0], (key, v) -> {
+            int cut = 0;
+            while (key[cut] != 0) cut++;
+            if (current[0] == null || !Arrays.equals(current[0], 0, current[0].length, key, 0, cut)) {
+                close.run();
+                current[0] = Arrays.copyOf(key, cut);
+                sumCount[0] = sumCount[1] = 0;
+            }
+            sumCount[0] += ByteBuffer.wrap(v).getDouble();
+            sumCount[1]++;
+            return true;
+        });
+        close.run();
+        List<Student> out = new ArrayList<>();
+        for (Mean m : heap) {
+            byte[] value = students.get(m.key());
+            if (value != null) out.add(withGrades(m.key(), decodeStudent(value)));
+        }
+        if (out.size() < k) { // students without grades rank last, as in StudentManager.averageScore
+            students.scan(new byte[0], (key, v) -> {
+                if (out.size() >= k) return false;
+                Student s = decodeStudent(v);
+                if (withGrades(key, s).getGrades().isEmpty()) out.add(s);
+                return true;
+            });
+        }
+        out.sort(Comparator.comparingDouble(StudentManager::averageScore).reversed());
+        return out;
+    }
+
+    @Override
+    public synchronized int size() { return (int) file.getCounter(STUDENT_COUNT); }
+
+    @Override
+    public synchronized void scan(String fromId, boolean withGrades, Predicate<Student> visitor) {
+        students.scan(key(fromId), (key, v) -> {
+            Student s = decodeStudent(v);
+            return visitor.test(withGrades ? withGrades(key, s) : s);
+        });
+    }
+
+    /** Buffer pool counters, e.g. "pool 4096 pages: 99.2% hits, 1234 evictions; file 5678 pages". */
+    public synchronized String stats() {
+        long total = pool.getHits() + pool.getMisses();
+        return String.format("pool %d pages: %.1f%% hits, %d evictions; file %d pages, %d reads, %d writes",
+                pool.getCapacity(), total == 0 ? 0 : pool.getHits() * 100.0 / total, pool.getEvictions(),
+                file.getPageCount(), file.getReads(), file.getWrites());
+    }
+
+    public synchronized void flush() throws IOException {
+        pool.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            pool.flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    /* -------- Encoding -------- */
+    private static byte[] key(String id) {
+        return id.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gradePrefix(byte[] first) {
+        return Arrays.copyOf(first, first.length + 1); // trailing 0 separates ID from course (or course from ID)
+    }
+
+    private static byte[] gradeKey(byte[] studentKey, String code) {
+        return pair(studentKey, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] courseKey(byte[] code, byte[] studentKey) {
+        return pair(code, studentKey);
+    }
+
+    private static byte[] pair(byte[] first, byte[] second) {
+        byte[] k = Arrays.copyOf(first, first.length + 1 + second.length);
+        System.arraycopy(second, 0, k, first.length + 1, second.length);
+        return k;
+    }
+
+    // Both grade trees, kept in step
+    private void putScore(byte[] studentKey, String code, double score) {
+        byte[] value = encodeScore(score);
+        grades.put(gradeKey(studentKey, code), value);
+        byCourse.put(courseKey(code.getBytes(StandardCharsets.UTF_8), studentKey), value);
+    }
+
+    private byte[] require(byte[] key, String id) {
+        byte[] value = students.get(key);
+        if (value == null) throw new NoSuchElementException("No student with ID " + id);
+        return value;
+    }
+
+    private static byte[] encodeStudent(String id, String name, double cgpa) {
+        byte[] i = id.getBytes(StandardCharsets.UTF_8), n = name.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + i.length + n.length + 8)
+                .putShort((short) i.length).put(i).putShort((short) n.length).put(n).putDouble(cgpa).array();
+    }
+
+    private static Student decodeStudent(byte[] value) {
+        ByteBuffer b = ByteBuffer.wrap(value);
+        String id = string(b), name = string(b);
+        return new Student(id, name, b.getDouble());
+    }
+
+    private static String string(ByteBuffer b) {
+        int len = b.getShort() & 0xFFFF;
+        String s = new String(b.array(), b.position(), len, StandardCharsets.UTF_8);
+        b.position(b.position() + len);
+        return s;
+    }
+
+    private static byte[] encodeScore(double score) {
+        return ByteBuffer.allocate(8).putDouble(score).array();
+    }
+
+    private Student withGrades(byte[] key, Student s) {
+        byte[] prefix = gradePrefix(key);
+        grades.scanPrefix(prefix, (k, v) -> {
+            String code = new String(k, prefix.length, k.length - prefix.length, StandardCharsets.UTF_8);
+            Course c = course(code);
+            s.addGrade(code, c != null ? c.getName() : "Unknown Course", ByteBuffer.wrap(v).getDouble());
+            return true;
+        });
+        return s;
+    }
+
+    private Course course(String code) {
+        Course c = courseCache.get(code);
+        if (c != null) return c;
+        byte[] value = courses.get(code.getBytes(StandardCharsets.UTF_8));
+        if (value == null) return null;
+        ByteBuffer b = ByteBuffer.wrap(value);
+        c = new Course(code, string(b), b.getInt());
+        courseCache.put(code, c);
+        return c;
+    }
+
+    private void putCourse(Course c) {
+        Course known = course(c.getCode());
+        if (known != null && known.getName().equals(c.getName()) && known.getCredits() == c.getCredits()) return;
+        byte[] n = c.getName().getBytes(StandardCharsets.UTF_8);
+        courses.put(c.getCode().getBytes(StandardCharsets.UTF_8),
+                ByteBuffer.allocate(2 + n.length + 4).putShort((short) n.length).put(n).putInt(c.getCredits()).array());
+        courseCache.put(c.getCode(), c);
+    }
+}
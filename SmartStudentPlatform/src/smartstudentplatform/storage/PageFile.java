@@ -0,0 +1,98 @@
+package smartstudentplatform.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed-size pages. Page 0 is the header: page count, the root page
+ * of each tree and a few counters; every other page belongs to a BPlusTree.
+ * Pages are only ever appended (B+tree nodes are not merged on delete).
+ */
+final class PageFile implements Closeable {
+    static final int PAGE_SIZE = 8192;
+    static final int ROOTS = 4, COUNTERS = 4;
+    private static final int MAGIC = 0x53535042; // "SSPB"
+    private static final int VERSION = 2; // 2: per-course grade tree
+
+    private final FileChannel channel;
+    private int pageCount;
+    private final int[] roots = new int[ROOTS];       // 0 = tree not created yet
+    private final long[] counters = new long[COUNTERS];
+    private long reads, writes;
+
+    PageFile(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        if (channel.size() == 0) {
+            pageCount = 1;
+            writeHeader();
+        } else {
+            readHeader(path);
+        }
+    }
+
+    int allocate() { return pageCount++; }
+
+    int getPageCount() { return pageCount; }
+    int getRoot(int tree) { return roots[tree]; }
+    void setRoot(int tree, int page) { roots[tree] = page; }
+    long getCounter(int slot) { return counters[slot]; }
+    void setCounter(int slot, long value) { counters[slot] = value; }
+    long getReads() { return reads; }
+    long getWrites() { return writes; }
+
+    /** Read a page; pages allocated but never written read as zeros. */
+    void read(int page, ByteBuffer into) throws IOException {
+        into.clear();
+        long base = (long) page * PAGE_SIZE;
+        while (into.hasRemaining()) {
+            if (channel.read(into, base + into.position()) < 0) {
+                while (into.hasRemaining()) into.put((byte) 0);
+            }
+        }
+        into.clear();
+        reads++;
+    }
+
+    void write(int page, ByteBuffer from) throws IOException {
+        from.clear();
+        long base = (long) page * PAGE_SIZE;
+        while (from.hasRemaining()) channel.write(from, base + from.position());
+        from.clear();
+        writes++;
+    }
+
+    /** Write the header and force everything to disk. */
+    void sync() throws IOException {
+        writeHeader();
+        channel.force(false);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(PAGE_SIZE);
+        h.putInt(MAGIC).putInt(VERSION).putInt(pageCount).putInt(PAGE_SIZE);
+        for (int r : roots) h.putInt(r);
+        for (long c : counters) h.putLong(c);
+        write(0, h);
+    }
+
+    private void readHeader(Path path) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(PAGE_SIZE);
+        read(0, h);
+        if (h.getInt() != MAGIC) throw new IOException(path + " is not a student store");
+        int version = h.getInt();
+        if (version != VERSION) throw new IOException("Unsupported store version " + version);
+        pageCount = h.getInt();
+        if (h.getInt() != PAGE_SIZE) throw new IOException("Store was written with a different page size");
+        for (int i = 0; i < ROOTS; i++) roots[i] = h.getInt();
+        for (int i = 0; i < COUNTERS; i++) counters[i] = h.getLong();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,171 @@
+package smartstudentplatform.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Times UI actions on the EDT into a rolling buffer of the last capacity traces.
+ *
+ * wrap() times an action listener, span() any other piece of EDT work
+ * (refreshTable, a file-chooser callback, an event delivery); spans nest, and
+ * each one records its duration and the student / table row counts before and
+ * after. A span
+ * that opened a modal dialog includes the time the dialog was on screen and is
+ * flagged interactive (the EdtWatchdog notices the nested event loop); its
+ * inner spans show the work itself. Optionally every span is also emitted as
+ * a JFR event (recorded only while a flight recording is running).
+ */
+public final class ActionTracer {
+
+    public static final class Trace {
+        private final String name;
+        private final long startMillis, durationNanos;
+        private final int studentsBefore, studentsAfter, rows, depth;
+        private final boolean interactive;
+
+        Trace(String name, long startMillis, long durationNanos, int studentsBefore, int studentsAfter, int rows,
+              int depth, boolean interactive) {
+            this.name = name;
+            this.startMillis = startMillis;
+            this.durationNanos = durationNanos;
+            this.studentsBefore = studentsBefore;
+            this.studentsAfter = studentsAfter;
+            this.rows = rows;
+            this.depth = depth;
+            this.interactive = interactive;
+        }
+
+        public String getName() { return name; }
+        public long getStartMillis() { return startMillis; }    // wall clock
+        public double getMillis() { return durationNanos / 1e6; }
+        public int getStudentsBefore() { return studentsBefore; }
+        public int getStudentsAfter() { return studentsAfter; }
+        public int getRows() { return rows; }                   // table rows afterwards
+        public int getDepth() { return depth; }                 // 0 = started by an event, 1+ = nested span
+        public boolean isInteractive() { return interactive; }  // included a modal dialog
+    }
+
+    @Name("smartstudentplatform.UiAction")
+    @Label("UI Action")
+    @Category({"Smart Student Platform", "UI"})
+    @Description("An action listener or other traced piece of work on the EDT")
+    static final class UiActionEvent extends Event {
+        @Label("Action") String action;
+        @Label("Students Before") int studentsBefore;
+        @Label("Students After") int studentsAfter;
+        @Label("Table Rows") int rows;
+        @Label("Interactive") boolean interactive;
+    }
+
+    // An open span (EDT only)
+    private static final class Span {
+        final String name;
+        final long startNanos = System.nanoTime(), startMillis = System.currentTimeMillis();
+        final int studentsBefore;
+        final UiActionEvent event;
+        boolean interactive;
+
+        Span(String name, int studentsBefore, UiActionEvent event) {
+            this.name = name;
+            this.studentsBefore = studentsBefore;
+            this.event = event;
+        }
+    }
+
+    private final Trace[] ring;
+    private long written;                          // guarded by this
+    private final IntSupplier students, rows;
+    private final Deque<Span> open = new ArrayDeque<>();
+    private volatile String current = null;        // open spans, outermost first; read by the watchdog
+    private volatile boolean jfr;
+
+    public ActionTracer(int capacity, IntSupplier students, IntSupplier rows) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.ring = new Trace[capacity];
+        this.students = students;
+        this.rows = rows;
+    }
+
+    public void setJfrEnabled(boolean enabled) { this.jfr = enabled; }
+    public boolean isJfrEnabled() { return jfr; }
+
+    /** Listener that runs l inside a span called name. */
+    public ActionListener wrap(String name, ActionListener l) {
+        return e -> span(name, () -> l.actionPerformed(e));
+    }
+
+    /** Run work inside a span; call on the EDT. */
+    public void span(String name, Runnable work) {
+        UiActionEvent event = jfr ? new UiActionEvent() : null;
+        if (event != null) event.begin();
+        Span s = new Span(name, students.getAsInt(), event);
+        open.push(s);
+        current = describeOpen();
+        try {
+            work.run();
+        } finally {
+            open.pop();
+            current = open.isEmpty() ? null : describeOpen();
+            finish(s);
+        }
+    }
+
+    private void finish(Span s) {
+        long nanos = System.nanoTime() - s.startNanos;
+        int after = students.getAsInt(), rowCount = rows.getAsInt();
+        record(new Trace(s.name, s.startMillis, nanos, s.studentsBefore, after, rowCount, open.size(), s.interactive));
+        if (s.interactive && !open.isEmpty()) open.peek().interactive = true;
+        if (s.event != null) {
+            s.event.end();
+            if (s.event.shouldCommit()) {
+                s.event.action = s.name;
+                s.event.studentsBefore = s.studentsBefore;
+                s.event.studentsAfter = after;
+                s.event.rows = rowCount;
+                s.event.interactive = s.interactive;
+                s.event.commit();
+            }
+        }
+    }
+
+    private String describeOpen() {
+        StringBuilder sb = new StringBuilder();
+        for (var it = open.descendingIterator(); it.hasNext(); ) {
+            if (sb.length() > 0) sb.append(" > ");
+            sb.append(it.next().name);
+        }
+        return sb.toString();
+    }
+
+    /** Open spans, e.g. "onLoadStudents > chooseAndDo: Load Students"; null when idle. Any thread. */
+    public String currentAction() { return current; }
+
+    /** The EDT ran other events while spans were open: a modal dialog's nested loop. EDT only. */
+    void nestedEventLoop() {
+        for (Span s : open) s.interactive = true;
+    }
+
+    private synchronized void record(Trace t) {
+        ring[(int) (written++ % ring.length)] = t;
+    }
+
+    /** Traces still in the buffer, oldest first. */
+    public synchronized List<Trace> recent() {
+        int n = (int) Math.min(written, ring.length);
+        List<Trace> out = new ArrayList<>(n);
+        for (long i = written - n; i < written; i++) out.add(ring[(int) (i % ring.length)]);
+        return out;
+    }
+
+    public synchronized long getTotalRecorded() { return written; }
+}
@@ -0,0 +1,146 @@
+package smartstudentplatform.ui;
+
+import smartstudentplatform.util.ActivityLog;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Shows an ActivityLog in a JList with a fixed cell height, so only the
+ * visible rows are ever measured and painted. A timer checks the log's
+ * sequence number every REFRESH_MILLIS and re-reads it only if something was
+ * logged, so a burst of thousands of entries costs one repaint. Level filter,
+ * text search, Clear and Export (the whole session, see ActivityLog.export).
+ */
+class ActivityLogPanel extends JPanel {
+    static final int REFRESH_MILLIS = 200;
+
+    private static final String[] LEVELS = {"All", "Warnings and errors", "Errors only"};
+
+    private final ActivityLog log;
+    private final Predicate<File> inUse; // files that must not be written over
+    private final EntryModel model = new EntryModel();
+    private final JList<ActivityLog.Entry> list = new JList<>(model);
+    private final JScrollPane scrollPane = new JScrollPane(list);
+    private final JComboBox<String> levelBox = new JComboBox<>(LEVELS);
+    private final JTextField searchField = new JTextField(12);
+    private final JLabel countLabel = new JLabel();
+    private final Timer timer = new Timer(REFRESH_MILLIS, e -> refresh(false));
+    private long seen = -1; // log sequence shown
+
+    ActivityLogPanel(ActivityLog log, JButton clearButton, JButton exportButton, Predicate<File> inUse) {
+        super(new BorderLayout(0, 3));
+        this.log = log;
+        this.inUse = inUse;
+
+        list.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        list.setBackground(new Color(248, 248, 248));
+        list.setFixedCellHeight(list.getFontMetrics(list.getFont()).getHeight() + 2);
+        list.setCellRenderer(new EntryRenderer());
+        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+
+        levelBox.addActionListener(e -> refresh(true));
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { refresh(true); }
+            @Override public void removeUpdate(DocumentEvent e) { refresh(true); }
+            @Override public void changedUpdate(DocumentEvent e) { refresh(true); }
+        });
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        filters.add(levelBox);
+        filters.add(new JLabel("Find:"));
+        filters.add(searchField);
+        filters.add(countLabel);
+
+        clearButton.addActionListener(e -> { log.clear(); refresh(true); });
+        exportButton.addActionListener(e -> export());
+        JPanel buttons = new JPanel(new GridLayout(1, 2, 5, 0));
+        buttons.add(clearButton);
+        buttons.add(exportButton);
+
+        add(filters, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+        timer.start();
+    }
+
+    /** Pick up new entries now instead of at the next tick. EDT only. */
+    void refresh(boolean force) {
+        long sequence = log.nextSequence();
+        if (!force && sequence == seen) return;
+        seen = sequence;
+
+        int minLevel = levelBox.getSelectedIndex();
+        String needle = searchField.getText().trim().toLowerCase(Locale.ROOT);
+        List<ActivityLog.Entry> all = log.entries();
+        List<ActivityLog.Entry> shown = new ArrayList<>(all.size());
+        for (ActivityLog.Entry e : all) {
+            if (e.getLevel().ordinal() < minLevel) continue;
+            if (!needle.isEmpty() && !e.getMessage().toLowerCase(Locale.ROOT).contains(needle)) continue;
+            shown.add(e);
+        }
+
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        boolean atBottom = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - list.getFixedCellHeight();
+        model.set(shown);
+        if (atBottom && !shown.isEmpty()) list.ensureIndexIsVisible(shown.size() - 1); // follow the tail
+        countLabel.setText(shown.size() == all.size() ? all.size() + " entries" : shown.size() + " of " + all.size());
+    }
+
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Activity Log");
+        chooser.setSelectedFile(new File("activity-log.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        if (inUse.test(chooser.getSelectedFile())) {
+            JOptionPane.showMessageDialog(this, chooser.getSelectedFile().getName() + " is in use by the loaded students. Choose another file.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            long n = log.export(chooser.getSelectedFile());
+            JOptionPane.showMessageDialog(this, n + " entries written to " + chooser.getSelectedFile().getName());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Export failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Replaced wholesale on refresh; the list then repaints only the visible rows
+    private static final class EntryModel extends AbstractListModel<ActivityLog.Entry> {
+        private List<ActivityLog.Entry> entries = new ArrayList<>();
+
+        void set(List<ActivityLog.Entry> fresh) {
+            int old = entries.size();
+            entries = fresh;
+            if (old > fresh.size()) fireIntervalRemoved(this, fresh.size(), old - 1);
+            else if (fresh.size() > old) fireIntervalAdded(this, old, fresh.size() - 1);
+            if (Math.min(old, fresh.size()) > 0) fireContentsChanged(this, 0, Math.min(old, fresh.size()) - 1);
+        }
+
+        @Override public int getSize() { return entries.size(); }
+        @Override public ActivityLog.Entry getElementAt(int i) { return entries.get(i); }
+    }
+
+    private static final class EntryRenderer extends DefaultListCellRenderer {
+        private final SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss");
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean selected, boolean focus) {
+            ActivityLog.Entry e = (ActivityLog.Entry) value;
+            super.getListCellRendererComponent(list, time.format(new Date(e.getTime())) + " - " + e.getMessage(),
+                    index, selected, focus);
+            if (!selected && e.getLevel() == ActivityLog.Level.ERROR) setForeground(new Color(180, 0, 0));
+            else if (!selected && e.getLevel() == ActivityLog.Level.WARNING) setForeground(new Color(160, 90, 0));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package smartstudentplatform.ui;
+
+import smartstudentplatform.core.CohortComparison;
+import smartstudentplatform.core.CourseCorrelation;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Browses a CourseCorrelation: the strongest pairs overall or every partner of
+ * one course, CSV export of all pairs, and a cohort tab comparing two groups
+ * of students picked by ID text. Works on the snapshot it was given, so it
+ * never touches the roster.
+ */
+class CorrelationDialog extends JDialog {
+    private static final int SHOWN = 1000; // pairs listed when no course is entered
+
+    private final CourseCorrelation result;
+    private final Predicate<File> inUse; // files that must not be written over
+    private final ReadOnlyTableModel pairModel = new ReadOnlyTableModel("Course A", "Course B", "Co-enrolled", "Pearson r", "Slope");
+    private final ReadOnlyTableModel cohortModel = new ReadOnlyTableModel("Course", "A n", "A Mean", "B n", "B Mean", "Difference", "Welch t");
+    private final JTextField courseField = new JTextField(10);
+    private final JTextField cohortA = new JTextField(10), cohortB = new JTextField(10);
+    private final JLabel pairSummary = new JLabel(), cohortSummary = new JLabel();
+
+    CorrelationDialog(Frame owner, CourseCorrelation result, Predicate<File> inUse) {
+        super(owner, "Course Correlations", false);
+        this.result = result;
+        this.inUse = inUse;
+
+        JButton show = new JButton("Show");
+        show.addActionListener(e -> showPairs());
+        courseField.addActionListener(e -> showPairs());
+        JPanel filter = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filter.add(new JLabel("Course (blank for strongest overall):"));
+        filter.add(courseField);
+        filter.add(show);
+        JPanel pairPanel = new JPanel(new BorderLayout(5, 5));
+        pairPanel.add(filter, BorderLayout.NORTH);
+        pairPanel.add(new JScrollPane(new JTable(pairModel)), BorderLayout.CENTER);
+        pairPanel.add(pairSummary, BorderLayout.SOUTH);
+
+        JButton compare = new JButton("Compare");
+        compare.addActionListener(e -> compareCohorts());
+        JPanel cohorts = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        cohorts.add(new JLabel("Cohort A: IDs containing"));
+        cohorts.add(cohortA);
+        cohorts.add(new JLabel("Cohort B: IDs containing"));
+        cohorts.add(cohortB);
+        cohorts.add(compare);
+        JPanel cohortPanel = new JPanel(new BorderLayout(5, 5));
+        cohortPanel.add(cohorts, BorderLayout.NORTH);
+        cohortPanel.add(new JScrollPane(new JTable(cohortModel)), BorderLayout.CENTER);
+        cohortPanel.add(cohortSummary, BorderLayout.SOUTH);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Course Pairs", pairPanel);
+        tabs.addTab("Cohorts", cohortPanel);
+
+        JButton export = new JButton("Export CSV...");
+        export.addActionListener(e -> exportCsv());
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(new JLabel(" " + result), BorderLayout.CENTER);
+        south.add(export, BorderLayout.EAST);
+
+        setLayout(new BorderLayout(5, 5));
+        add(tabs, BorderLayout.CENTER);
+        add(south, BorderLayout.SOUTH);
+        setSize(860, 540);
+        setLocationRelativeTo(owner);
+        showPairs();
+    }
+
+    private void showPairs() {
+        String code = courseField.getText().trim(); // matched ignoring case
+        List<CourseCorrelation.Pair> pairs = code.isEmpty() ? result.strongest(SHOWN) : result.partnersOf(code);
+        pairModel.setRowCount(0);
+        for (CourseCorrelation.Pair p : pairs) {
+            pairModel.addRow(new Object[]{p.getCourseA(), p.getCourseB(), p.getCoEnrolled(),
+                    String.format("%.3f", p.getR()), String.format("%.3f", p.getSlope())});
+        }
+        pairSummary.setText(code.isEmpty()
+                ? String.format(" %d strongest of %d pairs", pairs.size(), result.getPairCount())
+                : String.format(" %d courses share at least %d students with %s", pairs.size(), result.getMinOverlap(), code));
+    }
+
+    private void compareCohorts() {
+        String a = cohortA.getText().trim().toUpperCase(Locale.ROOT), b = cohortB.getText().trim().toUpperCase(Locale.ROOT);
+        if (a.isEmpty() || b.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Enter ID text for both cohorts, e.g. CSC/18 and CSC/19.");
+            return;
+        }
+        // upper-cased on both sides, so the match ignores case
+        BitSet rowsA = result.getMatrix().rows(id -> id.toUpperCase(Locale.ROOT).contains(a));
+        BitSet rowsB = result.getMatrix().rows(id -> id.toUpperCase(Locale.ROOT).contains(b));
+        CohortComparison c = CohortComparison.compare(result.getMatrix(), rowsA, rowsB);
+        cohortModel.setRowCount(0);
+        for (CohortComparison.CourseDiff d : c.getCourses()) {
+            cohortModel.addRow(new Object[]{d.getCode(), d.getCountA(), String.format("%.2f", d.getMeanA()),
+                    d.getCountB(), String.format("%.2f", d.getMeanB()), String.format("%.2f", d.getDifference()),
+                    String.format("%.2f", d.getWelchT())});
+        }
+        cohortSummary.setText(String.format(" Cohort A: %d students, cohort B: %d students, %d courses; |t| > 2 is unlikely to be chance",
+                c.getSizeA(), c.getSizeB(), c.getCourses().size()));
+    }
+
+    private void exportCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("course-correlations.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        if (inUse.test(chooser.getSelectedFile())) {
+            JOptionPane.showMessageDialog(this, chooser.getSelectedFile().getName() + " is in use by the loaded students. Choose another file.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            result.exportCsv(chooser.getSelectedFile());
+            JOptionPane.showMessageDialog(this, result.getPairCount() + " pairs written to " + chooser.getSelectedFile().getName());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Export failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
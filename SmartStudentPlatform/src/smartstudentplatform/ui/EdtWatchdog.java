@@ -0,0 +1,178 @@
+package smartstudentplatform.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.awt.EventQueue;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects Event Dispatch Thread stalls.
+ *
+ * A daemon thread posts a heartbeat to the EDT every period and checks that it
+ * ran; a heartbeat still queued after thresholdMillis means the EDT is stuck
+ * in one event. While it is, the watchdog samples the EDT's stack every period,
+ * so a stall record shows where the time went, together with the traced action
+ * that was running. Stalls go into a rolling buffer and, if the tracer has JFR
+ * enabled, out as JFR events.
+ */
+public final class EdtWatchdog implements Closeable {
+    public static final int MAX_SAMPLES = 50; // stack samples kept per stall
+
+    public static final class Stall {
+        private final long startMillis;
+        private final String action;
+        private final List<StackTraceElement[]> samples = new ArrayList<>();
+        private volatile long durationMillis;
+        private volatile boolean over;
+
+        Stall(long startMillis, String action) {
+            this.startMillis = startMillis;
+            this.action = action;
+        }
+
+        public long getStartMillis() { return startMillis; }
+        public long getDurationMillis() { return durationMillis; } // so far, while not over
+        public boolean isOver() { return over; }
+        public String getAction() { return action; }                // traced action, null if none
+
+        /** EDT stacks taken during the stall, oldest first. */
+        public synchronized List<StackTraceElement[]> getSamples() { return new ArrayList<>(samples); }
+
+        /** Most common application frame (outside java./javax./sun./jdk.) across the samples. */
+        public synchronized String getHotFrame() {
+            Map<String, Integer> counts = new HashMap<>();
+            String best = null;
+            for (StackTraceElement[] stack : samples) {
+                for (StackTraceElement f : stack) {
+                    String c = f.getClassName();
+                    if (c.startsWith("java.") || c.startsWith("javax.") || c.startsWith("sun.") || c.startsWith("jdk.")) continue;
+                    String frame = f.toString();
+                    int n = counts.merge(frame, 1, Integer::sum);
+                    if (best == null || n > counts.get(best)) best = frame;
+                    break; // innermost application frame only
+                }
+            }
+            return best;
+        }
+
+        synchronized void sample(StackTraceElement[] stack) {
+            if (samples.size() < MAX_SAMPLES) samples.add(stack);
+        }
+    }
+
+    @Name("smartstudentplatform.EdtStall")
+    @Label("EDT Stall")
+    @Category({"Smart Student Platform", "UI"})
+    @Description("The Event Dispatch Thread did not process events for longer than the threshold")
+    static final class EdtStallEvent extends Event {
+        @Label("Action") String action;
+        @Label("Duration (ms)") long durationMillis;
+        @Label("Hot Frame") String hotFrame;
+    }
+
+    private final long thresholdNanos, periodMillis;
+    private final ActionTracer tracer;
+    private final Thread thread;
+    private final Stall[] ring;
+    private long written;                     // guarded by this
+    private volatile Thread edt;
+    private volatile long postedNanos;        // heartbeat waiting to run, 0 = none
+    private volatile Stall currentStall;
+    private volatile long worstLatencyNanos;
+
+    private EdtWatchdog(long thresholdMillis, int capacity, ActionTracer tracer) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.periodMillis = Math.max(10, thresholdMillis / 4);
+        this.tracer = tracer;
+        this.ring = new Stall[capacity];
+        this.thread = new Thread(this::watch, "edt-watchdog");
+        this.thread.setDaemon(true);
+    }
+
+    public static EdtWatchdog start(long thresholdMillis, int capacity, ActionTracer tracer) {
+        if (thresholdMillis < 20) throw new IllegalArgumentException("Threshold must be at least 20 ms");
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        EdtWatchdog w = new EdtWatchdog(thresholdMillis, capacity, tracer);
+        EventQueue.invokeLater(() -> w.edt = Thread.currentThread());
+        w.thread.start();
+        return w;
+    }
+
+    public long getThresholdMillis() { return thresholdNanos / 1_000_000; }
+    public long getWorstLatencyMillis() { return worstLatencyNanos / 1_000_000; }
+
+    /** Stalls in the buffer, oldest first, including one in progress. */
+    public synchronized List<Stall> recent() {
+        int n = (int) Math.min(written, ring.length);
+        List<Stall> out = new ArrayList<>(n);
+        for (long i = written - n; i < written; i++) out.add(ring[(int) (i % ring.length)]);
+        return Collections.unmodifiableList(out);
+    }
+
+    /* -------- Watchdog thread -------- */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long posted = postedNanos;
+                if (posted == 0) {
+                    postedNanos = System.nanoTime();
+                    EventQueue.invokeLater(this::heartbeat);
+                } else if (System.nanoTime() - posted > thresholdNanos && edt != null) {
+                    Stall s = currentStall;
+                    if (s == null) {
+                        s = new Stall(System.currentTimeMillis() - (System.nanoTime() - posted) / 1_000_000,
+                                tracer != null ? tracer.currentAction() : null);
+                        currentStall = s;
+                        record(s);
+                    }
+                    s.sample(edt.getStackTrace());
+                    s.durationMillis = (System.nanoTime() - posted) / 1_000_000;
+                }
+                Thread.sleep(periodMillis);
+            }
+        } catch (InterruptedException ex) {
+            // closed
+        }
+    }
+
+    /* -------- EDT -------- */
+    private void heartbeat() {
+        long latency = System.nanoTime() - postedNanos;
+        worstLatencyNanos = Math.max(worstLatencyNanos, latency);
+        Stall s = currentStall;
+        if (s != null) {
+            s.durationMillis = latency / 1_000_000;
+            s.over = true;
+            currentStall = null;
+            if (tracer != null && tracer.isJfrEnabled()) {
+                EdtStallEvent event = new EdtStallEvent();
+                if (event.shouldCommit()) {
+                    event.action = s.getAction();
+                    event.durationMillis = s.getDurationMillis();
+                    event.hotFrame = s.getHotFrame();
+                    event.commit();
+                }
+            }
+        }
+        if (tracer != null) tracer.nestedEventLoop(); // no-op unless a traced span is open (modal dialog)
+        postedNanos = 0;
+    }
+
+    private synchronized void record(Stall s) {
+        ring[(int) (written++ % ring.length)] = s;
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+}
@@ -1,20 +1,57 @@
 package smartstudentplatform.ui;
 
+import smartstudentplatform.core.AnalyticsReport;
+import smartstudentplatform.core.CgpaIndex;
+import smartstudentplatform.core.CourseCorrelation;
+import smartstudentplatform.core.QueryCache;
+import smartstudentplatform.core.ScoreMatrix;
+import smartstudentplatform.core.StudentEvent;
 import smartstudentplatform.core.StudentManager;
 import smartstudentplatform.model.Course;
 import smartstudentplatform.model.Student;
+import smartstudentplatform.util.ActivityLog;
+import smartstudentplatform.util.ActivityLog.Level;
+import smartstudentplatform.util.AutosaveService;
 import smartstudentplatform.util.FileManager;
+import smartstudentplatform.util.LazyGradeIndex;
+import smartstudentplatform.util.ResultsIngestService;
+import smartstudentplatform.util.ResultsMergePipeline;
+import smartstudentplatform.util.TranscriptExporter;
+import smartstudentplatform.util.RowFingerprints;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 public class MainFrame extends JFrame {
+    private static final int LAZY_GRADE_CACHE = 2000; // students kept hydrated in lazy mode
+    private static final long AUTOSAVE_INTERVAL_MS = 60_000;
+    private static final int AUTOSAVE_AFTER_CHANGES = 500;
+    private static final int TRACE_CAPACITY = 512;
+    private static final int LOG_CAPACITY = 4096; // activity log entries kept in memory
+    private static final long EDT_STALL_MS = Long.getLong("ssp.edtStallMillis", 200); // -Dssp.edtStallMillis=...
+
     private final StudentManager manager = new StudentManager();
+    private final QueryCache queryCache = new QueryCache(manager, QueryCache.DEFAULT_CAPACITY); // repeated analytics / searches
+    private LazyGradeIndex lazyIndex; // backing file of a lazy load, null otherwise
+    private volatile RowFingerprints fingerprints; // row hashes of the last diff-reload, null otherwise
+    private ResultsIngestService ingest;            // watched results folder, null when not watching
+    private AutosaveService autosave;               // null when autosave is off
 
     // Student form fields
     private final JTextField idField = new JTextField(12);
@@ -25,28 +62,49 @@ public class MainFrame extends JFrame {
     private final JTextField searchIdField = new JTextField(12);
 
     // Table
-    private final DefaultTableModel tableModel = new DefaultTableModel(
-            new String[]{"Student ID", "Name", "CGPA", "Course Code", "Score"}, 0) {
-        @Override public boolean isCellEditable(int r, int c) { return false; }
-    };
+    private final StudentTableModel tableModel = new StudentTableModel();
     private final JTable table = new JTable(tableModel);
 
     // Summary area
-    private final JTextArea summaryArea = new JTextArea(8, 30);
+    private final ActivityLog activityLog = createActivityLog();
+
+    // Live class-of-degree breakdown in the Analytics panel
+    private final JLabel standingLabel = new JLabel();
 
     // Status bar
     private final JLabel statusLabel = new JLabel("Ready");
+    private final JLabel ingestLabel = new JLabel();
+    private final JLabel autosaveLabel = new JLabel();
+    private final Timer ingestTimer = new Timer(1000, e -> updateIngestStatus());
+
+    // Diagnostics: every action listener is timed; the watchdog reports EDT stalls
+    private final ActionTracer tracer = new ActionTracer(TRACE_CAPACITY, () -> manager.getAll().size(), tableModel::getRowCount);
+    private final EdtWatchdog watchdog;
+    private PerformanceDialog performanceDialog;
 
     public MainFrame() {
         super("Smart Student Platform - Student Management System");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) { onClose(); } // runs before the exit
+        });
         setSize(1200, 700);
         setLocationRelativeTo(null);
         
         initializeComponents();
         layoutComponents();
+        // Table follows the manager through change events, delivered on the EDT
+        manager.events().subscribe(StudentEvent.class, traced("events: table"), tableModel::apply);
+        // Any change invalidates the affected row hashes (delivered before a reload returns its new set)
+        manager.events().subscribe(StudentEvent.class, Runnable::run, events -> {
+            RowFingerprints fp = fingerprints;
+            if (fp != null) fp.forget(events);
+        });
+        manager.events().subscribe(StudentEvent.class, traced("events: standing"), events -> updateStanding());
         setJMenuBar(buildMenuBar());
         
+        tracer.setJfrEnabled(Boolean.getBoolean("ssp.jfr"));
+        watchdog = EdtWatchdog.start(EDT_STALL_MS, 64, tracer);
         updateStatus("Application started");
     }
 
@@ -55,16 +113,19 @@ public class MainFrame extends JFrame {
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         table.getTableHeader().setReorderingAllowed(false);
         table.setRowHeight(25);
-        
-        // Configure summary area
-        summaryArea.setEditable(false);
-        summaryArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        summaryArea.setBackground(new Color(248, 248, 248));
+        table.addMouseListener(new MouseAdapter() {
+            @Override public void mouseClicked(MouseEvent e) {
+                int row = table.rowAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && row >= 0) showStudentDetails((String) tableModel.getValueAt(row, 0));
+            }
+        });
         
         // Configure status bar
         statusLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
         statusLabel.setOpaque(true);
         statusLabel.setBackground(new Color(240, 240, 240));
+        ingestLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
+        autosaveLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
     }
 
     private void layoutComponents() {
@@ -91,7 +152,15 @@ public class MainFrame extends JFrame {
         mainPanel.add(rightPanel, BorderLayout.EAST);
         
         add(mainPanel, BorderLayout.CENTER);
-        add(statusLabel, BorderLayout.SOUTH);
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setBackground(new Color(240, 240, 240));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        JPanel indicators = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        indicators.setOpaque(false);
+        indicators.add(ingestLabel);
+        indicators.add(autosaveLabel);
+        statusBar.add(indicators, BorderLayout.EAST);
+        add(statusBar, BorderLayout.SOUTH);
     }
 
     private JPanel createStudentFormPanel() {
@@ -123,13 +192,13 @@ public class MainFrame extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         
         JButton addBtn = createStyledButton("Add Student", new Color(34, 139, 34));
-        addBtn.addActionListener(this::onAdd);
+        addBtn.addActionListener(tracer.wrap("onAdd", this::onAdd));
         
         JButton updateBtn = createStyledButton("Update CGPA", new Color(30, 144, 255));
-        updateBtn.addActionListener(this::onUpdateCgpa);
+        updateBtn.addActionListener(tracer.wrap("onUpdateCgpa", this::onUpdateCgpa));
         
         JButton deleteBtn = createStyledButton("Delete Student", new Color(220, 20, 60));
-        deleteBtn.addActionListener(this::onDelete);
+        deleteBtn.addActionListener(tracer.wrap("onDelete", this::onDelete));
         
         buttonPanel.add(addBtn);
         buttonPanel.add(updateBtn);
@@ -173,8 +242,8 @@ public class MainFrame extends JFrame {
         JPanel searchButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         JButton linearSearchBtn = createStyledButton("Linear Search", new Color(255, 140, 0));
         JButton binarySearchBtn = createStyledButton("Binary Search", new Color(255, 140, 0));
-        linearSearchBtn.addActionListener(e -> onSearch(false));
-        binarySearchBtn.addActionListener(e -> onSearch(true));
+        linearSearchBtn.addActionListener(tracer.wrap("onSearch(linear)", e -> onSearch(false)));
+        binarySearchBtn.addActionListener(tracer.wrap("onSearch(binary)", e -> onSearch(true)));
         searchButtonPanel.add(linearSearchBtn);
         searchButtonPanel.add(binarySearchBtn);
 
@@ -189,9 +258,9 @@ public class MainFrame extends JFrame {
         JButton sortCgpaBtn = createStyledButton("CGPA", new Color(138, 43, 226));
         JButton sortIdBtn = createStyledButton("ID", new Color(138, 43, 226));
         
-        sortNameBtn.addActionListener(e -> { manager.sortByNameQuick(); refreshTable(); updateStatus("Sorted by name"); });
-        sortCgpaBtn.addActionListener(e -> { manager.sortByCgpaBubbleDesc(); refreshTable(); updateStatus("Sorted by CGPA"); });
-        sortIdBtn.addActionListener(e -> { manager.sortByIdInsertion(); refreshTable(); updateStatus("Sorted by ID"); });
+        sortNameBtn.addActionListener(tracer.wrap("sortByNameQuick", e -> { manager.sortByNameQuick(); refreshTable(); updateStatus("Sorted by name"); }));
+        sortCgpaBtn.addActionListener(tracer.wrap("sortByCgpaBubbleDesc", e -> { manager.sortByCgpaBubbleDesc(); refreshTable(); updateStatus("Sorted by CGPA"); }));
+        sortIdBtn.addActionListener(tracer.wrap("sortByIdInsertion", e -> { manager.sortByIdInsertion(); refreshTable(); updateStatus("Sorted by ID"); }));
         
         sortPanel.add(sortNameBtn);
         sortPanel.add(sortCgpaBtn);
@@ -210,7 +279,7 @@ public class MainFrame extends JFrame {
             0, 0, new Font("SansSerif", Font.BOLD, 12)));
 
         JButton addResultBtn = createStyledButton("Add Course Result", new Color(70, 130, 180));
-        addResultBtn.addActionListener(this::onAddResult);
+        addResultBtn.addActionListener(tracer.wrap("onAddResult", this::onAddResult));
         
         JPanel filePanel = new JPanel(new GridLayout(2, 2, 5, 5));
         
@@ -219,10 +288,10 @@ public class MainFrame extends JFrame {
         JButton saveResultsBtn = createStyledButton("Save Results", new Color(60, 179, 113));
         JButton loadResultsBtn = createStyledButton("Load Results", new Color(60, 179, 113));
         
-        saveStudentsBtn.addActionListener(this::onSaveStudents);
-        loadStudentsBtn.addActionListener(this::onLoadStudents);
-        saveResultsBtn.addActionListener(this::onSaveResults);
-        loadResultsBtn.addActionListener(this::onLoadResults);
+        saveStudentsBtn.addActionListener(tracer.wrap("onSaveStudents", this::onSaveStudents));
+        loadStudentsBtn.addActionListener(tracer.wrap("onLoadStudents", this::onLoadStudents));
+        saveResultsBtn.addActionListener(tracer.wrap("onSaveResults", this::onSaveResults));
+        loadResultsBtn.addActionListener(tracer.wrap("onLoadResults", this::onLoadResults));
         
         filePanel.add(saveStudentsBtn);
         filePanel.add(loadStudentsBtn);
@@ -241,31 +310,43 @@ public class MainFrame extends JFrame {
             BorderFactory.createEtchedBorder(), "Activity Log", 
             0, 0, new Font("SansSerif", Font.BOLD, 12)));
 
-        JScrollPane scrollPane = new JScrollPane(summaryArea);
-        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-        panel.add(scrollPane, BorderLayout.CENTER);
-
         JButton clearLogBtn = createStyledButton("Clear Log", new Color(192, 192, 192));
-        clearLogBtn.addActionListener(e -> { summaryArea.setText(""); updateStatus("Log cleared"); });
-        panel.add(clearLogBtn, BorderLayout.SOUTH);
+        JButton exportLogBtn = createStyledButton("Export Log...", new Color(192, 192, 192));
+        panel.add(new ActivityLogPanel(activityLog, clearLogBtn, exportLogBtn, this::isLazyGradesFile), BorderLayout.CENTER);
+        clearLogBtn.addActionListener(tracer.wrap("clearLog", e -> updateStatus("Log cleared")));
 
         return panel;
     }
 
     private JPanel createAnalyticsPanel() {
-        JPanel panel = new JPanel(new GridLayout(2, 1, 5, 5));
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
         panel.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createEtchedBorder(), "Analytics", 
             0, 0, new Font("SansSerif", Font.BOLD, 12)));
+        JPanel buttons = new JPanel(new GridLayout(5, 1, 5, 5));
 
         JButton classAvgBtn = createStyledButton("Class Average", new Color(255, 165, 0));
         JButton topPerformerBtn = createStyledButton("Top Performer", new Color(255, 165, 0));
+        JButton termReportBtn = createStyledButton("Term Report", new Color(255, 165, 0));
+        JButton standingBtn = createStyledButton("Academic Standing", new Color(255, 165, 0));
+        JButton correlationBtn = createStyledButton("Course Correlations", new Color(255, 165, 0));
         
-        classAvgBtn.addActionListener(this::onClassAverage);
-        topPerformerBtn.addActionListener(this::onTopPerformer);
-
-        panel.add(classAvgBtn);
-        panel.add(topPerformerBtn);
+        classAvgBtn.addActionListener(tracer.wrap("onClassAverage", this::onClassAverage));
+        topPerformerBtn.addActionListener(tracer.wrap("onTopPerformer", this::onTopPerformer));
+        termReportBtn.addActionListener(tracer.wrap("onTermReport", this::onTermReport));
+        standingBtn.addActionListener(tracer.wrap("onAcademicStanding", this::onAcademicStanding));
+        correlationBtn.addActionListener(tracer.wrap("onCourseCorrelations", this::onCourseCorrelations));
+
+        buttons.add(classAvgBtn);
+        buttons.add(topPerformerBtn);
+        buttons.add(termReportBtn);
+        buttons.add(standingBtn);
+        buttons.add(correlationBtn);
+        panel.add(buttons, BorderLayout.CENTER);
+
+        standingLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        panel.add(standingLabel, BorderLayout.SOUTH);
+        updateStanding();
 
         return panel;
     }
@@ -288,17 +369,48 @@ public class MainFrame extends JFrame {
         
         JMenuItem saveStudentsItem = new JMenuItem("Save Students...");
         saveStudentsItem.setAccelerator(KeyStroke.getKeyStroke("ctrl S"));
-        saveStudentsItem.addActionListener(this::onSaveStudents);
+        saveStudentsItem.addActionListener(tracer.wrap("onSaveStudents", this::onSaveStudents));
         
         JMenuItem loadStudentsItem = new JMenuItem("Load Students...");
         loadStudentsItem.setAccelerator(KeyStroke.getKeyStroke("ctrl O"));
-        loadStudentsItem.addActionListener(this::onLoadStudents);
+        loadStudentsItem.addActionListener(tracer.wrap("onLoadStudents", this::onLoadStudents));
+        
+        JMenuItem reloadDiffItem = new JMenuItem("Reload Students (Changes Only)...");
+        reloadDiffItem.setAccelerator(KeyStroke.getKeyStroke("ctrl R"));
+        reloadDiffItem.addActionListener(tracer.wrap("onReloadStudentsDiff", this::onReloadStudentsDiff));
+        
+        JMenuItem loadLazyItem = new JMenuItem("Load Students (Lazy Grades)...");
+        loadLazyItem.addActionListener(tracer.wrap("onLoadStudentsLazy", this::onLoadStudentsLazy));
         
         JMenuItem saveResultsItem = new JMenuItem("Save Results...");
-        saveResultsItem.addActionListener(this::onSaveResults);
+        saveResultsItem.addActionListener(tracer.wrap("onSaveResults", this::onSaveResults));
         
         JMenuItem loadResultsItem = new JMenuItem("Load Results...");
-        loadResultsItem.addActionListener(this::onLoadResults);
+        loadResultsItem.addActionListener(tracer.wrap("onLoadResults", this::onLoadResults));
+        
+        JMenuItem mergeResultsItem = new JMenuItem("Merge Results Files...");
+        mergeResultsItem.addActionListener(tracer.wrap("onMergeResults", this::onMergeResults));
+        
+        JMenuItem watchResultsItem = new JMenuItem("Watch Results Folder...");
+        watchResultsItem.addActionListener(tracer.wrap("onWatchResults", this::onWatchResults));
+        
+        JMenuItem stopWatchItem = new JMenuItem("Stop Watching Results Folder");
+        stopWatchItem.addActionListener(tracer.wrap("stopIngest", e -> stopIngest()));
+        
+        JMenuItem autosaveItem = new JMenuItem("Enable Autosave...");
+        autosaveItem.addActionListener(tracer.wrap("onEnableAutosave", this::onEnableAutosave));
+        
+        JMenuItem stopAutosaveItem = new JMenuItem("Disable Autosave");
+        stopAutosaveItem.addActionListener(tracer.wrap("stopAutosave", e -> stopAutosave()));
+        
+        JMenuItem transcriptsItem = new JMenuItem("Export Transcripts...");
+        transcriptsItem.addActionListener(tracer.wrap("onExportTranscripts", this::onExportTranscripts));
+        
+        JMenuItem exportArchiveItem = new JMenuItem("Export Archive...");
+        exportArchiveItem.addActionListener(tracer.wrap("onExportArchive", this::onExportArchive));
+
+        JMenuItem importArchiveItem = new JMenuItem("Import Archive...");
+        importArchiveItem.addActionListener(tracer.wrap("onImportArchive", this::onImportArchive));
         
         JMenuItem exitItem = new JMenuItem("Exit");
         exitItem.setAccelerator(KeyStroke.getKeyStroke("ctrl Q"));
@@ -306,13 +418,35 @@ public class MainFrame extends JFrame {
 
         fileMenu.add(saveStudentsItem);
         fileMenu.add(loadStudentsItem);
+        fileMenu.add(reloadDiffItem);
+        fileMenu.add(loadLazyItem);
         fileMenu.addSeparator();
         fileMenu.add(saveResultsItem);
         fileMenu.add(loadResultsItem);
+        fileMenu.add(mergeResultsItem);
+        fileMenu.add(watchResultsItem);
+        fileMenu.add(stopWatchItem);
+        fileMenu.addSeparator();
+        fileMenu.add(autosaveItem);
+        fileMenu.add(stopAutosaveItem);
+        fileMenu.addSeparator();
+        fileMenu.add(transcriptsItem);
+        fileMenu.add(exportArchiveItem);
+        fileMenu.add(importArchiveItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
 
         menuBar.add(fileMenu);
+
+        JMenu diagnosticsMenu = new JMenu("Diagnostics");
+        diagnosticsMenu.setMnemonic('D');
+        JMenuItem slowActionsItem = new JMenuItem("Slow Actions...");
+        slowActionsItem.addActionListener(e -> showPerformanceDialog());
+        diagnosticsMenu.add(slowActionsItem);
+        JMenuItem cacheItem = new JMenuItem("Query Cache...");
+        cacheItem.addActionListener(tracer.wrap("onQueryCache", this::onQueryCache));
+        diagnosticsMenu.add(cacheItem);
+        menuBar.add(diagnosticsMenu);
         return menuBar;
     }
 
@@ -322,7 +456,7 @@ public class MainFrame extends JFrame {
             try { 
                 FileManager.saveStudents(manager, f); 
                 updateStatus("Students saved to " + f.getName());
-                updateSummary("✓ Saved students to " + f.getName());
+                updateSummary(Level.INFO, "✓ Saved students to " + f.getName());
             }
             catch (Exception ex) { 
                 error("Save failed: " + ex.getMessage()); 
@@ -335,9 +469,9 @@ public class MainFrame extends JFrame {
         chooseAndDo("Load Students", false, f -> {
             try { 
                 FileManager.loadStudents(manager, f); 
-                refreshTable(); 
+                releaseLazyIndex();
                 updateStatus("Students loaded from " + f.getName());
-                updateSummary("✓ Loaded students from " + f.getName());
+                updateSummary(Level.INFO, "✓ Loaded students from " + f.getName());
             }
             catch (Exception ex) { 
                 error("Load failed: " + ex.getMessage()); 
@@ -346,12 +480,52 @@ public class MainFrame extends JFrame {
         });
     }
 
+    private void onReloadStudentsDiff(ActionEvent e) {
+        chooseAndDo("Reload Students (Changes Only)", false, f -> {
+            try {
+                if (lazyIndex != null) {
+                    // lazy students read grades from the old file; start over from the new one
+                    releaseLazyIndex();
+                    manager.clear();
+                }
+                RowFingerprints fp = FileManager.diffReloadStudents(manager, f, fingerprints);
+                fingerprints = fp;
+                updateStatus("Students reloaded from " + f.getName() + ": " + fp);
+                updateSummary(Level.INFO, "✓ Reloaded " + f.getName() + " - " + fp);
+            }
+            catch (Exception ex) {
+                error("Reload failed: " + ex.getMessage());
+                updateStatus("Reload failed");
+            }
+        });
+    }
+
+    private void onLoadStudentsLazy(ActionEvent e) {
+        chooseAndDo("Load Students (Lazy Grades)", false, f -> {
+            if (autosave != null && sameFile(f, autosave.getTarget())) {
+                error("Autosave is writing to " + f.getName() + ". Disable autosave or load another file.");
+                return;
+            }
+            try {
+                LazyGradeIndex index = FileManager.loadStudentsLazy(manager, f, LAZY_GRADE_CACHE);
+                releaseLazyIndex();
+                lazyIndex = index;
+                updateStatus("Students loaded from " + f.getName() + " (grades on demand)");
+                updateSummary(Level.INFO, "✓ Loaded students from " + f.getName() + " - grades load when a student is opened");
+            }
+            catch (Exception ex) {
+                error("Load failed: " + ex.getMessage());
+                updateStatus("Load failed");
+            }
+        });
+    }
+
     private void onSaveResults(ActionEvent e) {
         chooseAndDo("Save Results", true, f -> {
             try { 
                 FileManager.saveResults(manager, f); 
                 updateStatus("Results saved to " + f.getName());
-                updateSummary("✓ Saved results to " + f.getName());
+                updateSummary(Level.INFO, "✓ Saved results to " + f.getName());
             }
             catch (Exception ex) { 
                 error("Save failed: " + ex.getMessage()); 
@@ -364,9 +538,8 @@ public class MainFrame extends JFrame {
         chooseAndDo("Load Results", false, f -> {
             try { 
                 FileManager.loadResults(manager, f); 
-                refreshTable(); 
                 updateStatus("Results loaded from " + f.getName());
-                updateSummary("✓ Loaded results from " + f.getName());
+                updateSummary(Level.INFO, "✓ Loaded results from " + f.getName());
             }
             catch (Exception ex) { 
                 error("Load failed: " + ex.getMessage()); 
@@ -375,6 +548,216 @@ public class MainFrame extends JFrame {
         });
     }
 
+    private void onMergeResults(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Merge Results Files");
+        chooser.setMultiSelectionEnabled(true);
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Files", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        List<File> files = new java.util.ArrayList<>(List.of(chooser.getSelectedFiles()));
+        files.sort(null); // "first/last file" means first/last by name
+        if (files.isEmpty()) return;
+
+        ResultsMergePipeline.DuplicatePolicy policy = (ResultsMergePipeline.DuplicatePolicy) JOptionPane.showInputDialog(this,
+                "A student's course appears in more than one file:", "Merge Results Files", JOptionPane.QUESTION_MESSAGE,
+                null, ResultsMergePipeline.DuplicatePolicy.values(), ResultsMergePipeline.DuplicatePolicy.LAST_FILE_WINS);
+        if (policy == null) return;
+
+        int parsers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ResultsMergePipeline pipeline = new ResultsMergePipeline(parsers, parsers * 4, policy);
+        updateStatus("Merging " + files.size() + " results files...");
+        new SwingWorker<ResultsMergePipeline.Report, Void>() {
+            @Override protected ResultsMergePipeline.Report doInBackground() throws Exception {
+                return pipeline.merge(manager, files, traced("merge: apply"));
+            }
+
+            @Override protected void done() {
+                try {
+                    ResultsMergePipeline.Report r = get();
+                    updateStatus("Merged " + r.getFilesMerged() + " results files");
+                    updateSummary(Level.INFO, String.format("✓ Merged %d results files in %d ms: %d scores, %d rejected, %d duplicates (%s), %d conflicts skipped",
+                            r.getFilesMerged(), r.getMillis(), r.getScoresApplied(), r.getRejected(), r.getDuplicates(),
+                            policy, r.getConflicts()));
+                    updateSummary(Level.INFO, "  " + r.getParse() + "; " + r.getMerge() + "; " + r.getApply() + "; bottleneck: " + r.getBottleneck());
+                    if (!r.getFailures().isEmpty()) {
+                        Map.Entry<File, String> first = r.getFailures().entrySet().iterator().next();
+                        error(r.getFailures().size() + " file(s) could not be read and were left out, first: "
+                                + first.getKey().getName() + ": " + first.getValue());
+                    }
+                } catch (Exception ex) {
+                    error("Merge failed: " + ex.getMessage());
+                    updateStatus("Merge failed");
+                }
+            }
+        }.execute();
+    }
+
+    private void onWatchResults(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Watch Results Folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File dir = chooser.getSelectedFile();
+        try {
+            stopIngest();
+            int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+            ingest = ResultsIngestService.start(manager, dir.toPath(), workers, traced("ingest"));
+            ingest.setListener(new ResultsIngestService.Listener() {
+                @Override public void onApplied(List<ResultsIngestService.FileResult> results) {
+                    int rows = 0, rejected = 0;
+                    for (ResultsIngestService.FileResult r : results) { rows += r.getApplied(); rejected += r.getRejected(); }
+                    updateSummary(rejected > 0 ? Level.WARNING : Level.INFO,
+                            "✓ Ingested " + results.size() + " results file(s): " + rows + " scores"
+                            + (rejected > 0 ? ", " + rejected + " rejected" : ""));
+                }
+                @Override public void onFailed(Path file, Exception error) {
+                    updateSummary(Level.ERROR, "✗ Could not ingest " + file.getFileName() + ": " + error.getMessage());
+                }
+            });
+            ingestTimer.start();
+            updateIngestStatus();
+            updateStatus("Watching " + dir.getName() + " for results files");
+            updateSummary(Level.INFO, "✓ Watching " + dir + " - new results files are loaded automatically");
+        }
+        catch (Exception ex) {
+            error("Cannot watch folder: " + ex.getMessage());
+            updateStatus("Watch failed");
+        }
+    }
+
+    private void stopIngest() {
+        if (ingest == null) return;
+        try { ingest.close(); } catch (IOException ignored) {}
+        updateSummary(Level.INFO, "✓ Stopped watching " + ingest.getDirectory());
+        ingest = null;
+        ingestTimer.stop();
+        ingestLabel.setText("");
+    }
+
+    private void updateIngestStatus() {
+        if (ingest != null) ingestLabel.setText("Ingest: " + ingest.stats());
+    }
+
+    private void onEnableAutosave(ActionEvent e) {
+        chooseAndDo("Autosave Students To", true, f -> {
+            stopAutosave();
+            autosave = AutosaveService.start(manager, f, AUTOSAVE_INTERVAL_MS, AUTOSAVE_AFTER_CHANGES,
+                    traced("autosave"));
+            autosave.setListener(new AutosaveService.Listener() {
+                @Override public void onSaved(AutosaveService.SaveInfo info) {
+                    autosaveLabel.setText(String.format("Autosaved %s (%d students, snapshot %d ms, write %d ms)",
+                            java.time.LocalTime.now().toString().substring(0, 8), info.getStudents(),
+                            info.getCaptureMillis(), info.getWriteMillis()));
+                }
+                @Override public void onFailed(Exception error) {
+                    autosaveLabel.setText("Autosave failed: " + error.getMessage());
+                    updateSummary(Level.ERROR, "✗ Autosave to " + f.getName() + " failed: " + error.getMessage());
+                }
+            });
+            autosave.requestSave(); // first save right away
+            autosaveLabel.setText("Autosave on: " + f.getName());
+            updateStatus("Autosaving to " + f.getName());
+            updateSummary(Level.INFO, "✓ Autosave to " + f.getName() + " every " + AUTOSAVE_INTERVAL_MS / 1000 + " s or "
+                    + AUTOSAVE_AFTER_CHANGES + " changes");
+        });
+    }
+
+    // Window closing: what autosave and the activity journal have not written yet would be lost with the process
+    private void onClose() {
+        if (autosave != null) {
+            try {
+                autosave.flush();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            stopAutosave();
+        }
+        try {
+            activityLog.close(); // last, so it keeps the autosave messages above
+        } catch (IOException ex) {
+            // exiting; nowhere left to report it
+        }
+    }
+
+    private void stopAutosave() {
+        if (autosave == null) return;
+        autosave.close();
+        updateSummary(Level.INFO, "✓ Autosave to " + autosave.getTarget().getName() + " stopped");
+        autosave = null;
+        autosaveLabel.setText("");
+    }
+
+    private void onExportTranscripts(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Transcripts To Folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File dir = chooser.getSelectedFile();
+        if (lazyIndex != null && sameFile(dir, lazyIndex.getFile().getParentFile())) {
+            error(dir.getName() + " holds the file the loaded students' grades are read from. Choose another folder.");
+            return;
+        }
+
+        TranscriptExporter.Format format = (TranscriptExporter.Format) JOptionPane.showInputDialog(this,
+                "Transcript format:", "Export Transcripts", JOptionPane.QUESTION_MESSAGE, null,
+                TranscriptExporter.Format.values(), TranscriptExporter.Format.TEXT);
+        if (format == null) return;
+
+        // consistent copy taken here on the EDT; rendering and IO run in the background
+        TranscriptExporter.Snapshot snapshot = TranscriptExporter.snapshot(manager);
+        updateStatus("Exporting " + snapshot.size() + " transcripts...");
+        new SwingWorker<TranscriptExporter.Result, Void>() {
+            @Override protected TranscriptExporter.Result doInBackground() throws Exception {
+                return TranscriptExporter.write(snapshot, dir, format, TranscriptExporter.DEFAULT_MAX_OPEN_FILES);
+            }
+
+            @Override protected void done() {
+                try {
+                    TranscriptExporter.Result r = get();
+                    updateStatus("Transcripts exported to " + dir.getName());
+                    updateSummary(Level.INFO, String.format("✓ Exported %d transcripts to %s in %d ms (%.0f files/s), manifest %s",
+                            r.getFiles(), dir.getName(), r.getMillis(), r.getFilesPerSecond(), r.getManifest().getName()));
+                    if (!r.getFailures().isEmpty()) {
+                        error(r.getFailures().size() + " transcripts could not be written, first: "
+                                + r.getFailures().entrySet().iterator().next());
+                    }
+                } catch (Exception ex) {
+                    error("Transcript export failed: " + ex.getMessage());
+                    updateStatus("Transcript export failed");
+                }
+            }
+        }.execute();
+    }
+
+    private void onExportArchive(ActionEvent e) {
+        chooseAndDo("Export Archive", true, f -> {
+            try {
+                FileManager.saveArchive(manager, f);
+                updateStatus("Archive exported to " + f.getName());
+                updateSummary(Level.INFO, "✓ Exported compressed archive to " + f.getName());
+            }
+            catch (Exception ex) {
+                error("Export failed: " + ex.getMessage());
+                updateStatus("Export failed");
+            }
+        });
+    }
+
+    private void onImportArchive(ActionEvent e) {
+        chooseAndDo("Import Archive", false, f -> {
+            try {
+                FileManager.loadArchive(manager, f);
+                releaseLazyIndex();
+                updateStatus("Archive imported from " + f.getName());
+                updateSummary(Level.INFO, "✓ Imported compressed archive from " + f.getName());
+            }
+            catch (Exception ex) {
+                error("Import failed: " + ex.getMessage());
+                updateStatus("Import failed");
+            }
+        });
+    }
+
     private void onAdd(ActionEvent e) {
         String id = idField.getText().trim();
         String name = nameField.getText().trim();
@@ -391,10 +774,9 @@ public class MainFrame extends JFrame {
                 return; 
             }
             manager.addStudent(id, name, cg);
-            refreshTable();
             clearInputs();
             updateStatus("Student added: " + name);
-            updateSummary("✓ Added student: " + name + " (ID: " + id + ", CGPA: " + cg + ")");
+            updateSummary(Level.INFO, "✓ Added student: " + name + " (ID: " + id + ", CGPA: " + cg + ")");
         } catch (NumberFormatException ex) {
             error("CGPA must be a valid number.");
         } catch (IllegalArgumentException dup) {
@@ -416,9 +798,8 @@ public class MainFrame extends JFrame {
                 return; 
             }
             manager.updateStudentCgpa(id, cg);
-            refreshTable();
             updateStatus("CGPA updated for student: " + id);
-            updateSummary("✓ Updated CGPA for student " + id + " to " + cg);
+            updateSummary(Level.INFO, "✓ Updated CGPA for student " + id + " to " + cg);
         } catch (NumberFormatException ex) {
             error("CGPA must be a valid number.");
         } catch (Exception ex) {
@@ -441,10 +822,9 @@ public class MainFrame extends JFrame {
             
         if (confirm == JOptionPane.YES_OPTION) {
             manager.removeStudent(id);
-            refreshTable();
             clearInputs();
             updateStatus("Student deleted: " + id);
-            updateSummary("✗ Deleted student with ID: " + id);
+            updateSummary(Level.INFO, "✗ Deleted student with ID: " + id);
         }
     }
 
@@ -454,17 +834,17 @@ public class MainFrame extends JFrame {
             error("Enter a Student ID to search."); 
             return; 
         }
-        Student s = binary ? manager.binarySearch(id) : manager.linearSearch(id);
+        Student s = binary ? queryCache.binarySearch(id) : queryCache.linearSearch(id);
         String searchType = binary ? "Binary" : "Linear";
         
         if (s == null) {
             info("No student found with ID: " + id);
             updateStatus("Search completed - No results");
-            updateSummary("? " + searchType + " search for ID " + id + " - No results");
+            updateSummary(Level.WARNING, "? " + searchType + " search for ID " + id + " - No results");
         } else {
             info("Found: " + s.display());
             updateStatus("Student found: " + s.getName());
-            updateSummary("✓ " + searchType + " search found: " + s.getName() + " (ID: " + id + ")");
+            updateSummary(Level.INFO, "✓ " + searchType + " search found: " + s.getName() + " (ID: " + id + ")");
         }
     }
 
@@ -508,9 +888,8 @@ public class MainFrame extends JFrame {
             
             Course course = new Course(codeField.getText().trim(), nameField.getText().trim(), credits);
             manager.addResult(id.trim(), course, score);
-            refreshTable();
             updateStatus("Result added for student: " + id);
-            updateSummary("✓ Added result for " + id + " - " + codeField.getText().trim() + ": " + score);
+            updateSummary(Level.INFO, "✓ Added result for " + id + " - " + codeField.getText().trim() + ": " + score);
         } catch (NumberFormatException ex) {
             error("Credits and Score must be valid numbers.");
         } catch (Exception ex) {
@@ -524,10 +903,10 @@ public class MainFrame extends JFrame {
         if (course == null || course.trim().isEmpty()) return;
         
         try {
-            double avg = manager.classAverage(course.trim());
+            double avg = queryCache.classAverage(course.trim());
             String message = String.format("Class average for %s: %.2f", course.trim(), avg);
             info(message);
-            updateSummary("📊 " + message);
+            updateSummary(Level.INFO, "📊 " + message);
             updateStatus("Class average calculated");
         } catch (Exception ex) {
             error(ex.getMessage());
@@ -547,14 +926,14 @@ public class MainFrame extends JFrame {
         if (choice == 2 || choice == JOptionPane.CLOSED_OPTION) return;
 
         Optional<Student> student = (choice == 0) ? 
-            manager.topPerformerByCgpa() : 
-            manager.topPerformerByAvgScore();
+            queryCache.topPerformerByCgpa() : 
+            queryCache.topPerformerByAvgScore();
             
         if (student.isPresent()) {
             String metric = (choice == 0) ? "CGPA" : "Average Score";
             String message = "Top performer by " + metric + ": " + student.get().display();
             info(message);
-            updateSummary("🏆 " + message);
+            updateSummary(Level.INFO, "🏆 " + message);
             updateStatus("Top performer identified");
         } else {
             info("No students found in the system.");
@@ -562,35 +941,209 @@ public class MainFrame extends JFrame {
         }
     }
 
+    private void onTermReport(ActionEvent e) {
+        long start = System.nanoTime();
+        AnalyticsReport report = queryCache.analyticsReport(Runtime.getRuntime().availableProcessors(),
+                AnalyticsReport.DEFAULT_PASS_MARK);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        if (report.getCourses().isEmpty()) {
+            info("No course results recorded yet.");
+            return;
+        }
+
+        DefaultTableModel courseModel = new ReadOnlyTableModel("Course", "Count", "Mean", "Std Dev", "Min", "Max", "Pass %");
+        for (AnalyticsReport.CourseStats c : report.getCourses().values()) {
+            courseModel.addRow(new Object[]{c.getCode(), c.getCount(),
+                    String.format("%.2f", c.getMean()), String.format("%.2f", c.getStdDev()),
+                    String.format("%.1f", c.getMin()), String.format("%.1f", c.getMax()),
+                    String.format("%.1f", c.getPassRate() * 100)});
+        }
+        DefaultTableModel studentModel = new ReadOnlyTableModel("Student ID", "Mean Score");
+        report.getStudentMeans().forEach((id, mean) -> studentModel.addRow(new Object[]{id, String.format("%.2f", mean)}));
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Courses (" + report.getCourses().size() + ")", new JScrollPane(new JTable(courseModel)));
+        tabs.addTab("Students (" + report.getStudentMeans().size() + ")", new JScrollPane(new JTable(studentModel)));
+        tabs.setPreferredSize(new Dimension(640, 400));
+        JOptionPane.showMessageDialog(this, tabs, "Term Report (pass mark " + report.getPassMark() + ")", JOptionPane.PLAIN_MESSAGE);
+
+        updateSummary(Level.INFO, "📊 Term report: " + report.getCourses().size() + " courses, "
+                + report.getStudentMeans().size() + " students in " + ms + " ms");
+        updateStatus("Term report generated");
+    }
+
+    private void onAcademicStanding(ActionEvent e) {
+        String[] options = {"List Band", "CGPA Range...", "Edit Bands...", "Close"};
+        while (true) {
+            DefaultTableModel model = new ReadOnlyTableModel("Band", "From CGPA", "Students");
+            Map<String, Integer> counts = manager.standingBreakdown();
+            List<CgpaIndex.Band> bands = manager.cgpaIndex().getBands();
+            for (int i = 0; i < bands.size(); i++) {
+                CgpaIndex.Band b = bands.get(i);
+                model.addRow(new Object[]{b.getName(), i == bands.size() - 1 ? "-" : String.format("%.2f", b.getMin()),
+                        counts.get(b.getName())});
+            }
+            JTable bandTable = new JTable(model);
+            bandTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            bandTable.setRowSelectionInterval(bands.size() - 1, bands.size() - 1); // lowest band, usually probation
+            JScrollPane pane = new JScrollPane(bandTable);
+            pane.setPreferredSize(new Dimension(420, 180));
+
+            int choice = JOptionPane.showOptionDialog(this, pane, "Academic Standing", JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+            if (choice == 0 && bandTable.getSelectedRow() >= 0) {
+                String band = bands.get(bandTable.getSelectedRow()).getName();
+                showCgpaListing(band, manager.cgpaIndex().studentsIn(band));
+            } else if (choice == 1) {
+                String range = JOptionPane.showInputDialog(this, "CGPA range (e.g. 1.0-1.5, both ends included):",
+                        "CGPA Range", JOptionPane.QUESTION_MESSAGE);
+                if (range == null || range.isBlank()) continue;
+                String[] ends = range.trim().split("\\s*-\\s*|\\s+");
+                try {
+                    double lo = Double.parseDouble(ends[0]), hi = Double.parseDouble(ends[ends.length - 1]);
+                    int n = manager.countByCgpa(lo, hi);
+                    updateSummary(Level.INFO, "🎓 " + n + " students with CGPA " + lo + " - " + hi);
+                    showCgpaListing("CGPA " + lo + " - " + hi, manager.studentsByCgpa(lo, hi));
+                } catch (NumberFormatException ex) {
+                    error("Enter a range like 1.0-1.5");
+                }
+            } else if (choice == 2) {
+                String text = (String) JOptionPane.showInputDialog(this,
+                        "Bands as name:minimum, highest first; the last band takes everything below:",
+                        "Edit Bands", JOptionPane.QUESTION_MESSAGE, null, null,
+                        String.join(", ", bands.stream().map(CgpaIndex.Band::toString).toList()));
+                if (text == null) continue;
+                try {
+                    manager.cgpaIndex().setBands(CgpaIndex.Band.parseAll(text));
+                    updateStanding();
+                } catch (IllegalArgumentException ex) {
+                    error(ex.getMessage());
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void onCourseCorrelations(ActionEvent e) {
+        String text = JOptionPane.showInputDialog(this, "Only keep course pairs with at least this many students in common:",
+                CourseCorrelation.DEFAULT_MIN_OVERLAP);
+        if (text == null) return;
+        int minOverlap;
+        try {
+            minOverlap = Integer.parseInt(text.trim());
+            if (minOverlap < 2) throw new NumberFormatException();
+        } catch (NumberFormatException ex) {
+            error("Enter a whole number of at least 2");
+            return;
+        }
+        ScoreMatrix matrix = manager.scoreMatrix(); // snapshot here, the roster is EDT-only
+        if (matrix.courseCount() < 2) {
+            info("Need results in at least two courses.");
+            return;
+        }
+        updateStatus("Correlating " + matrix.courseCount() + " courses over " + matrix.studentCount() + " students...");
+        new SwingWorker<CourseCorrelation, Void>() {
+            @Override protected CourseCorrelation doInBackground() {
+                return CourseCorrelation.compute(matrix, Runtime.getRuntime().availableProcessors(), minOverlap);
+            }
+
+            @Override protected void done() {
+                try {
+                    CourseCorrelation result = get();
+                    updateSummary(Level.INFO, "📈 Course correlations: " + result);
+                    updateStatus("Course correlations ready");
+                    new CorrelationDialog(MainFrame.this, result, MainFrame.this::isLazyGradesFile).setVisible(true);
+                } catch (Exception ex) {
+                    error("Correlation failed: " + ex.getMessage());
+                    updateStatus("Correlation failed");
+                }
+            }
+        }.execute();
+    }
+
+    private void showCgpaListing(String title, List<Student> students) {
+        DefaultTableModel model = new ReadOnlyTableModel("Student ID", "Name", "CGPA");
+        for (Student s : students) model.addRow(new Object[]{s.getId(), s.getName(), String.format("%.2f", s.getCgpa())});
+        JScrollPane pane = new JScrollPane(new JTable(model));
+        pane.setPreferredSize(new Dimension(520, 360));
+        JOptionPane.showMessageDialog(this, pane, title + " (" + students.size() + " students)", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    // One line per band, from the CGPA index (no roster scan)
+    private void updateStanding() {
+        StringBuilder sb = new StringBuilder("<html>");
+        manager.standingBreakdown().forEach((band, n) -> sb.append(band).append(": <b>").append(n).append("</b><br>"));
+        standingLabel.setText(sb.append("</html>").toString());
+    }
+
     /* ---------- Helper methods ---------- */
+    // EDT executor for work handed over by events and background services, timed like the actions
+    private Executor traced(String name) {
+        return r -> SwingUtilities.invokeLater(() -> tracer.span(name, r));
+    }
+
+    // Full rebuild - only needed after the roster has been re-ordered
     private void refreshTable() {
-        tableModel.setRowCount(0);
-        int studentCount = 0;
-        
-        for (Student s : manager.getAll()) {
-            studentCount++;
-            if (s.getGrades().isEmpty()) {
-                tableModel.addRow(new Object[]{
-                    s.getId(), 
-                    s.getName(), 
-                    String.format("%.2f", s.getCgpa()), 
-                    "-", 
-                    "-"
-                });
-            } else {
-                s.getGrades().forEach((courseCode, score) -> {
-                    tableModel.addRow(new Object[]{
-                        s.getId(),
-                        s.getName(),
-                        String.format("%.2f", s.getCgpa()),
-                        courseCode,
-                        String.format("%.1f", score)
-                    });
-                });
+        tracer.span("refreshTable", () -> {
+            tableModel.rebuild(manager.getAll());
+            updateStatus("Displaying " + tableModel.getStudentCount() + " students with " + tableModel.getRowCount() + " total records");
+        });
+    }
+
+    private void onQueryCache(ActionEvent e) {
+        QueryCache.Stats stats = queryCache.stats();
+        int choice = JOptionPane.showOptionDialog(this, "Cached query results: " + stats, "Query Cache",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, new Object[]{"Clear", "Close"}, "Close");
+        if (choice == 0) {
+            queryCache.clear();
+            updateStatus("Query cache cleared");
+        }
+    }
+
+    private void showPerformanceDialog() {
+        if (performanceDialog == null) performanceDialog = new PerformanceDialog(this, tracer, watchdog);
+        else performanceDialog.reload();
+        performanceDialog.setVisible(true);
+    }
+
+    private void showStudentDetails(String id) {
+        Student s = manager.linearSearch(id);
+        if (s == null) return;
+        try {
+            StringBuilder sb = new StringBuilder(s.display()).append("\n\n");
+            if (s.getGrades().isEmpty()) sb.append("No course results.");
+            for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+                sb.append(String.format("%-10s %-30s %6.1f%n", g.getKey(), s.getCourseName(g.getKey()), g.getValue()));
             }
+            JTextArea area = new JTextArea(sb.toString());
+            area.setEditable(false);
+            area.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            JOptionPane.showMessageDialog(this, new JScrollPane(area), "Student Details", JOptionPane.PLAIN_MESSAGE);
+            tableModel.studentChanged(s);
+        } catch (Exception ex) {
+            error("Cannot load grades: " + ex.getMessage());
         }
-        
-        updateStatus("Displaying " + studentCount + " students with " + tableModel.getRowCount() + " total records");
+    }
+
+    private static boolean sameFile(File a, File b) {
+        try {
+            return a.exists() && b.exists() && Files.isSameFile(a.toPath(), b.toPath());
+        } catch (IOException ex) {
+            return a.getAbsoluteFile().equals(b.getAbsoluteFile());
+        }
+    }
+
+    // Grades not loaded yet are still read from it: anything written over it loses them
+    private boolean isLazyGradesFile(File f) {
+        return lazyIndex != null && sameFile(f, lazyIndex.getFile());
+    }
+
+    private void releaseLazyIndex() {
+        if (lazyIndex == null) return;
+        try { lazyIndex.close(); } catch (IOException ignored) {}
+        lazyIndex = null;
     }
 
     private void clearInputs() {
@@ -603,9 +1156,21 @@ public class MainFrame extends JFrame {
         statusLabel.setText(message);
     }
 
-    private void updateSummary(String message) {
-        summaryArea.append(java.time.LocalTime.now().toString().substring(0, 8) + " - " + message + "\n");
-        summaryArea.setCaretPosition(summaryArea.getDocument().getLength());
+    // Any thread; the log panel picks it up on its next refresh tick
+    private void updateSummary(Level level, String message) {
+        activityLog.add(level, message);
+    }
+
+    // Journaled to a temp file so Export Log can write the whole session; memory only if that fails
+    private static ActivityLog createActivityLog() {
+        try {
+            File journal = File.createTempFile("ssp-activity", ".log");
+            journal.deleteOnExit();
+            return new ActivityLog(LOG_CAPACITY, journal);
+        } catch (IOException ex) {
+            try { return new ActivityLog(LOG_CAPACITY, null); }
+            catch (IOException impossible) { throw new UncheckedIOException(impossible); }
+        }
     }
 
     private interface FileAction {
@@ -622,7 +1187,11 @@ public class MainFrame extends JFrame {
         
         int result = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
-            action.run(chooser.getSelectedFile());
+            if (save && isLazyGradesFile(chooser.getSelectedFile())) {
+                error(chooser.getSelectedFile().getName() + " is where the loaded students' grades are read from. Choose another file.");
+                return;
+            }
+            tracer.span("chooseAndDo: " + title, () -> action.run(chooser.getSelectedFile()));
         }
     }
 
@@ -631,6 +1200,7 @@ public class MainFrame extends JFrame {
     }
 
     private void error(String msg) {
+        activityLog.error(msg);
         JOptionPane.showMessageDialog(this, msg, "Error", JOptionPane.ERROR_MESSAGE);
     }
 }
@@ -0,0 +1,106 @@
+package smartstudentplatform.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Slowest recent UI actions (from the ActionTracer) and recent EDT stalls with
+ * their sampled stacks (from the EdtWatchdog). Modeless; Refresh re-reads both
+ * buffers.
+ */
+class PerformanceDialog extends JDialog {
+    private static final int SHOWN = 100; // slowest actions listed
+
+    private final ActionTracer tracer;
+    private final EdtWatchdog watchdog;
+    private final ReadOnlyTableModel actionModel = new ReadOnlyTableModel("Action", "ms", "Students", "Table Rows", "At", "Dialog");
+    private final ReadOnlyTableModel stallModel = new ReadOnlyTableModel("Started", "ms", "During Action", "Hot Frame");
+    private final JTextArea stackArea = new JTextArea();
+    private final JLabel summary = new JLabel();
+    private List<EdtWatchdog.Stall> stalls = new ArrayList<>();
+
+    PerformanceDialog(Frame owner, ActionTracer tracer, EdtWatchdog watchdog) {
+        super(owner, "Slow Actions", false);
+        this.tracer = tracer;
+        this.watchdog = watchdog;
+
+        JTable actions = new JTable(actionModel);
+        actions.getColumnModel().getColumn(0).setPreferredWidth(300);
+        JTable stallTable = new JTable(stallModel);
+        stallTable.getColumnModel().getColumn(3).setPreferredWidth(320);
+        stallTable.getSelectionModel().addListSelectionListener(e -> {
+            int row = stallTable.getSelectedRow();
+            if (!e.getValueIsAdjusting() && row >= 0) showStack(stalls.get(row));
+        });
+        stackArea.setEditable(false);
+        stackArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
+
+        JSplitPane stallPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(stallTable), new JScrollPane(stackArea));
+        stallPane.setResizeWeight(0.4);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Slowest Actions", new JScrollPane(actions));
+        tabs.addTab("EDT Stalls", stallPane);
+
+        JCheckBox jfr = new JCheckBox("Emit JFR events", tracer.isJfrEnabled());
+        jfr.addActionListener(e -> tracer.setJfrEnabled(jfr.isSelected()));
+        JButton refresh = new JButton("Refresh");
+        refresh.addActionListener(e -> reload());
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(summary, BorderLayout.CENTER);
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(jfr);
+        buttons.add(refresh);
+        south.add(buttons, BorderLayout.EAST);
+
+        setLayout(new BorderLayout(5, 5));
+        add(tabs, BorderLayout.CENTER);
+        add(south, BorderLayout.SOUTH);
+        setSize(820, 520);
+        setLocationRelativeTo(owner);
+        reload();
+    }
+
+    void reload() {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        List<ActionTracer.Trace> traces = new ArrayList<>(tracer.recent());
+        traces.sort(Comparator.comparingDouble(ActionTracer.Trace::getMillis).reversed());
+        actionModel.setRowCount(0);
+        for (ActionTracer.Trace t : traces.subList(0, Math.min(SHOWN, traces.size()))) {
+            String students = t.getStudentsBefore() == t.getStudentsAfter() ? String.valueOf(t.getStudentsAfter())
+                    : t.getStudentsBefore() + " -> " + t.getStudentsAfter();
+            actionModel.addRow(new Object[]{"  ".repeat(t.getDepth()) + t.getName(), String.format("%.1f", t.getMillis()),
+                    students, t.getRows(), time.format(new Date(t.getStartMillis())), t.isInteractive() ? "yes" : ""});
+        }
+
+        stalls = new ArrayList<>(watchdog.recent());
+        stalls.sort(Comparator.comparingLong(EdtWatchdog.Stall::getStartMillis).reversed());
+        stallModel.setRowCount(0);
+        for (EdtWatchdog.Stall s : stalls) {
+            stallModel.addRow(new Object[]{time.format(new Date(s.getStartMillis())),
+                    s.getDurationMillis() + (s.isOver() ? "" : "+"), s.getAction() == null ? "-" : s.getAction(),
+                    s.getHotFrame() == null ? "-" : s.getHotFrame()});
+        }
+        stackArea.setText("");
+        summary.setText(String.format(" %d actions traced (last %d kept), %d stalls over %d ms, worst EDT latency %d ms",
+                tracer.getTotalRecorded(), traces.size(), stalls.size(), watchdog.getThresholdMillis(),
+                watchdog.getWorstLatencyMillis()));
+    }
+
+    private void showStack(EdtWatchdog.Stall s) {
+        List<StackTraceElement[]> samples = s.getSamples();
+        StringBuilder sb = new StringBuilder();
+        sb.append(samples.size()).append(" sample(s); first and last shown\n\n");
+        for (int i : samples.size() > 1 ? new int[]{0, samples.size() - 1} : new int[]{0}) {
+            if (samples.isEmpty()) break;
+            sb.append("--- sample ").append(i + 1).append(" ---\n");
+            for (StackTraceElement f : samples.get(i)) sb.append("  at ").append(f).append('\n');
+        }
+        stackArea.setText(sb.toString());
+        stackArea.setCaretPosition(0);
+    }
+}
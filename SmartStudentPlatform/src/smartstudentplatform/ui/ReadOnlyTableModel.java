@@ -0,0 +1,12 @@
+package smartstudentplatform.ui;
+
+import javax.swing.table.DefaultTableModel;
+
+/** A DefaultTableModel for result tables: rows are added in code, never edited in the table. */
+final class ReadOnlyTableModel extends DefaultTableModel {
+    ReadOnlyTableModel(String... columns) {
+        super(columns, 0);
+    }
+
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+}
@@ -0,0 +1,242 @@
+package smartstudentplatform.ui;
+
+import smartstudentplatform.core.StudentEvent;
+import smartstudentplatform.model.Student;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+
+/**
+ * One row per (student, course) - or a single row for a student without grades.
+ * Rows keep a reference to the Student and format cells on demand, so only the
+ * visible rows are ever formatted. Kept current by StudentEvents; a full
+ * rebuild is only needed when the roster is re-ordered.
+ *
+ * A student's rows are found through an ID -> first row index. Appends and
+ * in-place updates keep it current; anything that shifts later rows marks it
+ * stale and it is rebuilt on the next lookup. A batch with many such changes
+ * (or many events) is applied in one pass over the rows instead.
+ */
+class StudentTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Student ID", "Name", "CGPA", "Course Code", "Score"};
+    private static final int BULK_THRESHOLD = 256;  // above this, repaint once instead of per event
+    private static final int RESHAPE_THRESHOLD = 16; // row-shifting events above which one pass is cheaper
+
+    private static final class Row {
+        final Student student;
+        final String courseCode; // null: student has no (loaded) grades
+        Double score;
+
+        Row(Student student, String courseCode, Double score) {
+            this.student = student;
+            this.courseCode = courseCode;
+            this.score = score;
+        }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<String, Integer> startById = new HashMap<>();
+    private boolean indexStale;
+    private int studentCount;
+
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int c) { return COLUMNS[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+
+    @Override
+    public Object getValueAt(int r, int c) {
+        Row row = rows.get(r);
+        switch (c) {
+            case 0: return row.student.getId();
+            case 1: return row.student.getName();
+            case 2: return String.format("%.2f", row.student.getCgpa());
+            case 3: return row.courseCode != null ? row.courseCode : placeholder(row);
+            default: return row.score != null ? String.format("%.1f", row.score) : placeholder(row);
+        }
+    }
+
+    // "…" = grades not loaded yet (lazy mode), "-" = no grades
+    private static String placeholder(Row row) {
+        return row.student.isGradesLoaded() ? "-" : "…";
+    }
+
+    public int getStudentCount() { return studentCount; }
+
+    /* -------- Full rebuild (after sorting / initial load) -------- */
+    public void rebuild(List<Student> students) {
+        rows.clear();
+        for (Student s : students) appendRows(s, rows);
+        studentCount = students.size();
+        indexStale = true;
+        fireTableDataChanged();
+    }
+
+    /* -------- Incremental updates -------- */
+    public void apply(List<? extends StudentEvent> events) {
+        int reshaping = 0;
+        for (StudentEvent e : events) {
+            if (e instanceof StudentEvent.StudentRemoved || e instanceof StudentEvent.GradePosted
+                    || e instanceof StudentEvent.StudentReplaced) reshaping++;
+        }
+        if (events.size() > BULK_THRESHOLD || reshaping > RESHAPE_THRESHOLD) {
+            applyInOnePass(events);
+            return;
+        }
+        for (StudentEvent e : events) {
+            if (e instanceof StudentEvent.StudentAdded) {
+                int start = rows.size();
+                Student s = ((StudentEvent.StudentAdded) e).getStudent();
+                appendRows(s, rows);
+                if (!indexStale) startById.put(s.getId(), start);
+                studentCount++;
+                fireTableRowsInserted(start, rows.size() - 1);
+            } else if (e instanceof StudentEvent.StudentRemoved) {
+                int[] run = findRun(((StudentEvent.StudentRemoved) e).getStudent());
+                if (run == null) continue;
+                rows.subList(run[0], run[1]).clear();
+                studentCount--;
+                indexStale = true;
+                fireTableRowsDeleted(run[0], run[1] - 1);
+            } else if (e instanceof StudentEvent.StudentReplaced) {
+                int[] run = findRun(((StudentEvent.StudentReplaced) e).getOldStudent());
+                if (run != null) replaceRun(run, ((StudentEvent.StudentReplaced) e).getNewStudent());
+            } else if (e instanceof StudentEvent.CgpaUpdated || e instanceof StudentEvent.NameChanged) {
+                int[] run = findRun(e.getStudentId());
+                if (run != null) fireTableRowsUpdated(run[0], run[1] - 1);
+            } else if (e instanceof StudentEvent.GradePosted) {
+                int[] run = findRun(e.getStudentId());
+                if (run != null) replaceRun(run, rows.get(run[0]).student);
+            } else if (e instanceof StudentEvent.RosterCleared) {
+                clearRows();
+                fireTableDataChanged();
+            }
+        }
+    }
+
+    /** Re-read one student's rows, e.g. after its grades were hydrated. */
+    public void studentChanged(Student s) {
+        int[] run = findRun(s);
+        if (run != null) replaceRun(run, s);
+    }
+
+    // Replace the run's rows with s's current rows
+    private void replaceRun(int[] run, Student s) {
+        List<Row> fresh = new ArrayList<>();
+        appendRows(s, fresh);
+        int oldLen = run[1] - run[0], newLen = fresh.size(), common = Math.min(oldLen, newLen);
+        for (int i = 0; i < common; i++) rows.set(run[0] + i, fresh.get(i));
+        if (newLen > oldLen) rows.addAll(run[1], fresh.subList(common, newLen));
+        else if (oldLen > newLen) rows.subList(run[0] + common, run[1]).clear();
+        if (newLen != oldLen) indexStale = true;
+        fireTableRowsUpdated(run[0], run[0] + common - 1);
+        if (newLen > oldLen) fireTableRowsInserted(run[0] + common, run[0] + newLen - 1);
+        else if (oldLen > newLen) fireTableRowsDeleted(run[0] + common, run[0] + oldLen - 1);
+    }
+
+    // Big batches: work out what each student becomes, then copy the rows once
+    private void applyInOnePass(List<? extends StudentEvent> events) {
+        Set<Student> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Student, Student> replacedBy = new IdentityHashMap<>();
+        Set<String> reread = new HashSet<>();
+        List<Student> added = new ArrayList<>();                 // null: added, then removed again
+        Map<Student, Integer> addedAt = new IdentityHashMap<>();
+        for (StudentEvent e : events) {
+            if (e instanceof StudentEvent.StudentAdded) {
+                Student s = ((StudentEvent.StudentAdded) e).getStudent();
+                addedAt.put(s, added.size());
+                added.add(s);
+            } else if (e instanceof StudentEvent.StudentRemoved) {
+                Student s = ((StudentEvent.StudentRemoved) e).getStudent();
+                Integer at = addedAt.remove(s);
+                if (at != null) added.set(at, null);
+                else gone.add(s);
+            } else if (e instanceof StudentEvent.StudentReplaced) {
+                StudentEvent.StudentReplaced r = (StudentEvent.StudentReplaced) e;
+                Integer at = addedAt.remove(r.getOldStudent());
+                if (at != null) {
+                    added.set(at, r.getNewStudent());
+                    addedAt.put(r.getNewStudent(), at);
+                } else {
+                    replacedBy.put(r.getOldStudent(), r.getNewStudent());
+                }
+            } else if (e instanceof StudentEvent.GradePosted) {
+                reread.add(e.getStudentId());
+            } else if (e instanceof StudentEvent.RosterCleared) {
+                clearRows();
+                gone.clear();
+                replacedBy.clear();
+                reread.clear();
+                added.clear();
+                addedAt.clear();
+            }
+        }
+
+        List<Row> old = new ArrayList<>(rows);
+        rows.clear();
+        studentCount = 0;
+        for (int i = 0; i < old.size(); ) {
+            Student s = old.get(i).student;
+            int end = i + 1;
+            while (end < old.size() && old.get(end).student == s) end++;
+            Student now = s;
+            while (replacedBy.containsKey(now)) now = replacedBy.get(now);
+            if (!gone.contains(now)) {
+                if (now != s || reread.contains(s.getId())) appendRows(now, rows);
+                else rows.addAll(old.subList(i, end));
+                studentCount++;
+            }
+            i = end;
+        }
+        for (Student s : added) {
+            if (s == null) continue;
+            appendRows(s, rows);
+            studentCount++;
+        }
+        indexStale = true;
+        fireTableDataChanged();
+    }
+
+    private void clearRows() {
+        rows.clear();
+        startById.clear();
+        indexStale = false;
+        studentCount = 0;
+    }
+
+    private static void appendRows(Student s, List<Row> out) {
+        if (!s.isGradesLoaded() || s.getGrades().isEmpty()) {
+            out.add(new Row(s, null, null));
+            return;
+        }
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+            out.add(new Row(s, g.getKey(), g.getValue()));
+        }
+    }
+
+    /* -------- Row index -------- */
+    // A student's rows are contiguous: [start, end); null if s is not shown
+    private int[] findRun(Student s) {
+        int[] run = findRun(s.getId());
+        return run != null && rows.get(run[0]).student == s ? run : null;
+    }
+
+    private int[] findRun(String id) {
+        if (indexStale) {
+            startById.clear();
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == 0 || rows.get(i - 1).student != rows.get(i).student) startById.put(rows.get(i).student.getId(), i);
+            }
+            indexStale = false;
+        }
+        Integer start = startById.get(id);
+        return start == null ? null : runFrom(start);
+    }
+
+    private int[] runFrom(int start) {
+        Student s = rows.get(start).student;
+        int end = start + 1;
+        while (end < rows.size() && rows.get(end).student == s) end++;
+        return new int[]{start, end};
+    }
+}
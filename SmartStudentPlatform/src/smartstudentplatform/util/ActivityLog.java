@@ -0,0 +1,206 @@
+package smartstudentplatform.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity activity log that any thread can append to without locking.
+ *
+ * Entries go into a ring of the last capacity entries: a writer takes the
+ * next sequence number from an AtomicLong and stores its entry in that slot.
+ * A reader knows an entry is the one it wants when the entry's own sequence
+ * number matches; a slot already overwritten (or not yet filled) is skipped.
+ * Memory stays flat however long the session runs.
+ *
+ * With a journal file, a background thread copies new entries to disk every
+ * JOURNAL_MILLIS, so export() can write the whole session, not just the ring.
+ * If the log outruns the journal by more than a ring, the gap is noted.
+ */
+public final class ActivityLog implements Closeable {
+    public static final long JOURNAL_MILLIS = 250;
+
+    public enum Level { INFO, WARNING, ERROR }
+
+    public static final class Entry {
+        private final long sequence, time;
+        private final Level level;
+        private final String message;
+
+        Entry(long sequence, long time, Level level, String message) {
+            this.sequence = sequence;
+            this.time = time;
+            this.level = level;
+            this.message = message;
+        }
+
+        public long getSequence() { return sequence; }
+        public long getTime() { return time; }          // wall clock millis
+        public Level getLevel() { return level; }
+        public String getMessage() { return message; }
+    }
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private volatile long clearedBefore;               // entries below this are hidden from views
+
+    private final File journal;                        // null: memory only
+    private final ScheduledExecutorService journalThread;
+    private BufferedWriter journalOut;                 // guarded by this
+    private long journaled;                            // next sequence to journal, guarded by this
+    private IOException journalError;                  // guarded by this
+
+    /** capacity is rounded up to a power of two; journal may be null. */
+    public ActivityLog(int capacity, File journal) throws IOException {
+        if (capacity < 1 || capacity > 1 << 24) throw new IllegalArgumentException("Capacity must be 1..16M");
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.journal = journal;
+        if (journal == null) {
+            journalThread = null;
+        } else {
+            journalOut = Files.newBufferedWriter(journal.toPath(), StandardCharsets.UTF_8);
+            journalThread = Executors.newSingleThreadScheduledExecutor(daemon("activity-log-journal"));
+            journalThread.scheduleWithFixedDelay(this::drainQuietly, JOURNAL_MILLIS, JOURNAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public int capacity() { return mask + 1; }
+
+    /* -------- Writing (any thread) -------- */
+    public void add(Level level, String message) {
+        long seq = next.getAndIncrement();
+        ring.set((int) (seq & mask), new Entry(seq, System.currentTimeMillis(), level, message));
+    }
+
+    public void info(String message) { add(Level.INFO, message); }
+    public void warning(String message) { add(Level.WARNING, message); }
+    public void error(String message) { add(Level.ERROR, message); }
+
+    /** Hide everything logged so far from entries(); the journal keeps it. */
+    public void clear() { clearedBefore = next.get(); }
+
+    /* -------- Reading (any thread) -------- */
+    /** Sequence number the next entry will get; changes whenever something is logged. */
+    public long nextSequence() { return next.get(); }
+
+    /** Entries still in the ring and not cleared, oldest first. */
+    public List<Entry> entries() {
+        long end = next.get();
+        long from = Math.max(clearedBefore, end - capacity());
+        List<Entry> out = new ArrayList<>((int) (end - from));
+        for (long s = from; s < end; s++) {
+            Entry e = ring.get((int) (s & mask));
+            if (e != null && e.sequence == s) out.add(e); // else overwritten, or its writer hasn't stored it yet
+        }
+        return out;
+    }
+
+    /** One line as written by export: date, time, level, message. */
+    public static String format(Entry e) {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(e.time)) + ' ' + e.level + ' ' + e.message;
+    }
+
+    /* -------- Export -------- */
+    /**
+     * Write the whole session to file: the journal if there is one (including
+     * cleared entries), otherwise what the ring still holds. Returns the number
+     * of entries logged so far.
+     */
+    public long export(File file) throws IOException {
+        if (journal != null) {
+            synchronized (this) {
+                drainQuietly();
+                if (journalError == null) {
+                    journalOut.flush();
+                    Files.copy(journal.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    return journaled;
+                }
+            }
+        }
+        long end = next.get();
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            List<Entry> all = new ArrayList<>();
+            for (long s = Math.max(0, end - capacity()); s < end; s++) {
+                Entry e = ring.get((int) (s & mask));
+                if (e != null && e.sequence == s) all.add(e);
+            }
+            if (!all.isEmpty() && all.get(0).sequence > 0) {
+                out.write("(" + all.get(0).sequence + " earlier entries no longer held)");
+                out.newLine();
+            }
+            for (Entry e : all) {
+                out.write(format(e));
+                out.newLine();
+            }
+        }
+        return end;
+    }
+
+    /* -------- Journal thread -------- */
+    private synchronized void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException ex) {
+            // remembered in journalError; export falls back to the ring
+        }
+    }
+
+    // Copy entries journaled..next to the journal; caller holds the lock
+    private void drain() throws IOException {
+        if (journalError != null) return;
+        try {
+            long end = next.get();
+            if (end - journaled > capacity()) {
+                journalOut.write("(" + (end - capacity() - journaled) + " entries logged too fast to journal)");
+                journalOut.newLine();
+                journaled = end - capacity();
+            }
+            for (; journaled < end; journaled++) {
+                Entry e = ring.get((int) (journaled & mask));
+                if (e == null || e.sequence < journaled) break; // writer still storing it: next round
+                if (e.sequence > journaled) continue;           // overwritten meanwhile
+                journalOut.write(format(e));
+                journalOut.newLine();
+            }
+            journalOut.flush();
+        } catch (IOException ex) {
+            journalError = ex;
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journalThread == null) return;
+        journalThread.shutdownNow();
+        synchronized (this) {
+            try { drain(); } finally { journalOut.close(); }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,343 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed archival format for a whole roster (students + grades).
+ *
+ * Layout:
+ *   header     "SSPA", version, course dictionary (code, name pairs)
+ *   directory  one entry per block: first/last ID, student count, sizes, offset
+ *   blocks     deflated payloads, each decodable on its own
+ *
+ * Inside a block students are sorted by ID and each ID is front-coded against
+ * the previous one (shared prefix length + suffix). CGPA and scores are stored
+ * as fixed-point hundredths (same precision as the %.2f CSV files) and course
+ * codes as dictionary indexes, all as zig-zag varints.
+ */
+public final class ArchiveFile {
+    private ArchiveFile() {}
+
+    private static final int MAGIC = 0x53535041; // "SSPA"
+    private static final int VERSION = 1;
+    public static final int DEFAULT_BLOCK_SIZE = 4096; // students per block
+
+    /* -------- Save -------- */
+    public static void save(StudentManager manager, File file) throws IOException {
+        save(manager, file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static void save(StudentManager manager, File file, int blockSize) throws IOException {
+        if (blockSize <= 0) throw new IllegalArgumentException("Block size must be positive");
+
+        List<Student> sorted = new ArrayList<>(manager.getAll());
+        sorted.sort(Comparator.comparing(Student::getId));
+
+        // Course dictionary: (code, name) pair -> index
+        Map<String, Integer> dictIndex = new LinkedHashMap<>();
+        List<String[]> dict = new ArrayList<>();
+        for (Student s : sorted) {
+            for (String code : s.getGrades().keySet()) {
+                String name = s.getCourseName(code);
+                dictIndex.computeIfAbsent(code + '\u0000' + name, k -> {
+                    dict.add(new String[]{code, name});
+                    return dict.size() - 1;
+                });
+            }
+        }
+
+        // Encode + compress blocks independently (in parallel, they share nothing)
+        int blockCount = (sorted.size() + blockSize - 1) / blockSize;
+        List<Block> blocks = IntStream.range(0, blockCount).parallel()
+                .mapToObj(b -> encodeBlock(sorted.subList(b * blockSize,
+                        Math.min(sorted.size(), (b + 1) * blockSize)), dictIndex))
+                .collect(Collectors.toList());
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarint(out, dict.size());
+            for (String[] entry : dict) {
+                out.writeUTF(entry[0]);
+                out.writeUTF(entry[1]);
+            }
+            writeVarint(out, blocks.size());
+            long offset = 0;
+            for (Block b : blocks) {
+                out.writeUTF(b.firstId);
+                out.writeUTF(b.lastId);
+                writeVarint(out, b.count);
+                writeVarint(out, b.rawLength);
+                writeVarint(out, b.data.length);
+                out.writeLong(offset);
+                offset += b.data.length;
+            }
+            for (Block b : blocks) out.write(b.data);
+        }
+    }
+
+    private static Block encodeBlock(List<Student> students, Map<String, Integer> dictIndex) {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(students.size() * 64);
+        String prev = "";
+        for (Student s : students) {
+            String id = s.getId();
+            int shared = sharedPrefix(prev, id);
+            writeVarint(raw, shared);
+            writeString(raw, id.substring(shared));
+            writeString(raw, s.getName());
+            writeSigned(raw, toFixed(s.getCgpa()));
+            Map<String, Double> grades = s.getGrades();
+            writeVarint(raw, grades.size());
+            for (Map.Entry<String, Double> g : grades.entrySet()) {
+                writeVarint(raw, dictIndex.get(g.getKey() + '\u0000' + s.getCourseName(g.getKey())));
+                writeSigned(raw, toFixed(g.getValue()));
+            }
+            prev = id;
+        }
+
+        byte[] input = raw.toByteArray();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream packed = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                packed.write(buf, 0, n);
+            }
+            return new Block(students.get(0).getId(), students.get(students.size() - 1).getId(),
+                    students.size(), input.length, packed.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /* -------- Load -------- */
+    public static void load(StudentManager manager, File file) throws IOException {
+        load(manager, file, null, null);
+    }
+
+    /**
+     * Load only the students whose ID falls in [fromId, toId] (either bound may
+     * be null). Blocks outside the range are skipped without being read, and the
+     * remaining blocks are inflated in parallel.
+     */
+    public static void load(StudentManager manager, File file, String fromId, String toId) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // Count bytes above the buffer so we know where the block payloads start
+            CountingInputStream counter = new CountingInputStream(new BufferedInputStream(
+                    Channels.newInputStream(ch), 1 << 16));
+            DataInputStream in = new DataInputStream(counter);
+            if (in.readInt() != MAGIC) throw new IOException("Not a student archive: " + file.getName());
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported archive version " + version);
+
+            int dictSize = readVarint(in);
+            String[] codes = new String[dictSize];
+            String[] names = new String[dictSize];
+            for (int i = 0; i < dictSize; i++) {
+                codes[i] = in.readUTF();
+                names[i] = in.readUTF();
+            }
+
+            int blockCount = readVarint(in);
+            List<BlockRef> selected = new ArrayList<>();
+            for (int i = 0; i < blockCount; i++) {
+                BlockRef ref = new BlockRef(in.readUTF(), in.readUTF(), readVarint(in),
+                        readVarint(in), readVarint(in), in.readLong());
+                boolean below = fromId != null && ref.lastId.compareTo(fromId) < 0;
+                boolean above = toId != null && ref.firstId.compareTo(toId) > 0;
+                if (!below && !above) selected.add(ref);
+            }
+            long payloadBase = counter.count;
+
+            List<List<Student>> decoded;
+            try {
+                decoded = selected.parallelStream()
+                        .map(ref -> decodeBlock(ch, payloadBase, ref, codes, names, fromId, toId))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            manager.clear();
+            for (List<Student> block : decoded) {
+                for (Student s : block) manager.addStudent(s);
+            }
+        }
+    }
+
+    private static List<Student> decodeBlock(FileChannel ch, long base, BlockRef ref,
+                                             String[] codes, String[] names,
+                                             String fromId, String toId) {
+        try {
+            ByteBuffer packed = ByteBuffer.allocate(ref.compressedLength);
+            long pos = base + ref.offset;
+            while (packed.hasRemaining()) {
+                int n = ch.read(packed, pos + packed.position()); // positional read, thread-safe
+                if (n < 0) throw new EOFException("Truncated archive block " + ref.firstId);
+            }
+
+            byte[] raw = new byte[ref.rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(packed.array());
+                int off = 0;
+                while (off < raw.length) {
+                    int n = inflater.inflate(raw, off, raw.length - off);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                    off += n;
+                }
+                if (off != raw.length) throw new IOException("Corrupt archive block " + ref.firstId);
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt archive block " + ref.firstId, ex);
+            } finally {
+                inflater.end();
+            }
+
+            ByteArrayInputStream in = new ByteArrayInputStream(raw);
+            List<Student> out = new ArrayList<>(ref.count);
+            String prev = "";
+            for (int i = 0; i < ref.count; i++) {
+                int shared = readVarint(in);
+                String id = prev.substring(0, shared) + readString(in);
+                String name = readString(in);
+                double cgpa = fromFixed(readSigned(in));
+                Student s = new Student(id, name, cgpa);
+                int grades = readVarint(in);
+                for (int g = 0; g < grades; g++) {
+                    int d = readVarint(in);
+                    s.addGrade(codes[d], names[d], fromFixed(readSigned(in)));
+                }
+                prev = id;
+                if (fromId != null && id.compareTo(fromId) < 0) continue;
+                if (toId != null && id.compareTo(toId) > 0) continue;
+                out.add(s);
+            }
+            return out;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /* -------- Encoding helpers -------- */
+    private static long toFixed(double v) { return Math.round(v * 100); }
+    private static double fromFixed(long v) { return v / 100.0; }
+
+    private static int sharedPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length()), i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, b.length);
+        out.write(b, 0, b.length);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        byte[] b = new byte[readVarint(in)];
+        if (in.readNBytes(b, 0, b.length) != b.length) throw new EOFException();
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long v) {
+        writeVarint(out, (v << 1) ^ (v >> 63)); // zig-zag
+    }
+
+    private static long readSigned(InputStream in) throws IOException {
+        long v = readVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarint(OutputStream out, long v) {
+        try {
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        return Math.toIntExact(readVarLong(in));
+    }
+
+    private static final class Block {
+        final String firstId, lastId;
+        final int count, rawLength;
+        final byte[] data;
+
+        Block(String firstId, String lastId, int count, int rawLength, byte[] data) {
+            this.firstId = firstId;
+            this.lastId = lastId;
+            this.count = count;
+            this.rawLength = rawLength;
+            this.data = data;
+        }
+    }
+
+    private static final class BlockRef {
+        final String firstId, lastId;
+        final int count, rawLength, compressedLength;
+        final long offset;
+
+        BlockRef(String firstId, String lastId, int count, int rawLength, int compressedLength, long offset) {
+            this.firstId = firstId;
+            this.lastId = lastId;
+            this.count = count;
+            this.rawLength = rawLength;
+            this.compressedLength = compressedLength;
+            this.offset = offset;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) { super(in); }
+
+        @Override public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentEvent;
+import smartstudentplatform.core.StudentEventBus;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saves the roster (saveStudentsFull format) in the background, every
+ * intervalMillis if anything changed and as soon as mutationThreshold changes
+ * have piled up.
+ *
+ * The snapshot is taken on the owner executor - the thread that mutates the
+ * manager, the EDT in the UI - by copying IDs, names, CGPAs and grades into flat
+ * arrays; formatting and disk IO happen on a writer thread, into a temp file
+ * that is then renamed over the target, so the target is always a complete
+ * save. At most one save is in flight - requests arriving meanwhile collapse
+ * into a single follow-up save - so one snapshot buffer is enough; it is
+ * reused, and a snapshot allocates nothing once warm.
+ *
+ * The rename replaces the target file, so the target must not be a file
+ * something else keeps open, such as the source of a LazyGradeIndex.
+ */
+public final class AutosaveService implements Closeable {
+
+    /** Called on the owner executor. */
+    public interface Listener {
+        void onSaved(SaveInfo info);
+        void onFailed(Exception error);
+    }
+
+    public static final class SaveInfo {
+        private final Instant time;
+        private final int students;
+        private final long captureMillis, writeMillis, bytes;
+
+        SaveInfo(Instant time, int students, long captureMillis, long writeMillis, long bytes) {
+            this.time = time;
+            this.students = students;
+            this.captureMillis = captureMillis;
+            this.writeMillis = writeMillis;
+            this.bytes = bytes;
+        }
+
+        public Instant getTime() { return time; }
+        public int getStudents() { return students; }
+        public long getCaptureMillis() { return captureMillis; } // time the owner thread was busy
+        public long getWriteMillis() { return writeMillis; }     // background: format, write, fsync, rename
+        public long getBytes() { return bytes; }
+    }
+
+    // Flat copy of the roster; arrays grow as needed and are reused between saves
+    private static final class Snapshot {
+        int count, gradeCount;
+        String[] ids = new String[0], names = new String[0];
+        double[] cgpa = new double[0];
+        int[] gradeEnd = new int[0];            // student i owns grades [gradeEnd[i-1], gradeEnd[i])
+        String[] codes = new String[0], courseNames = new String[0];
+        double[] scores = new double[0];
+
+        void capture(StudentManager manager) {
+            int n = manager.getAll().size();
+            if (ids.length < n) {
+                int cap = Math.max(n, ids.length * 3 / 2);
+                ids = Arrays.copyOf(ids, cap);
+                names = Arrays.copyOf(names, cap);
+                cgpa = Arrays.copyOf(cgpa, cap);
+                gradeEnd = Arrays.copyOf(gradeEnd, cap);
+            }
+            int g = 0, i = 0;
+            for (Student s : manager.getAll()) {
+                ids[i] = s.getId();
+                names[i] = s.getName();
+                cgpa[i] = s.getCgpa();
+                Map<String, Double> grades = s.getGrades();
+                if (codes.length < g + grades.size()) {
+                    int cap = Math.max(g + grades.size(), codes.length * 3 / 2);
+                    codes = Arrays.copyOf(codes, cap);
+                    courseNames = Arrays.copyOf(courseNames, cap);
+                    scores = Arrays.copyOf(scores, cap);
+                }
+                for (Map.Entry<String, Double> e : grades.entrySet()) {
+                    codes[g] = e.getKey();
+                    courseNames[g] = s.getCourseName(e.getKey());
+                    scores[g] = e.getValue();
+                    g++;
+                }
+                gradeEnd[i++] = g;
+            }
+            // drop references left over from a larger roster
+            if (i < count) {
+                Arrays.fill(ids, i, count, null);
+                Arrays.fill(names, i, count, null);
+            }
+            if (g < gradeCount) {
+                Arrays.fill(codes, g, gradeCount, null);
+                Arrays.fill(courseNames, g, gradeCount, null);
+            }
+            count = i;
+            gradeCount = g;
+        }
+
+        // Same rows as FileManager.saveStudentsFull
+        void write(CsvWriter w) throws IOException {
+            w.write("ID,Name,CGPA,Grades").newline();
+            for (int i = 0, g = 0; i < count; i++) {
+                w.write(ids[i]).comma().field(names[i]).comma().shortest(cgpa[i]).comma();
+                int end = gradeEnd[i];
+                if (needsQuoting(g, end)) {
+                    StringBuilder sb = new StringBuilder();
+                    for (int k = g; k < end; k++) {
+                        if (k > g) sb.append(';');
+                        sb.append(codes[k]).append(':').append(scores[k]).append(':').append(courseNames[k]);
+                    }
+                    w.field(sb.toString());
+                } else {
+                    for (int k = g; k < end; k++) {
+                        if (k > g) w.write(';');
+                        w.write(codes[k]).write(':').shortest(scores[k]).write(':').write(courseNames[k]);
+                    }
+                }
+                g = end;
+                w.newline();
+            }
+        }
+
+        private boolean needsQuoting(int from, int to) {
+            for (int k = from; k < to; k++) {
+                if (CsvWriter.needsQuoting(codes[k]) || CsvWriter.needsQuoting(courseNames[k])) return true;
+            }
+            return false;
+        }
+    }
+
+    private final StudentManager manager;
+    private final Path target;
+    private final int mutationThreshold;
+    private final Executor ownerExecutor;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(daemon("autosave-writer"));
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemon("autosave-timer"));
+    private final StudentEventBus.Subscription<StudentEvent> subscription;
+    private final AtomicInteger changes = new AtomicInteger(); // since the last capture
+
+    private final Snapshot snapshot = new Snapshot();   // owned by the save in flight
+    private boolean captureScheduled, inFlight, again;  // guarded by this
+    private volatile SaveInfo lastSave;
+    private volatile Listener listener;
+
+    private AutosaveService(StudentManager manager, File target, long intervalMillis, int mutationThreshold,
+                            Executor ownerExecutor) {
+        this.manager = manager;
+        this.target = target.toPath().toAbsolutePath();
+        this.mutationThreshold = mutationThreshold;
+        this.ownerExecutor = ownerExecutor;
+        // counted where the change happens; the save itself is queued on the owner executor
+        this.subscription = manager.events().subscribe(StudentEvent.class, Runnable::run, events -> {
+            if (changes.addAndGet(events.size()) >= mutationThreshold) requestSave();
+        });
+        timer.scheduleWithFixedDelay(() -> { if (changes.get() > 0) requestSave(); },
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static AutosaveService start(StudentManager manager, File target, long intervalMillis,
+                                        int mutationThreshold, Executor ownerExecutor) {
+        if (intervalMillis <= 0) throw new IllegalArgumentException("Interval must be positive");
+        if (mutationThreshold < 1) throw new IllegalArgumentException("Mutation threshold must be at least 1");
+        return new AutosaveService(manager, target, intervalMillis, mutationThreshold, ownerExecutor);
+    }
+
+    public File getTarget() { return target.toFile(); }
+
+    public SaveInfo getLastSave() { return lastSave; }
+
+    public int getPendingChanges() { return changes.get(); }
+
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    /** Save soon; callable from any thread. Collapses into the save in flight, if any. */
+    public void requestSave() {
+        synchronized (this) {
+            if (inFlight) { again = true; return; }
+            if (captureScheduled) return;
+            captureScheduled = true;
+        }
+        try {
+            ownerExecutor.execute(this::capture);
+        } catch (RejectedExecutionException ex) {
+            synchronized (this) { captureScheduled = false; }
+        }
+    }
+
+    /**
+     * Owner thread: save unsaved changes now and wait until they are on disk,
+     * e.g. before exit. Waits for a save in flight first.
+     */
+    public void flush() throws InterruptedException {
+        synchronized (this) {
+            while (inFlight) wait();
+            if (changes.get() == 0) return;
+            inFlight = true;
+        }
+        int taken = changes.getAndSet(0);
+        long captureMillis = takeSnapshot(taken);
+        if (captureMillis >= 0) write(snapshot, captureMillis, taken);
+    }
+
+    /* -------- Owner thread: snapshot -------- */
+    private void capture() {
+        synchronized (this) {
+            captureScheduled = false;
+            if (inFlight) { again = true; return; }
+            inFlight = true;
+        }
+        int taken = changes.getAndSet(0);
+        long captureMillis = takeSnapshot(taken);
+        if (captureMillis < 0) return;
+        Snapshot snap = snapshot;
+        try {
+            writer.execute(() -> write(snap, captureMillis, taken));
+        } catch (RejectedExecutionException ex) {
+            changes.addAndGet(taken);
+            finished(null, null); // closed
+        }
+    }
+
+    // Milliseconds the capture took, or -1 if it failed (reported, and the changes stay pending)
+    private long takeSnapshot(int taken) {
+        long t0 = System.nanoTime();
+        try {
+            snapshot.capture(manager);
+        } catch (RuntimeException ex) { // e.g. lazy grades that could not be read
+            changes.addAndGet(taken);
+            finished(null, ex);
+            return -1;
+        }
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    /* -------- Writer thread: serialize, then atomic rename -------- */
+    private void write(Snapshot snap, long captureMillis, int taken) {
+        long t0 = System.nanoTime();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (CsvWriter w = new CsvWriter(tmp.toFile())) {
+                snap.write(w);
+                w.flush(); // force to disk before the rename makes it the real file
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long writeMillis = (System.nanoTime() - t0) / 1_000_000;
+            finished(new SaveInfo(Instant.now(), snap.count, captureMillis, writeMillis, Files.size(target)), null);
+        } catch (IOException | RuntimeException ex) {
+            try { Files.deleteIfExists(tmp); } catch (IOException ignored) {}
+            changes.addAndGet(taken); // still unsaved: the next request tries again
+            finished(null, ex);
+        }
+    }
+
+    private void finished(SaveInfo info, Exception error) {
+        boolean followUp;
+        synchronized (this) {
+            inFlight = false;
+            followUp = again;
+            again = false;
+            notifyAll(); // flush()
+        }
+        if (info != null) lastSave = info;
+        Listener l = listener;
+        if (l != null && (info != null || error != null)) {
+            try {
+                ownerExecutor.execute(() -> {
+                    if (error == null) l.onSaved(info);
+                    else l.onFailed(error);
+                });
+            } catch (RejectedExecutionException ignored) {
+                // owner gone
+            }
+        }
+        if (followUp) requestSave();
+    }
+
+    /** Stop saving; waits for a save in flight to reach the disk. Unsaved changes are dropped, flush() first to keep them. */
+    @Override
+    public void close() {
+        manager.events().unsubscribe(subscription);
+        timer.shutdownNow();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,327 @@
+package smartstudentplatform.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable byte-level CSV reader.
+ *
+ * next() reads one record into an internal buffer and records where each field
+ * starts and ends; nothing is allocated per field unless the caller asks for a
+ * String. Numbers are parsed straight from the bytes, and intern() returns the
+ * same String instance for repeated values (IDs, course codes) via a lookup
+ * table, built on first use. Tokenizers from of() read one line in place and
+ * do not intern: a line has nothing to share. Quoted fields follow RFC 4180: "a, b" and "say ""hi""" are one field.
+ */
+public final class CsvTokenizer implements Closeable {
+    private static final int MAX_INTERNED = 1 << 18;          // stop interning past this many values
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final InputStream in;
+    private final byte[] buf;
+    private final boolean interning;
+    private int pos, limit;
+    private boolean trim;
+
+    // Current record (quotes already removed)
+    private byte[] rec;
+    private int recLen;
+    private long recHash;
+    private int[] starts = new int[8], ends = new int[8];
+    private int fields;
+
+    // Intern table: open addressing, power-of-two capacity (null until the first intern())
+    private byte[][] internKeys;
+    private String[] internValues;
+    private int internCount;
+
+    public CsvTokenizer(InputStream in) {
+        this(in, 1 << 16);
+    }
+
+    public CsvTokenizer(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buf = new byte[bufferSize];
+        this.interning = true;
+        this.rec = new byte[256];
+    }
+
+    // Reads bytes in place; intern() returns plain Strings
+    private CsvTokenizer(byte[] bytes) {
+        this.in = InputStream.nullInputStream();
+        this.buf = bytes;
+        this.limit = bytes.length;
+        this.interning = false;
+        this.rec = new byte[Math.max(16, bytes.length)];
+    }
+
+    /** Tokenizer over a single in-memory line. */
+    public static CsvTokenizer of(String line) {
+        return of(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Tokenizer over in-memory bytes (not copied; do not change them while reading). */
+    public static CsvTokenizer of(byte[] bytes) {
+        return new CsvTokenizer(bytes);
+    }
+
+    /** Strip spaces and tabs around field values (the legacy loaders trimmed every field). */
+    public CsvTokenizer trimFields(boolean trim) {
+        this.trim = trim;
+        return this;
+    }
+
+    /* -------- Records -------- */
+    public boolean next() throws IOException {
+        recLen = 0;
+        fields = 0;
+        recHash = 0xcbf29ce484222325L;
+        if (!fill()) return false;
+
+        int fieldStart = 0;
+        boolean quoted = false;
+        while (true) {
+            if (pos == limit && !fill()) break; // EOF ends the last record
+            byte b = buf[pos++];
+            recHash = (recHash ^ (b & 0xFF)) * 0x100000001b3L;
+
+            if (quoted) {
+                if (b == '"') {
+                    if (pos == limit && !fill()) { quoted = false; break; }
+                    if (buf[pos] == '"') { append(b); pos++; } // escaped quote
+                    else quoted = false;
+                } else {
+                    append(b);
+                }
+            } else if (b == ',') {
+                endField(fieldStart);
+                fieldStart = recLen;
+            } else if (b == '\n') {
+                break;
+            } else if (b == '\r' && (pos < limit || fill()) && buf[pos] == '\n') {
+                continue; // CRLF: the '\n' ends the record on the next pass
+            } else if (b == '"' && onlyBlanksSince(fieldStart)) {
+                recLen = fieldStart; // drop blanks before the opening quote
+                quoted = true;
+            } else {
+                append(b);
+            }
+        }
+        endField(fieldStart);
+        return true;
+    }
+
+    private boolean onlyBlanksSince(int from) {
+        for (int i = from; i < recLen; i++) if (rec[i] != ' ' && rec[i] != '\t') return false;
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        if (pos < limit) return true;
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private void append(byte b) {
+        if (recLen == rec.length) rec = Arrays.copyOf(rec, rec.length * 2);
+        rec[recLen++] = b;
+    }
+
+    private void endField(int start) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+        }
+        int end = recLen;
+        if (trim) {
+            while (start < end && isBlank(rec[start])) start++;
+            while (end > start && isBlank(rec[end - 1])) end--;
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        fields++;
+    }
+
+    private static boolean isBlank(byte b) { return b == ' ' || b == '\t' || b == '\r'; }
+
+    public int fieldCount() { return fields; }
+
+    /** FNV-1a hash of the raw bytes of the current record (line ending included). */
+    public long recordHash() { return recHash; }
+
+    /** Fields of the current record re-joined with commas (for error messages). */
+    public String recordText() {
+        StringBuilder sb = new StringBuilder();
+        for (int f = 0; f < fields; f++) {
+            if (f > 0) sb.append(',');
+            sb.append(string(f));
+        }
+        return sb.toString();
+    }
+
+    public int start(int field) { check(field); return starts[field]; }
+    public int end(int field) { check(field); return ends[field]; }
+    public boolean isEmpty(int field) { return start(field) == end(field); }
+
+    private void check(int field) {
+        if (field < 0 || field >= fields)
+            throw new IllegalArgumentException("Field " + field + " missing (record has " + fields + ")");
+    }
+
+    /* -------- Field values -------- */
+    public String string(int field) { return string(start(field), end(field)); }
+    public String intern(int field) { return intern(start(field), end(field)); }
+    public double parseDouble(int field) { return parseDouble(start(field), end(field)); }
+    public int parseInt(int field) { return parseInt(start(field), end(field)); }
+
+    public String string(int from, int to) {
+        return new String(rec, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /** Position of b in [from, to) of the current record, or to if absent. */
+    public int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) if (rec[i] == b) return i;
+        return to;
+    }
+
+    public String intern(int from, int to) {
+        if (!interning) return string(from, to);
+        if (internKeys == null) {
+            internKeys = new byte[1024][];
+            internValues = new String[1024];
+        }
+        int h = 0x811c9dc5;
+        for (int i = from; i < to; i++) h = (h ^ (rec[i] & 0xFF)) * 0x01000193;
+        int mask = internKeys.length - 1;
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            byte[] key = internKeys[slot];
+            if (key == null) {
+                String value = string(from, to);
+                if (internCount >= MAX_INTERNED) return value; // table full: plain allocation
+                internKeys[slot] = Arrays.copyOfRange(rec, from, to);
+                internValues[slot] = value;
+                if (++internCount * 2 > internKeys.length) growInternTable();
+                return value;
+            }
+            if (Arrays.equals(key, 0, key.length, rec, from, to)) return internValues[slot];
+        }
+    }
+
+    private void growInternTable() {
+        byte[][] oldKeys = internKeys;
+        String[] oldValues = internValues;
+        internKeys = new byte[oldKeys.length * 2][];
+        internValues = new String[oldKeys.length * 2];
+        int mask = internKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            byte[] key = oldKeys[i];
+            if (key == null) continue;
+            int h = 0x811c9dc5;
+            for (byte b : key) h = (h ^ (b & 0xFF)) * 0x01000193;
+            int slot = h & mask;
+            while (internKeys[slot] != null) slot = (slot + 1) & mask;
+            internKeys[slot] = key;
+            internValues[slot] = oldValues[i];
+        }
+    }
+
+    public int parseInt(int from, int to) {
+        while (from < to && isBlank(rec[from])) from++;
+        while (to > from && isBlank(rec[to - 1])) to--;
+        int i = from;
+        boolean neg = i < to && rec[i] == '-';
+        if (neg || (i < to && rec[i] == '+')) i++;
+        if (i == to || to - i > 9) return Integer.parseInt(string(from, to).trim()); // error or overflow path
+        int v = 0;
+        for (; i < to; i++) {
+            int d = rec[i] - '0';
+            if (d < 0 || d > 9) throw new NumberFormatException("For input string: \"" + string(from, to) + "\"");
+            v = v * 10 + d;
+        }
+        return neg ? -v : v;
+    }
+
+    /**
+     * Plain decimals ("85.5", "-3", "1.2e3") with at most 15 significant digits
+     * are converted exactly here (an exact mantissa scaled by an exact power of
+     * ten rounds once, like Double.parseDouble). Anything else falls back to
+     * Double.parseDouble.
+     */
+    public double parseDouble(int from, int to) {
+        while (from < to && isBlank(rec[from])) from++;
+        while (to > from && isBlank(rec[to - 1])) to--;
+        int i = from;
+        boolean neg = false;
+        if (i < to && (rec[i] == '-' || rec[i] == '+')) neg = rec[i++] == '-';
+
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean any = false, dot = false;
+        for (; i < to; i++) {
+            byte b = rec[i];
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa == 0 && b == '0') { if (dot) scale--; continue; } // leading zeros
+                if (++digits > 15) return slowParse(from, to);
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) scale--;
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (!any) return slowParse(from, to);
+        if (i < to) {
+            if (rec[i] != 'e' && rec[i] != 'E') return slowParse(from, to);
+            i++;
+            boolean expNeg = false;
+            if (i < to && (rec[i] == '-' || rec[i] == '+')) expNeg = rec[i++] == '-';
+            if (i == to || to - i > 3) return slowParse(from, to);
+            int exp = 0;
+            for (; i < to; i++) {
+                int d = rec[i] - '0';
+                if (d < 0 || d > 9) return slowParse(from, to);
+                exp = exp * 10 + d;
+            }
+            scale += expNeg ? -exp : exp;
+        }
+
+        double v = mantissa;
+        if (mantissa != 0) {
+            if (scale < -22 || scale > 22) return slowParse(from, to);
+            v = scale < 0 ? v / POW10[-scale] : v * POW10[scale];
+        }
+        return neg ? -v : v;
+    }
+
+    private double slowParse(int from, int to) {
+        return Double.parseDouble(string(from, to)); // throws NumberFormatException like before
+    }
+
+    /* -------- Writing side -------- */
+
+    /** Quote a value if it contains a comma, quote or line break; otherwise return it as is. */
+    public static String escape(String value) {
+        if (value == null) return "";
+        boolean needs = false;
+        for (int i = 0; i < value.length() && !needs; i++) {
+            char c = value.charAt(i);
+            needs = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needs ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,196 @@
+package smartstudentplatform.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered CSV writer that encodes straight into one reusable byte buffer and
+ * hands it to a channel in large sequential writes.
+ *
+ * Numbers are formatted without going through Formatter: fixed() gives the same
+ * text as String.format("%.Nf") and shortest() the same as String.valueOf(double)
+ * for the values our files hold; unusual values (huge, tiny, NaN) fall back to
+ * the JDK formatters. Text is written as UTF-8.
+ */
+public final class CsvWriter implements Closeable {
+    private static final String NEWLINE = System.lineSeparator();
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final WritableByteChannel channel;
+    private final byte[] buf;
+    private final ByteBuffer view;
+    private final byte[] digits = new byte[20];
+    private int pos;
+
+    public CsvWriter(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 1 << 16);
+    }
+
+    public CsvWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buf = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buf);
+    }
+
+    /* -------- Text -------- */
+    public CsvWriter write(char c) throws IOException {
+        if (c < 0x80) {
+            if (pos == buf.length) flushBuffer();
+            buf[pos++] = (byte) c;
+            return this;
+        }
+        return write(String.valueOf(c));
+    }
+
+    /** Raw text, no quoting. */
+    public CsvWriter write(String s) throws IOException {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (pos + 4 > buf.length) flushBuffer();
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?'; // unpaired surrogate, as String.getBytes(UTF_8) does
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /** A CSV value: quoted only if it contains a comma, quote or line break (see CsvTokenizer.escape). */
+    public CsvWriter field(String s) throws IOException {
+        if (s == null) return this;
+        if (!needsQuoting(s)) return write(s);
+        write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '"') {
+                write(s.substring(from, i + 1)).write('"');
+                from = i + 1;
+            }
+        }
+        return write(s.substring(from)).write('"');
+    }
+
+    public static boolean needsQuoting(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    public CsvWriter comma() throws IOException { return write(','); }
+
+    /** Platform line separator, as PrintWriter.println and "%n" produce. */
+    public CsvWriter newline() throws IOException { return write(NEWLINE); }
+
+    /* -------- Numbers -------- */
+
+    /**
+     * Same text as String.format("%.{decimals}f", v): Formatter rounds the
+     * shortest decimal form of v half-up, so a value whose shortest form ends
+     * exactly on a 5 (1.005, 0.125) rounds up. The tie test compares v against
+     * the double nearest to that tie point, which is exact for |v| < 1e9.
+     */
+    public CsvWriter fixed(double v, int decimals) throws IOException {
+        double a = Math.abs(v);
+        if (decimals < 0 || decimals > 4 || !(a < 1e9)) {
+            return write(String.format("%." + decimals + "f", v));
+        }
+        long scale = POW10[decimals];
+        double tieScale = scale * 10.0;
+        long k = (long) (a * scale);
+        while (a >= (k * 10 + 5) / tieScale) k++;
+        while (k > 0 && a < ((k - 1) * 10 + 5) / tieScale) k--;
+
+        if (v < 0 || (v == 0 && 1 / v < 0)) write('-');
+        writeLong(k / scale);
+        if (decimals > 0) {
+            write('.');
+            writePadded(k % scale, decimals);
+        }
+        return this;
+    }
+
+    /**
+     * Same text as String.valueOf(v). Values in [1e-3, 1e7) with up to six
+     * decimals are written here (the shortest decimal that maps back to v);
+     * everything else goes through Double.toString.
+     */
+    public CsvWriter shortest(double v) throws IOException {
+        double a = Math.abs(v);
+        if (a == 0) return write(1 / v < 0 ? "-0.0" : "0.0");
+        if (a >= 1e-3 && a < 1e7) {
+            for (int p = 0; p < POW10.length; p++) {
+                long m = Math.round(a * POW10[p]);
+                if ((double) m / POW10[p] == a) {
+                    if (v < 0) write('-');
+                    writeLong(m / POW10[p]);
+                    write('.');
+                    if (p == 0) write('0');
+                    else writePadded(m % POW10[p], p);
+                    return this;
+                }
+            }
+        }
+        return write(Double.toString(v));
+    }
+
+    private void writeLong(long v) throws IOException {
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        while (n > 0) write((char) digits[--n]);
+    }
+
+    private void writePadded(long v, int width) throws IOException {
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        for (int i = 0; i < width; i++) write((char) digits[i]);
+    }
+
+    /* -------- Output -------- */
+    private void flushBuffer() throws IOException {
+        view.clear().limit(pos);
+        while (view.hasRemaining()) channel.write(view);
+        pos = 0;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        if (channel instanceof FileChannel) ((FileChannel) channel).force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
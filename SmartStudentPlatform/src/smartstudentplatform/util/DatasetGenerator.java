@@ -0,0 +1,209 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic rosters for testing at production scale.
+ *
+ * Student i is a pure function of (seed, i), so any slice can be regenerated
+ * without the rest and CSVs of any size are streamed without holding the
+ * roster in memory. The data is shaped like a registrar export:
+ * - IDs "DEPT/YY/NNNNNN" (department, entry year, serial), unique per index
+ * - first / last names drawn Zipf-style from fixed lists, a few with
+ *   apostrophes, hyphens or a ", Jr." suffix (exercises CSV quoting)
+ * - a course catalog per department ("CSC201 Methods in Computing 6", 1-4 credits),
+ *   each course with its own difficulty and spread
+ * - scores = course difficulty + student ability + noise, clamped to 0..100
+ *   at 0.1 resolution; CGPA (0-5) follows the same ability
+ *
+ * Usage: DatasetGenerator outputDir students [gradesPerStudent] [courses] [seed]
+ */
+public final class DatasetGenerator {
+    public static final String STUDENTS = "students.csv";           // FileManager.saveStudents
+    public static final String STUDENTS_FULL = "students_full.csv"; // FileManager.saveStudentsFull
+    public static final String RESULTS = "results.csv";             // FileManager.loadResults
+    public static final String ARCHIVE = "students.sspa";           // FileManager.saveArchive
+
+    private static final String[] DEPARTMENTS = {
+            "CSC", "MTH", "PHY", "CHM", "BIO", "ECO", "ENG", "HIS", "LAW", "MED", "ARC", "STA"};
+    private static final String[] DEPARTMENT_NAMES = {
+            "Computing", "Mathematics", "Physics", "Chemistry", "Biology", "Economics",
+            "English", "History", "Law", "Medicine", "Architecture", "Statistics"};
+    private static final String[] TOPICS = {
+            "Introduction to", "Foundations of", "Methods in", "Topics in", "Advanced",
+            "Applied", "Principles of", "Seminar in", "Theory of", "Practice of"};
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Chinedu", "Aisha", "Wei", "Olga", "Mohammed", "Fatima", "John", "Ngozi",
+            "Carlos", "Priya", "David", "Amina", "Yusuf", "Elena", "Tunde", "Sara", "Kwame", "Mei",
+            "Ahmed", "Grace", "Ivan", "Zainab", "Luis", "Hannah", "Emeka", "Sofia", "Ravi", "Chloe",
+            "Ibrahim", "Anna", "Kofi", "Lina", "Mateo", "Ada", "Omar", "Julia", "Bola", "Yuki",
+            "Daniel", "Nadia", "Samuel", "Leila", "Pedro", "Ifeoma", "Arjun", "Maria", "Tomasz", "Esther"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Okafor", "Wang", "Ivanova", "Khan", "Garcia", "Adeyemi", "Patel", "Mensah", "Chen",
+            "Johnson", "Bello", "Kowalski", "Haddad", "Silva", "Nwosu", "Kim", "Müller", "O'Neil", "Rossi",
+            "Abubakar", "Santos", "Nguyen", "Eze", "Cohen", "Ali", "Brown", "Tanaka", "Ogunleye", "Dubois",
+            "Hassan", "Lopez", "Anderson", "Oyelaran", "Novak", "Singh", "Taylor", "Ibrahim", "Moreau", "Yilmaz",
+            "Smith-Jones", "Okonkwo", "Park", "Petrov", "Mahmoud", "Fernandez", "Afolabi", "Schmidt", "Costa", "Lee"};
+    private static final double[] FIRST_CDF = zipfCdf(FIRST_NAMES.length, 0.9);
+    private static final double[] LAST_CDF = zipfCdf(LAST_NAMES.length, 0.8);
+    private static final int ENTRY_YEARS = 6; // IDs span six intakes
+
+    private final long seed;
+    private final int gradesPerStudent;
+    private final Course[] catalog;
+    private final double[] difficulty, spread;
+    private final int[][] coursesOf; // department -> catalog indexes
+    private final Map<String, Course> byCode = new HashMap<>();
+
+    public DatasetGenerator(long seed, int gradesPerStudent, int courseCount) {
+        if (courseCount < 1) throw new IllegalArgumentException("At least one course is required");
+        this.seed = seed;
+        this.gradesPerStudent = Math.min(gradesPerStudent, courseCount);
+        this.catalog = new Course[courseCount];
+        this.difficulty = new double[courseCount];
+        this.spread = new double[courseCount];
+
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] perDepartment = new int[DEPARTMENTS.length];
+        for (int c = 0; c < courseCount; c++) {
+            int d = c % DEPARTMENTS.length;
+            int k = perDepartment[d]++;
+            int level = 100 * (1 + k % 4);               // 100..400 level courses
+            String code = DEPARTMENTS[d] + (level + k / 4 % 100) + (k >= 400 ? "-" + k / 400 : "");
+            String name = TOPICS[rnd.nextInt(TOPICS.length)] + " " + DEPARTMENT_NAMES[d] + " " + (k + 1);
+            catalog[c] = new Course(code, name, 1 + rnd.nextInt(4));
+            difficulty[c] = clamp(62 + rnd.nextDouble(-1, 1) * 14, 35, 85);
+            spread[c] = 8 + rnd.nextDouble() * 8;
+            byCode.put(code, catalog[c]);
+        }
+        coursesOf = new int[DEPARTMENTS.length][];
+        for (int d = 0; d < DEPARTMENTS.length; d++) {
+            coursesOf[d] = new int[perDepartment[d]];
+            for (int k = 0; k < perDepartment[d]; k++) coursesOf[d][k] = d + k * DEPARTMENTS.length;
+        }
+    }
+
+    public int getCourseCount() { return catalog.length; }
+
+    /* -------- Single students -------- */
+    public String id(int index) {
+        int d = index % DEPARTMENTS.length;
+        int year = 18 + (index / DEPARTMENTS.length) % ENTRY_YEARS;
+        int serial = index / (DEPARTMENTS.length * ENTRY_YEARS);
+        return DEPARTMENTS[d] + "/" + year + "/" + pad6(serial);
+    }
+
+    public Student student(int index) {
+        SplittableRandom rnd = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        String name = FIRST_NAMES[pick(rnd, FIRST_CDF)] + " " + LAST_NAMES[pick(rnd, LAST_CDF)];
+        if (rnd.nextInt(500) == 0) name += ", Jr.";
+        double ability = gaussian(rnd);
+        double cgpa = Math.round(clamp(2.9 + 0.9 * ability + 0.35 * gaussian(rnd), 0, 5) * 100) / 100.0;
+        Student s = new Student(id(index), name, cgpa);
+
+        int home = index % DEPARTMENTS.length;
+        int n = Math.max(0, (int) Math.round(gradesPerStudent * (0.8 + 0.4 * rnd.nextDouble())));
+        n = Math.min(n, catalog.length);
+        for (int attempts = 0; s.getGrades().size() < n && attempts < n * 20; attempts++) {
+            // about 70% of courses come from the home department
+            int[] pool = rnd.nextInt(10) < 7 && coursesOf[home].length > 0 ? coursesOf[home] : null;
+            int c = pool != null ? pool[rnd.nextInt(pool.length)] : rnd.nextInt(catalog.length);
+            if (s.getGrades().containsKey(catalog[c].getCode())) continue;
+            double score = clamp(difficulty[c] + 0.6 * spread[c] * ability + 0.8 * spread[c] * gaussian(rnd), 0, 100);
+            s.addGrade(catalog[c].getCode(), catalog[c].getName(), Math.round(score * 10) / 10.0);
+        }
+        return s;
+    }
+
+    public Course course(String code) { return byCode.get(code); }
+
+    /** Students [0, count) in memory. */
+    public StudentManager roster(int count) {
+        StudentManager manager = new StudentManager();
+        for (int i = 0; i < count; i++) manager.addStudent(student(i));
+        return manager;
+    }
+
+    /* -------- Files -------- */
+
+    /** Stream the three CSV formats for students [0, count) into dir; the roster is never held in memory. */
+    public void writeCsvFiles(File dir, int count) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        try (CsvWriter basic = new CsvWriter(new File(dir, STUDENTS));
+             CsvWriter full = new CsvWriter(new File(dir, STUDENTS_FULL));
+             CsvWriter results = new CsvWriter(new File(dir, RESULTS))) {
+            basic.write("ID,Name,CGPA").newline();
+            full.write("ID,Name,CGPA,Grades").newline();
+            results.write("ID,CourseCode,CourseName,Credits,Score").newline();
+            for (int i = 0; i < count; i++) {
+                Student s = student(i);
+                basic.write(s.getId()).comma().field(s.getName()).comma().fixed(s.getCgpa(), 2).newline();
+                s.writeCSV(full);
+                full.newline();
+                for (var g : s.getGrades().entrySet()) {
+                    Course c = byCode.get(g.getKey());
+                    results.write(s.getId()).comma().field(c.getCode()).comma().field(c.getName())
+                            .comma().write(Integer.toString(c.getCredits())).comma().fixed(g.getValue(), 1).newline();
+                }
+            }
+        }
+    }
+
+    /** All four formats; the archive needs the roster in memory. */
+    public void writeAll(File dir, int count) throws IOException {
+        writeCsvFiles(dir, count);
+        FileManager.saveArchive(roster(count), new File(dir, ARCHIVE));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetGenerator outputDir students [gradesPerStudent] [courses] [seed]");
+            System.exit(2);
+        }
+        File dir = new File(args[0]);
+        int students = Integer.parseInt(args[1]);
+        int grades = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int courses = args.length > 3 ? Integer.parseInt(args[3]) : 240;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        long start = System.nanoTime();
+        new DatasetGenerator(seed, grades, courses).writeAll(dir, students);
+        System.out.printf("%d students x ~%d grades written to %s in %d ms%n",
+                students, grades, dir, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /* -------- Helpers -------- */
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) cdf[i] = total += 1 / Math.pow(i + 1, exponent);
+        for (int i = 0; i < n; i++) cdf[i] /= total;
+        return cdf;
+    }
+
+    private static int pick(SplittableRandom rnd, double[] cdf) {
+        int i = Arrays.binarySearch(cdf, rnd.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+    }
+
+    private static double gaussian(SplittableRandom rnd) { // Box-Muller
+        double u = 1 - rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * rnd.nextDouble());
+    }
+
+    private static double clamp(double v, double lo, double hi) { return Math.max(lo, Math.min(hi, v)); }
+
+    private static String pad6(int v) {
+        String s = Integer.toString(v);
+        return s.length() >= 6 ? s : "000000".substring(s.length()) + s;
+    }
+}
@@ -1,39 +1,34 @@
 package smartstudentplatform.util;
 
+import smartstudentplatform.core.Roster;
 import smartstudentplatform.core.StudentManager;
 import smartstudentplatform.model.Course;
 import smartstudentplatform.model.Student;
 
 import java.io.*;
-import java.util.StringTokenizer;
+import java.util.*;
 
 public class FileManager {
 
     /* -------- Save Students (basic info only) -------- */
-    public static void saveStudents(StudentManager manager, File file) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-            pw.println("ID,Name,CGPA"); // header
-            for (Student s : manager.getAll()) {
-                pw.printf("%s,%s,%.2f%n", s.getId(), s.getName(), s.getCgpa());
-            }
+    public static void saveStudents(Roster manager, File file) throws IOException {
+        try (CsvWriter w = new CsvWriter(file)) {
+            w.write("ID,Name,CGPA").newline(); // header
+            forEach(manager, s -> w.write(s.getId()).comma().field(s.getName()).comma().fixed(s.getCgpa(), 2).newline());
         }
     }
 
     /* -------- Load Students (basic info only) -------- */
-    public static void loadStudents(StudentManager manager, File file) throws IOException {
-        manager.getAll().clear(); // reset existing
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean first = true;
-            while ((line = br.readLine()) != null) {
-                if (first) { first = false; continue; } // skip header
-
-                StringTokenizer st = new StringTokenizer(line, ",");
-                if (st.countTokens() < 3) continue;
+    public static void loadStudents(Roster manager, File file) throws IOException {
+        manager.clear(); // reset existing
+        try (CsvTokenizer t = new CsvTokenizer(new FileInputStream(file)).trimFields(true)) {
+            t.next(); // skip header
+            while (t.next()) {
+                if (t.fieldCount() < 3) continue;
 
-                String id = st.nextToken().trim();
-                String name = st.nextToken().trim();
-                double cgpa = Double.parseDouble(st.nextToken().trim());
+                String id = t.string(0);
+                String name = t.string(1);
+                double cgpa = t.parseDouble(2);
 
                 manager.addStudent(id, name, cgpa);
             }
@@ -41,61 +36,203 @@ public class FileManager {
     }
 
     /* -------- Save Students with Grades -------- */
-    public static void saveStudentsFull(StudentManager manager, File file) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-            pw.println("ID,Name,CGPA,Grades"); // header
-            for (Student s : manager.getAll()) {
-                pw.println(s.toCSV()); // Student#toCSV encodes grades inline
-            }
+    public static void saveStudentsFull(Roster manager, File file) throws IOException {
+        try (CsvWriter w = new CsvWriter(file)) {
+            w.write("ID,Name,CGPA,Grades").newline(); // header
+            forEach(manager, s -> {
+                s.writeCSV(w); // same row as Student#toCSV, grades inline
+                w.newline();
+            });
         }
     }
 
     /* -------- Load Students with Grades -------- */
-    public static void loadStudentsFull(StudentManager manager, File file) throws IOException {
-        manager.getAll().clear();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean first = true;
-            while ((line = br.readLine()) != null) {
-                if (first) { first = false; continue; } // skip header
-                Student s = Student.fromCSV(line);
+    public static void loadStudentsFull(Roster manager, File file) throws IOException {
+        manager.clear();
+        try (CsvTokenizer t = new CsvTokenizer(new FileInputStream(file))) {
+            t.next(); // skip header
+            while (t.next()) {
+                Student s = Student.fromCSV(t);
                 manager.addStudent(s);
             }
         }
     }
 
-    /* -------- Save Results (separate file) -------- */
-   public static void saveResults(StudentManager manager, File file) throws IOException {
-    try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-        pw.println("ID,CourseCode,Score");
-        for (Student s : manager.getAll()) {
-            for (var entry : s.getGrades().entrySet()) {
-                String courseCode = entry.getKey();   // course code string
-                double score = entry.getValue();      // score value
-                pw.printf("%s,%s,%.2f%n",
-                        s.getId(), courseCode, score);
+    /* -------- Diff-reload: apply only what changed since the previous import -------- */
+    /**
+     * Rows whose hash matches previous (may be null) are skipped without parsing;
+     * the rest are compared with the roster field by field. The whole file is read
+     * before anything is applied, so a bad row leaves the roster untouched. Changes
+     * go in as one event batch: CGPA / name / new or changed scores in place, a
+     * student whose grades were dropped or renamed is replaced, and IDs missing
+     * from the file are removed.
+     *
+     * Reads both formats, told apart by the header: with a Grades column (saveStudentsFull)
+     * grades are diffed too, without one (saveStudents) they are left alone.
+     */
+    public static RowFingerprints diffReloadStudents(Roster manager, File file, RowFingerprints previous)
+            throws IOException {
+        Map<String, Long> hashes = new HashMap<>();
+        List<Student> inserts = new ArrayList<>();
+        List<Student> replacements = new ArrayList<>();
+        List<Runnable> edits = new ArrayList<>();
+        int updated = 0, unchanged = 0;
+
+        try (CsvTokenizer t = new CsvTokenizer(new FileInputStream(file))) {
+            boolean withGrades = t.next() && t.fieldCount() > 3; // header
+            t.trimFields(!withGrades); // as loadStudents / loadStudentsFull
+            while (t.next()) {
+                if (!withGrades && t.fieldCount() < 3) continue;
+                String id = t.string(0);
+                long hash = t.recordHash();
+                if (hashes.put(id, hash) != null)
+                    throw new IllegalArgumentException("Student with ID " + id + " appears twice in " + file.getName());
+
+                Student current = manager.findById(id);
+                if (current != null && previous != null && previous.matches(id, hash)) {
+                    unchanged++;
+                    continue;
+                }
+                Student row = withGrades ? Student.fromCSV(t) : new Student(id, t.string(1), t.parseDouble(2));
+                if (current == null) {
+                    inserts.add(row);
+                } else if (diff(current, row, withGrades, replacements, edits, manager)) {
+                    updated++;
+                } else {
+                    unchanged++;
+                }
             }
         }
+
+        List<String> deletes = new ArrayList<>();
+        manager.forEach(s -> {
+            if (!hashes.containsKey(s.getId())) deletes.add(s.getId());
+        });
+        manager.batch(() -> {
+            manager.removeStudents(deletes);
+            manager.replaceStudents(replacements);
+            for (Runnable edit : edits) edit.run();
+            for (Student s : inserts) manager.addStudent(s);
+        });
+        return new RowFingerprints(hashes, inserts.size(), updated, deletes.size(), unchanged);
+    }
+
+    // Queue the changes turning current into row; false if they are equal
+    private static boolean diff(Student current, Student row, boolean withGrades, List<Student> replacements,
+                                List<Runnable> edits, Roster manager) {
+        String id = current.getId();
+        if (withGrades && !gradesCanBePosted(current, row)) {
+            replacements.add(row);
+            return true;
+        }
+        boolean changed = false;
+        if (!current.getName().equals(row.getName())) {
+            edits.add(() -> manager.renameStudent(id, row.getName()));
+            changed = true;
+        }
+        if (Double.compare(current.getCgpa(), row.getCgpa()) != 0) {
+            edits.add(() -> manager.updateStudentCgpa(id, row.getCgpa()));
+            changed = true;
+        }
+        if (withGrades) {
+            for (Map.Entry<String, Double> g : row.getGrades().entrySet()) {
+                if (g.getValue().equals(current.getGrades().get(g.getKey()))) continue;
+                Course course = new Course(g.getKey(), row.getCourseName(g.getKey()), 0);
+                double score = g.getValue();
+                edits.add(() -> manager.addResult(id, course, score));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // addResult can only add or overwrite scores: a dropped course, a renamed course or
+    // a score addResult would reject needs the student replaced instead
+    private static boolean gradesCanBePosted(Student current, Student row) {
+        Map<String, Double> now = current.getGrades();
+        if (!row.getGrades().keySet().containsAll(now.keySet())) return false;
+        for (Map.Entry<String, Double> g : row.getGrades().entrySet()) {
+            double score = g.getValue();
+            if (score < 0 || score > 100) return false;
+            if (now.containsKey(g.getKey()) && !current.getCourseName(g.getKey()).equals(row.getCourseName(g.getKey())))
+                return false;
+        }
+        return true;
+    }
+
+    /* -------- Load Students with Grades, grades read on first access -------- */
+    public static LazyGradeIndex loadStudentsLazy(StudentManager manager, File file, int cacheCapacity) throws IOException {
+        return LazyGradeIndex.open(manager, file, cacheCapacity);
     }
-}
 
-    public static void loadResults(StudentManager manager, File file) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean first = true;
-            while ((line = br.readLine()) != null) {
-                if (first) { first = false; continue; }
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue;
-
-                String id = parts[0].trim();
-                String code = parts[1].trim();
-                String name = parts[2].trim();
-                int credits = Integer.parseInt(parts[3].trim());
-                double score = Double.parseDouble(parts[4].trim());
-
-                manager.addResult(id, new Course(code, name, credits), score);
+    /* -------- Save Results (separate file) -------- */
+    public static void saveResults(Roster manager, File file) throws IOException {
+        try (CsvWriter w = new CsvWriter(file)) {
+            w.write("ID,CourseCode,Score").newline();
+            forEach(manager, s -> {
+                for (var entry : s.getGrades().entrySet()) {
+                    String courseCode = entry.getKey();   // course code string
+                    double score = entry.getValue();      // score value
+                    w.write(s.getId()).comma().write(courseCode).comma().fixed(score, 2).newline();
+                }
+            });
+        }
+    }
+
+    public static void loadResults(Roster manager, File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            readResults(in, manager::addResult);
+        }
+    }
+
+    /** Receives one parsed results row. */
+    public interface ResultSink {
+        void accept(String studentId, Course course, double score);
+    }
+
+    /** Parse "ID,CourseCode,CourseName,Credits,Score" rows (header skipped, short rows ignored). */
+    public static void readResults(InputStream in, ResultSink sink) throws IOException {
+        try (CsvTokenizer t = new CsvTokenizer(in).trimFields(true)) {
+            t.next(); // skip header
+            while (t.next()) {
+                if (t.fieldCount() < 5) continue;
+
+                String id = t.intern(0);
+                String code = t.intern(1);
+                String name = t.intern(2);
+                int credits = t.parseInt(3);
+                double score = t.parseDouble(4);
+
+                sink.accept(id, new Course(code, name, credits), score);
             }
         }
     }
+
+    private interface StudentWriter {
+        void write(Student s) throws IOException;
+    }
+
+    // Roster.forEach (a disk scan for a StoredRoster) with the writer's IOExceptions passed through
+    private static void forEach(Roster roster, StudentWriter writer) throws IOException {
+        try {
+            roster.forEach(s -> {
+                try {
+                    writer.write(s);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /* -------- Compressed archive (see ArchiveFile) -------- */
+    public static void saveArchive(StudentManager manager, File file) throws IOException {
+        ArchiveFile.save(manager, file);
+    }
+
+    public static void loadArchive(StudentManager manager, File file) throws IOException {
+        ArchiveFile.load(manager, file);
+    }
 }
@@ -0,0 +1,163 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Offset index into a "students with grades" CSV (see FileManager.saveStudentsFull).
+ *
+ * Opening the file reads only ID, name and CGPA of each row and records where the
+ * grade segment of that row lives. A Student's grades are read back on the first
+ * getGrades() call; at most {@code cacheCapacity} students keep hydrated grades,
+ * the least recently used ones are evicted (unless they were modified).
+ */
+public class LazyGradeIndex implements Student.GradeSource, Closeable {
+    private static final int CHUNK = 1 << 20;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long length;
+    private final long lastModified;
+    private final Map<String, Long> segments = new HashMap<>(); // id -> offset << 24 | length
+    private final LinkedHashMap<Student, Boolean> hydrated;   // access order = LRU
+    private final int cacheCapacity;
+
+    private LazyGradeIndex(File file, int cacheCapacity) throws IOException {
+        if (cacheCapacity <= 0) throw new IllegalArgumentException("Cache capacity must be positive");
+        this.file = file;
+        this.cacheCapacity = cacheCapacity;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.length = file.length();
+        this.lastModified = file.lastModified();
+        this.hydrated = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /* -------- Open: eager headers, lazy grades -------- */
+    public static LazyGradeIndex open(StudentManager manager, File file, int cacheCapacity) throws IOException {
+        LazyGradeIndex index = new LazyGradeIndex(file, cacheCapacity);
+        try {
+            manager.clear();
+            index.scan(manager);
+            return index;
+        } catch (IOException | RuntimeException ex) {
+            index.close();
+            throw ex;
+        }
+    }
+
+    // Single pass over the raw bytes: keep the first three fields, remember
+    // where the fourth (grades) starts and skip to the end of the line.
+    // Commas and line breaks inside quoted fields don't count.
+    private void scan(StudentManager manager) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK);
+        ByteArrayOutputStream head = new ByteArrayOutputStream(128);
+        long pos = 0, lineStart = 0, gradesStart = -1;
+        int commas = 0;
+        byte prev = 0;
+        boolean header = true, quoted = false;
+
+        while (true) {
+            chunk.clear();
+            int n = channel.read(chunk, pos);
+            boolean eof = n < 0;
+            for (int i = 0; i < Math.max(n, 0); i++, pos++) {
+                byte b = chunk.get(i);
+                if (b == '"') quoted = !quoted; // "" escapes toggle twice, net no change
+                if (b == '\n' && !quoted) {
+                    long lineEnd = prev == '\r' ? pos - 1 : pos;
+                    if (!header) addHeader(manager, head, gradesStart, lineEnd);
+                    header = false;
+                    head.reset();
+                    commas = 0;
+                    gradesStart = -1;
+                    lineStart = pos + 1;
+                } else if (commas < 3) {
+                    if (b == ',' && !quoted && ++commas == 3) gradesStart = pos + 1;
+                    else head.write(b);
+                }
+                prev = b;
+            }
+            if (eof) {
+                if (!header && pos > lineStart) addHeader(manager, head, gradesStart, pos);
+                return;
+            }
+        }
+    }
+
+    private void addHeader(StudentManager manager, ByteArrayOutputStream head,
+                           long gradesStart, long lineEnd) throws IOException {
+        CsvTokenizer t = CsvTokenizer.of(head.toByteArray());
+        if (!t.next() || t.fieldCount() < 3) return; // not a student row
+        String id = t.string(0);
+        String name = t.string(1);
+        double cgpa = t.parseDouble(2);
+
+        if (gradesStart < 0 || lineEnd <= gradesStart) {
+            manager.addStudent(new Student(id, name, cgpa)); // no grades: nothing to defer
+            return;
+        }
+        long segLength = lineEnd - gradesStart;
+        if (segLength >= (1 << 24)) throw new IllegalArgumentException("Grade segment too long for " + id);
+        segments.put(id, gradesStart << 24 | segLength);
+        manager.addStudent(new Student(id, name, cgpa, this));
+    }
+
+    /* -------- Student.GradeSource -------- */
+    @Override
+    public byte[] load(Student s) {
+        Long packed = segments.get(s.getId());
+        if (packed == null) return new byte[0];
+        if (file.length() != length || file.lastModified() != lastModified)
+            throw new IllegalStateException("Grades file " + file.getName() + " changed since it was opened");
+
+        ByteBuffer buf = ByteBuffer.allocate((int) (packed & 0xFFFFFF));
+        long offset = packed >>> 24;
+        try {
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, offset + buf.position()) < 0) throw new EOFException();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read grades of " + s.getId(), ex);
+        }
+
+        // Evict outside the lock: evictGrades() never blocks, but keep the
+        // critical section to bookkeeping only.
+        List<Student> victims = new ArrayList<>();
+        synchronized (hydrated) {
+            hydrated.put(s, Boolean.TRUE);
+            Iterator<Student> it = hydrated.keySet().iterator();
+            while (hydrated.size() - victims.size() > cacheCapacity && it.hasNext()) {
+                Student cold = it.next();
+                if (cold == s) continue;
+                victims.add(cold);
+            }
+            for (Student v : victims) hydrated.remove(v);
+        }
+        for (Student v : victims) v.evictGrades(); // modified students just stay resident
+
+        return buf.array();
+    }
+
+    // A cache hit moves the student to the young end of the access order
+    @Override
+    public void touched(Student s) {
+        synchronized (hydrated) { hydrated.get(s); }
+    }
+
+    public int hydratedCount() {
+        synchronized (hydrated) { return hydrated.size(); }
+    }
+
+    public File getFile() { return file; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,403 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.Roster;
+import smartstudentplatform.model.Course;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches a folder for results CSVs (the Load Results format) and applies every
+ * new or modified file to a Roster.
+ *
+ * A file is read once it has been quiet (same size and mtime) for QUIET_MILLIS,
+ * parsed on a bounded worker pool, and handed to the apply executor - the thread
+ * that owns the manager, the EDT in the UI. Files parsed meanwhile are applied
+ * together in one manager.batch(). The SHA-256 of a file's content is its
+ * idempotency key: content already applied (a re-delivered or copied file, a
+ * touch without changes) is skipped. The last MAX_KEYS keys are remembered;
+ * content older than that is applied again, which re-posts the same scores.
+ */
+public final class ResultsIngestService implements Closeable {
+    public static final long QUIET_MILLIS = 250;
+    public static final int MAX_KEYS = 100_000;
+
+    /** Called on the apply executor. */
+    public interface Listener {
+        void onApplied(List<FileResult> results);
+        void onFailed(Path file, Exception error);
+    }
+
+    public static final class FileResult {
+        private final Path file;
+        private final int applied, rejected;
+        private final long lagMillis;
+
+        FileResult(Path file, int applied, int rejected, long lagMillis) {
+            this.file = file;
+            this.applied = applied;
+            this.rejected = rejected;
+            this.lagMillis = lagMillis;
+        }
+
+        public Path getFile() { return file; }
+        public int getApplied() { return applied; }
+        public int getRejected() { return rejected; }   // unknown student or score out of range
+        public long getLagMillis() { return lagMillis; } // first file event -> applied
+    }
+
+    public static final class Stats {
+        private final long files, duplicates, failed, rows, rejected, lastLag, maxLag;
+        private final int pending;
+        private final double rowsPerSecond;
+
+        Stats(long files, long duplicates, long failed, long rows, long rejected, long lastLag, long maxLag,
+              int pending, double rowsPerSecond) {
+            this.files = files;
+            this.duplicates = duplicates;
+            this.failed = failed;
+            this.rows = rows;
+            this.rejected = rejected;
+            this.lastLag = lastLag;
+            this.maxLag = maxLag;
+            this.pending = pending;
+            this.rowsPerSecond = rowsPerSecond;
+        }
+
+        public long getFilesApplied() { return files; }
+        public long getDuplicatesSkipped() { return duplicates; }
+        public long getFilesFailed() { return failed; }
+        public long getRowsApplied() { return rows; }
+        public long getRowsRejected() { return rejected; }
+        public long getLastLagMillis() { return lastLag; }
+        public long getMaxLagMillis() { return maxLag; }
+        public int getPendingFiles() { return pending; }
+        public double getRowsPerSecond() { return rowsPerSecond; } // over the current / last burst
+
+        @Override
+        public String toString() {
+            return String.format("%d files, %d rows (%.0f rows/s, %d rejected), lag %d ms (max %d), %d pending, %d dup, %d failed",
+                    files, rows, rowsPerSecond, rejected, lastLag, maxLag, pending, duplicates, failed);
+        }
+    }
+
+    // A parsed file waiting for the apply executor
+    private static final class Parsed {
+        final Path file;
+        final String key;
+        final long detectedNanos;
+        final List<String> ids = new ArrayList<>();
+        final List<Course> courses = new ArrayList<>();
+        final List<Double> scores = new ArrayList<>();
+
+        Parsed(Path file, String key, long detectedNanos) {
+            this.file = file;
+            this.key = key;
+            this.detectedNanos = detectedNanos;
+        }
+    }
+
+    // A file seen by the watcher, waiting to go quiet
+    private static final class Pending {
+        final long detectedNanos;
+        long size;
+        FileTime modified;
+        ScheduledFuture<?> check;
+
+        Pending(long detectedNanos) { this.detectedNanos = detectedNanos; }
+    }
+
+    private final Roster manager;
+    private final Path dir;
+    private final Executor applyExecutor;
+    private final WatchService watcher;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            daemon("results-ingest-timer"));
+    private final Thread watchThread;
+
+    private final Map<Path, Pending> pending = new HashMap<>();          // guarded by itself
+    private final Set<String> keys = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {           // applied or in flight, LRU
+                @Override protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_KEYS;
+                }
+            }));
+    private final Queue<Parsed> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+    private volatile Listener listener;
+
+    // Statistics
+    private final AtomicInteger inFlight = new AtomicInteger();         // detected, not yet applied/skipped
+    private final AtomicLong files = new AtomicLong(), duplicates = new AtomicLong(), failed = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong(), rejected = new AtomicLong();
+    private volatile long lastLag, maxLag;
+    private volatile long burstStartNanos, burstEndNanos, burstRows;
+
+    private ResultsIngestService(Roster manager, Path dir, int workerCount, Executor applyExecutor)
+            throws IOException {
+        this.manager = manager;
+        this.dir = dir;
+        this.applyExecutor = applyExecutor;
+        this.watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        // bounded queue; when it is full, files wait on the timer and are offered again (see submit)
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workerCount * 64), daemon("results-ingest-worker"));
+        this.workers.allowCoreThreadTimeOut(true);
+        this.watchThread = daemon("results-ingest-watch").newThread(this::watchLoop);
+    }
+
+    /**
+     * Start watching dir. Files already there are left alone; only files created
+     * or modified from now on are ingested.
+     */
+    public static ResultsIngestService start(Roster manager, Path dir, int workerCount,
+                                             Executor applyExecutor) throws IOException {
+        if (!Files.isDirectory(dir)) throw new IllegalArgumentException(dir + " is not a directory");
+        if (workerCount < 1) throw new IllegalArgumentException("At least one worker is required");
+        ResultsIngestService service = new ResultsIngestService(manager, dir, workerCount, applyExecutor);
+        service.watchThread.start();
+        return service;
+    }
+
+    public Path getDirectory() { return dir; }
+
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    public Stats stats() {
+        long end = inFlight.get() > 0 ? System.nanoTime() : burstEndNanos;
+        double seconds = (end - burstStartNanos) / 1e9;
+        return new Stats(files.get(), duplicates.get(), failed.get(), rows.get(), rejected.get(),
+                lastLag, maxLag, inFlight.get(), seconds > 0 ? burstRows / seconds : 0);
+    }
+
+    /* -------- Watching -------- */
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan(); // events were dropped; content keys filter what was already applied
+                    } else {
+                        fileChanged(dir.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) return; // directory deleted
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // closed
+        }
+    }
+
+    private void rescan() {
+        try (DirectoryStream<Path> all = Files.newDirectoryStream(dir)) {
+            for (Path p : all) fileChanged(p);
+        } catch (IOException ex) {
+            notifyFailed(dir, ex);
+        }
+    }
+
+    private static boolean isResultsFile(Path p) {
+        String name = p.getFileName().toString();
+        return !name.startsWith(".") && name.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    // Restart the quiet period of p
+    private void fileChanged(Path p) {
+        if (!isResultsFile(p)) return;
+        synchronized (pending) {
+            Pending state = pending.get(p);
+            if (state == null) {
+                if (inFlight.getAndIncrement() == 0) startBurst();
+                state = new Pending(System.nanoTime());
+                pending.put(p, state);
+            } else {
+                state.check.cancel(false);
+            }
+            readAttributes(p, state);
+            Pending s = state;
+            state.check = timer.schedule(() -> checkQuiet(p, s), QUIET_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void checkQuiet(Path p, Pending state) {
+        synchronized (pending) {
+            if (pending.get(p) != state) return;
+            long size = state.size;
+            FileTime modified = state.modified;
+            readAttributes(p, state);
+            if (state.size != size || !Objects.equals(state.modified, modified)) { // still being written
+                state.check = timer.schedule(() -> checkQuiet(p, state), QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            }
+            pending.remove(p);
+        }
+        if (state.modified == null) { // vanished (e.g. renamed away)
+            done();
+            return;
+        }
+        submit(p, state.detectedNanos);
+    }
+
+    // Hand p to a worker; while their queue is full, retry from the timer (never parse on the timer thread)
+    private void submit(Path p, long detectedNanos) {
+        try {
+            workers.execute(() -> parse(p, detectedNanos));
+        } catch (RejectedExecutionException full) {
+            if (workers.isShutdown()) {
+                done();
+                return;
+            }
+            try {
+                timer.schedule(() -> submit(p, detectedNanos), QUIET_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closed) {
+                done();
+            }
+        }
+    }
+
+    private static void readAttributes(Path p, Pending state) {
+        try {
+            BasicFileAttributes a = Files.readAttributes(p, BasicFileAttributes.class);
+            state.size = a.isRegularFile() ? a.size() : -1;
+            state.modified = a.isRegularFile() ? a.lastModifiedTime() : null;
+        } catch (IOException ex) {
+            state.size = -1;
+            state.modified = null;
+        }
+    }
+
+    /* -------- Parsing (worker threads) -------- */
+    private void parse(Path p, long detectedNanos) {
+        String key = null;
+        try {
+            byte[] bytes = Files.readAllBytes(p);
+            key = contentKey(bytes);
+            if (!keys.add(key)) {
+                duplicates.incrementAndGet();
+                done();
+                return;
+            }
+            Parsed parsed = new Parsed(p, key, detectedNanos);
+            FileManager.readResults(new ByteArrayInputStream(bytes), (id, course, score) -> {
+                parsed.ids.add(id);
+                parsed.courses.add(course);
+                parsed.scores.add(score);
+            });
+            ready.add(parsed);
+            scheduleApply();
+        } catch (IOException | RuntimeException ex) {
+            if (key != null) keys.remove(key); // let a corrected copy through
+            failed.incrementAndGet();
+            done();
+            notifyFailed(p, ex);
+        }
+    }
+
+    private static String contentKey(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // every JDK ships SHA-256
+        }
+    }
+
+    /* -------- Applying (apply executor) -------- */
+    private void scheduleApply() {
+        if (!applyScheduled.compareAndSet(false, true)) return;
+        try {
+            applyExecutor.execute(this::applyReady);
+        } catch (RejectedExecutionException ex) {
+            applyScheduled.set(false); // the owner has shut down; nothing will apply them
+        }
+    }
+
+    private void applyReady() {
+        applyScheduled.set(false); // files queued from here on get a new run
+        List<Parsed> batch = new ArrayList<>();
+        for (Parsed p; (p = ready.poll()) != null; ) batch.add(p);
+        if (batch.isEmpty()) return;
+
+        List<FileResult> results = new ArrayList<>(batch.size());
+        manager.batch(() -> {
+            for (Parsed p : batch) {
+                int ok = 0, bad = 0;
+                for (int i = 0; i < p.ids.size(); i++) {
+                    try {
+                        manager.addResult(p.ids.get(i), p.courses.get(i), p.scores.get(i));
+                        ok++;
+                    } catch (NoSuchElementException | IllegalArgumentException ex) {
+                        bad++;
+                    }
+                }
+                results.add(new FileResult(p.file, ok, bad, (System.nanoTime() - p.detectedNanos) / 1_000_000));
+            }
+        });
+
+        for (FileResult r : results) {
+            files.incrementAndGet();
+            rows.addAndGet(r.applied);
+            rejected.addAndGet(r.rejected);
+            burstRows += r.applied;
+            lastLag = r.lagMillis;
+            maxLag = Math.max(maxLag, r.lagMillis);
+            done();
+        }
+        Listener l = listener;
+        if (l != null) l.onApplied(results);
+    }
+
+    private void notifyFailed(Path file, Exception error) {
+        Listener l = listener;
+        if (l == null) return;
+        try {
+            applyExecutor.execute(() -> l.onFailed(file, error));
+        } catch (RejectedExecutionException ex) {
+            // the owner has shut down; nobody to tell
+        }
+    }
+
+    /* -------- Statistics -------- */
+    private void startBurst() {
+        burstStartNanos = System.nanoTime();
+        burstRows = 0;
+    }
+
+    private void done() {
+        if (inFlight.decrementAndGet() == 0) burstEndNanos = System.nanoTime();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchThread.interrupt();
+        watcher.close();
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,353 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.Roster;
+import smartstudentplatform.model.Course;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads many results files (the Load Results format, typically one per course)
+ * in one go.
+ *
+ *   parsers (N threads)  --bounded queue-->  merger (1 thread)  -->  apply executor
+ *
+ * Each parser reads one file at a time and ships its rows in chunks of
+ * CHUNK_ROWS through a bounded queue. A file only counts once it has been read
+ * to the end: a file that fails halfway contributes nothing, so the merger
+ * stages a file's chunks until its last one arrives and only then merges them,
+ * grouping rows by student and course and resolving rows that appear in more
+ * than one file with the DuplicatePolicy.
+ *
+ * The queue bounds the hand-off, not memory. Staging is cheap, so the merger
+ * rarely falls behind; what holds memory down is that a parser only starts its
+ * next file after handing over the last chunk of the current one. A merge thus
+ * holds at most one whole file per parser thread plus queueChunks chunks, on
+ * top of the merged result itself: parserThreads is the knob for peak memory,
+ * and Report.getPeakStagedRows() shows what a run actually staged.
+ *
+ * Once every file is merged, the result is applied student by student on the
+ * apply executor (the thread that owns the manager, the EDT in the UI), in
+ * manager.batch() runs of APPLY_STUDENTS students so the owner stays
+ * responsive. Each run reaches event subscribers as one batch, which the
+ * table model applies in a single pass rather than row by row.
+ *
+ * merge() blocks; call it from a background thread, never from the apply
+ * executor's own thread.
+ */
+public final class ResultsMergePipeline {
+    public static final int CHUNK_ROWS = 4096;
+    public static final int APPLY_STUDENTS = 2000;
+
+    /** How to resolve a (student, course) pair found in more than one file. Rows repeated inside one file: the last wins. */
+    public enum DuplicatePolicy {
+        FIRST_FILE_WINS("First file in the list wins"),
+        LAST_FILE_WINS("Last file in the list wins"),
+        HIGHEST_SCORE("Highest score wins"),
+        REJECT_CONFLICTS("Skip pairs whose scores disagree");
+
+        private final String label;
+
+        DuplicatePolicy(String label) { this.label = label; }
+
+        @Override public String toString() { return label; }
+    }
+
+    /** Rows handled and time spent by one stage. */
+    public static final class Stage {
+        private final String name;
+        private final long rows, busyNanos, waitNanos;
+        private final int threads;
+
+        Stage(String name, long rows, long busyNanos, long waitNanos, int threads) {
+            this.name = name;
+            this.rows = rows;
+            this.busyNanos = busyNanos;
+            this.waitNanos = waitNanos;
+            this.threads = threads;
+        }
+
+        public String getName() { return name; }
+        public long getRows() { return rows; }
+        public long getBusyMillis() { return busyNanos / 1_000_000; }  // summed over threads
+        public long getWaitMillis() { return waitNanos / 1_000_000; }  // blocked on the queue (parse: full, merge: empty)
+        public int getThreads() { return threads; }
+
+        /** Rows per second the stage could sustain with its threads all busy. */
+        public double getRowsPerSecond() { return busyNanos == 0 ? 0 : rows * 1e9 * threads / busyNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d rows, %.0f rows/s, busy %d ms, waiting %d ms (%d thread%s)",
+                    name, rows, getRowsPerSecond(), getBusyMillis(), getWaitMillis(), threads, threads == 1 ? "" : "s");
+        }
+    }
+
+    public static final class Report {
+        private final int files;
+        private final Map<File, String> failures;
+        private final long applied, rejected, duplicates, conflicts, peakStaged, millis;
+        private final Stage parse, merge, apply;
+
+        Report(int files, Map<File, String> failures, long applied, long rejected, long duplicates, long conflicts,
+               long peakStaged, long millis, Stage parse, Stage merge, Stage apply) {
+            this.files = files;
+            this.failures = Collections.unmodifiableMap(failures);
+            this.applied = applied;
+            this.rejected = rejected;
+            this.duplicates = duplicates;
+            this.conflicts = conflicts;
+            this.peakStaged = peakStaged;
+            this.millis = millis;
+            this.parse = parse;
+            this.merge = merge;
+            this.apply = apply;
+        }
+
+        public int getFilesMerged() { return files; }
+        public Map<File, String> getFailures() { return failures; }
+        public long getScoresApplied() { return applied; }
+        public long getRejected() { return rejected; }     // unknown student or score out of range
+        public long getDuplicates() { return duplicates; } // pairs seen in more than one file
+        public long getConflicts() { return conflicts; }   // REJECT_CONFLICTS: pairs left alone
+        public long getPeakStagedRows() { return peakStaged; } // most rows held for files still being read
+        public long getMillis() { return millis; }
+        public Stage getParse() { return parse; }
+        public Stage getMerge() { return merge; }
+        public Stage getApply() { return apply; }
+
+        /** Which side of the queue held the other up. */
+        public String getBottleneck() {
+            double parseBlocked = (double) parse.waitNanos / parse.threads;
+            if (parseBlocked > merge.waitNanos) return "merge (parsers waited on a full queue)";
+            return "parse (merger waited on an empty queue)";
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files, %d scores applied, %d rejected, %d duplicates, %d conflicts in %d ms, peak %d rows staged%n  %s%n  %s%n  %s%n  bottleneck: %s",
+                    files, applied, rejected, duplicates, conflicts, millis, peakStaged, parse, merge, apply, getBottleneck());
+        }
+    }
+
+    // Rows of one file on their way to the merger; last marks the end of the file
+    private static final class Chunk {
+        final int file;
+        final String[] ids = new String[CHUNK_ROWS];
+        final Course[] courses = new Course[CHUNK_ROWS];
+        final double[] scores = new double[CHUNK_ROWS];
+        int size;
+        boolean last;
+        String error; // set on the last chunk of a file that could not be read
+
+        Chunk(int file) { this.file = file; }
+    }
+
+    // Winning row of one (student, course) pair
+    private static final class Entry {
+        Course course;
+        double score;
+        int file;
+        boolean conflict;
+
+        Entry(Course course, double score, int file) {
+            this.course = course;
+            this.score = score;
+            this.file = file;
+        }
+    }
+
+    private final int parserThreads, queueChunks;
+    private final DuplicatePolicy policy;
+
+    public ResultsMergePipeline(int parserThreads, int queueChunks, DuplicatePolicy policy) {
+        if (parserThreads < 1) throw new IllegalArgumentException("At least one parser thread is required");
+        if (queueChunks < 1) throw new IllegalArgumentException("Queue must hold at least one chunk");
+        this.parserThreads = parserThreads;
+        this.queueChunks = queueChunks;
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    public Report merge(Roster manager, List<File> files, Executor applyExecutor) throws InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueChunks);
+        AtomicLong parsedRows = new AtomicLong(), parseBusy = new AtomicLong(), parseBlocked = new AtomicLong();
+        int threads = Math.min(parserThreads, Math.max(1, files.size()));
+
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, daemon("results-merge-parser"));
+        Map<String, Map<String, Entry>> merged;
+        Map<File, String> failures = new TreeMap<>();
+        long[] mergeCounts = new long[5]; // rows, busy, waiting, duplicates, peak staged rows
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                parsers.execute(() -> parse(files.get(index), index, queue, parsedRows, parseBusy, parseBlocked));
+            }
+            merged = mergeAll(queue, files.size(), files, failures, mergeCounts);
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        // apply: per student, on the owner thread, a slice at a time
+        long[] applyCounts = new long[3]; // applied, rejected, busy
+        long conflicts = 0;
+        List<Map.Entry<String, Map<String, Entry>>> students = new ArrayList<>(merged.entrySet());
+        for (Map<String, Entry> grades : merged.values())
+            for (Entry e : grades.values()) if (e.conflict) conflicts++;
+        for (int from = 0; from < students.size(); from += APPLY_STUDENTS) {
+            List<Map.Entry<String, Map<String, Entry>>> slice =
+                    students.subList(from, Math.min(students.size(), from + APPLY_STUDENTS));
+            try {
+                CompletableFuture.runAsync(() -> apply(manager, slice, applyCounts), applyExecutor).get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Applying results failed", ex.getCause());
+            }
+        }
+
+        return new Report(files.size() - failures.size(), failures, applyCounts[0], applyCounts[1], mergeCounts[3],
+                conflicts, mergeCounts[4], (System.nanoTime() - start) / 1_000_000,
+                new Stage("parse", parsedRows.get(), parseBusy.get(), parseBlocked.get(), threads),
+                new Stage("merge", mergeCounts[0], mergeCounts[1], mergeCounts[2], 1),
+                new Stage("apply", applyCounts[0] + applyCounts[1], applyCounts[2], 0, 1));
+    }
+
+    /* -------- Parsers -------- */
+    private static void parse(File file, int index, BlockingQueue<Chunk> queue,
+                              AtomicLong rows, AtomicLong busy, AtomicLong blocked) {
+        long t0 = System.nanoTime();
+        Chunk[] current = { new Chunk(index) };
+        long[] read = new long[2]; // rows, nanos blocked on put
+        Throwable failure = null;
+        try (InputStream in = new FileInputStream(file)) {
+            FileManager.readResults(in, (id, course, score) -> {
+                Chunk c = current[0];
+                c.ids[c.size] = id;
+                c.courses[c.size] = course;
+                c.scores[c.size++] = score;
+                read[0]++;
+                if (c.size == CHUNK_ROWS) {
+                    current[0] = null; // queued: never re-sent as the last chunk
+                    read[1] += put(queue, c);
+                    current[0] = new Chunk(index);
+                }
+            });
+        } catch (Throwable ex) { // an Error too: the merger waits for this file's last chunk
+            failure = ex;
+        } finally {
+            Chunk last = current[0] != null ? current[0] : new Chunk(index);
+            if (failure != null) last.error = failure instanceof Error || failure.getMessage() == null
+                    ? failure.toString() : failure.getMessage();
+            last.last = true;
+            read[1] += put(queue, last);
+            if (last.error == null) rows.addAndGet(read[0]);
+            busy.addAndGet(System.nanoTime() - t0 - read[1]);
+            blocked.addAndGet(read[1]);
+        }
+    }
+
+    // Blocking put; returns the nanoseconds spent waiting for room
+    private static long put(BlockingQueue<Chunk> queue, Chunk c) {
+        long t0 = System.nanoTime();
+        try {
+            queue.put(c);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Merge cancelled");
+        }
+        return System.nanoTime() - t0;
+    }
+
+    /* -------- Merger (calling thread) -------- */
+    private Map<String, Map<String, Entry>> mergeAll(BlockingQueue<Chunk> queue, int fileCount, List<File> files,
+                                                     Map<File, String> failures, long[] counts)
+            throws InterruptedException {
+        Map<String, Map<String, Entry>> merged = new LinkedHashMap<>();
+        Map<Integer, List<Chunk>> staged = new HashMap<>(); // files still being read, at most one per parser
+        long stagedRows = 0;
+        for (int done = 0; done < fileCount; ) {
+            long t0 = System.nanoTime();
+            Chunk c = queue.take();
+            long t1 = System.nanoTime();
+            counts[2] += t1 - t0;
+            List<Chunk> chunks = staged.computeIfAbsent(c.file, k -> new ArrayList<>());
+            chunks.add(c);
+            stagedRows += c.size;
+            counts[4] = Math.max(counts[4], stagedRows);
+            if (c.last) {
+                staged.remove(c.file);
+                for (Chunk part : chunks) stagedRows -= part.size;
+                done++;
+                if (c.error != null) failures.put(files.get(c.file), c.error);
+                else for (Chunk part : chunks) counts[0] += mergeChunk(merged, part, counts);
+            }
+            counts[1] += System.nanoTime() - t1;
+        }
+        return merged;
+    }
+
+    private int mergeChunk(Map<String, Map<String, Entry>> merged, Chunk c, long[] counts) {
+        for (int i = 0; i < c.size; i++) {
+            Map<String, Entry> grades = merged.computeIfAbsent(c.ids[i], k -> new HashMap<>());
+            Course course = c.courses[i];
+            double score = c.scores[i];
+            Entry e = grades.get(course.getCode());
+            if (e == null) {
+                grades.put(course.getCode(), new Entry(course, score, c.file));
+                continue;
+            }
+            boolean replace;
+            if (e.file == c.file) {
+                replace = true; // same file: later row wins, as in Load Results
+            } else {
+                if (!e.conflict) counts[3]++;
+                replace = switch (policy) {
+                    case FIRST_FILE_WINS -> c.file < e.file;
+                    case LAST_FILE_WINS -> c.file > e.file;
+                    case HIGHEST_SCORE -> score > e.score;
+                    case REJECT_CONFLICTS -> {
+                        if (score != e.score) e.conflict = true;
+                        yield false;
+                    }
+                };
+            }
+            if (replace) {
+                e.course = course;
+                e.score = score;
+                e.file = c.file;
+            }
+        }
+        return c.size;
+    }
+
+    /* -------- Apply (owner thread) -------- */
+    private static void apply(Roster manager, List<Map.Entry<String, Map<String, Entry>>> slice, long[] counts) {
+        long t0 = System.nanoTime();
+        manager.batch(() -> {
+            for (Map.Entry<String, Map<String, Entry>> student : slice) {
+                for (Entry e : student.getValue().values()) {
+                    if (e.conflict) continue;
+                    try {
+                        manager.addResult(student.getKey(), e.course, e.score);
+                        counts[0]++;
+                    } catch (NoSuchElementException | IllegalArgumentException ex) {
+                        counts[1]++;
+                    }
+                }
+            }
+        });
+        counts[2] += System.nanoTime() - t0;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
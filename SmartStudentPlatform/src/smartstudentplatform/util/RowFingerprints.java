@@ -0,0 +1,53 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row hashes of the last import: student ID -> FNV-1a hash of its CSV row.
+ * A diff-reload skips rows whose hash is unchanged, so it is only valid while
+ * the roster still holds what that import produced - call forget() with every
+ * later change (MainFrame subscribes it to the event bus).
+ *
+ * Also carries the counts of the reload that produced it.
+ */
+public final class RowFingerprints {
+    private final Map<String, Long> hashes;
+    private final int inserted, updated, deleted, unchanged;
+
+    RowFingerprints(Map<String, Long> hashes, int inserted, int updated, int deleted, int unchanged) {
+        this.hashes = hashes;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+    }
+
+    boolean matches(String id, long hash) {
+        Long h;
+        synchronized (this) { h = hashes.get(id); }
+        return h != null && h == hash;
+    }
+
+    /** Drop the hashes of students changed outside the reload (they are compared field by field next time). */
+    public synchronized void forget(List<? extends StudentEvent> events) {
+        for (StudentEvent e : events) {
+            if (e.getStudentId() == null) hashes.clear(); // roster cleared
+            else hashes.remove(e.getStudentId());
+        }
+    }
+
+    public synchronized int size() { return hashes.size(); }
+
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    public int getDeleted() { return deleted; }
+    public int getUnchanged() { return unchanged; }
+
+    @Override
+    public String toString() {
+        return inserted + " added, " + updated + " updated, " + deleted + " removed, " + unchanged + " unchanged";
+    }
+}
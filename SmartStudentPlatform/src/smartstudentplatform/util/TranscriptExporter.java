@@ -0,0 +1,251 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * One transcript file per student, written concurrently.
+ *
+ * snapshot() copies what the transcripts need on the thread that owns the
+ * manager; write() then renders and writes every file on its own virtual
+ * thread. A semaphore caps how many transcripts are being rendered or written
+ * at once, which bounds both open files and rendered bytes held in memory. A
+ * MANIFEST.sha256 (sha256sum -c format) lists every file written, followed by
+ * a "# FAILED" comment line (skipped by sha256sum) for each one that was not.
+ */
+public final class TranscriptExporter {
+    public static final String MANIFEST = "MANIFEST.sha256";
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    // "%.1f" text of 0.0, 0.1, ... 100.0 - nearly every score on file
+    private static final String[] TENTHS = new String[1001];
+    static {
+        for (int i = 0; i < TENTHS.length; i++) TENTHS[i] = String.format("%.1f", i / 10.0);
+    }
+
+    private TranscriptExporter() {}
+
+    public enum Format {
+        TEXT(".txt"), CSV(".csv");
+
+        private final String extension;
+
+        Format(String extension) { this.extension = extension; }
+
+        public String getExtension() { return extension; }
+    }
+
+    /* -------- Snapshot (owner thread) -------- */
+
+    /** Immutable copy of the roster as of one moment. */
+    public static final class Snapshot {
+        private final List<Transcript> transcripts;
+        private final LocalDateTime taken;
+
+        private Snapshot(List<Transcript> transcripts, LocalDateTime taken) {
+            this.transcripts = transcripts;
+            this.taken = taken;
+        }
+
+        public int size() { return transcripts.size(); }
+    }
+
+    private static final class Transcript {
+        final String id, name, fileStem;
+        final double cgpa;
+        final String[] codes, courseNames;
+        final double[] scores;
+
+        Transcript(Student s, String fileStem) {
+            this.id = s.getId();
+            this.name = s.getName();
+            this.fileStem = fileStem;
+            this.cgpa = s.getCgpa();
+            List<String> sorted = new ArrayList<>(s.getGrades().keySet());
+            Collections.sort(sorted);
+            codes = sorted.toArray(new String[0]);
+            courseNames = new String[codes.length];
+            scores = new double[codes.length];
+            for (int i = 0; i < codes.length; i++) {
+                courseNames[i] = s.getCourseName(codes[i]);
+                scores[i] = s.getGrades().get(codes[i]);
+            }
+        }
+    }
+
+    public static Snapshot snapshot(StudentManager manager) {
+        List<Transcript> list = new ArrayList<>(manager.getAll().size());
+        Set<String> used = new HashSet<>();
+        for (Student s : manager.getAll()) list.add(new Transcript(s, fileStem(s.getId(), used)));
+        return new Snapshot(list, LocalDateTime.now());
+    }
+
+    // Safe, unique (also on case-insensitive file systems) file name for an ID
+    private static String fileStem(String id, Set<String> used) {
+        String stem = id.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (stem.isEmpty() || stem.startsWith(".")) stem = "_" + stem;
+        String candidate = stem;
+        for (int n = 2; !used.add(candidate.toLowerCase(Locale.ROOT)); n++) candidate = stem + "~" + n;
+        return candidate;
+    }
+
+    /* -------- Writing (any thread) -------- */
+    public static final class Result {
+        private final int files;
+        private final long bytes, millis;
+        private final File manifest;
+        private final Map<String, String> failures; // student ID -> error
+
+        Result(int files, long bytes, long millis, File manifest, Map<String, String> failures) {
+            this.files = files;
+            this.bytes = bytes;
+            this.millis = millis;
+            this.manifest = manifest;
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+
+        public int getFiles() { return files; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+        public double getFilesPerSecond() { return files * 1000.0 / Math.max(1, millis); }
+        public File getManifest() { return manifest; }
+        public Map<String, String> getFailures() { return failures; }
+    }
+
+    public static Result write(Snapshot snapshot, File dir, Format format, int maxOpenFiles) throws IOException {
+        if (maxOpenFiles < 1) throw new IllegalArgumentException("maxOpenFiles must be at least 1");
+        Files.createDirectories(dir.toPath());
+        int n = snapshot.transcripts.size();
+        String[] checksums = new String[n]; // null = failed
+        long[] sizes = new long[n];
+        Map<String, String> failures = Collections.synchronizedMap(new TreeMap<>());
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        String generated = snapshot.taken.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < n; i++) {
+                int index = i;
+                threads.execute(() -> {
+                    Transcript t = snapshot.transcripts.get(index);
+                    Path file = dir.toPath().resolve(t.fileStem + format.extension);
+                    try {
+                        openFiles.acquire(); // before rendering: waiting tasks hold no content
+                        try {
+                            byte[] content = (format == Format.TEXT ? renderText(t, generated) : renderCsv(t))
+                                    .getBytes(StandardCharsets.UTF_8);
+                            Files.write(file, content);
+                            checksums[index] = sha256(content);
+                            sizes[index] = content.length;
+                        } finally {
+                            openFiles.release();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        failures.put(t.id, ex.toString());
+                    } catch (InterruptedException ex) {
+                        failures.put(t.id, "interrupted");
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        } // close() waits for every file
+
+        File manifest = new File(dir, MANIFEST);
+        long bytes = 0;
+        int files = 0;
+        try (CsvWriter w = new CsvWriter(manifest)) {
+            for (int i = 0; i < n; i++) {
+                if (checksums[i] == null) continue;
+                Transcript t = snapshot.transcripts.get(i);
+                w.write(checksums[i]).write("  ").write(t.fileStem).write(format.extension).write('\n');
+                bytes += sizes[i];
+                files++;
+            }
+            for (int i = 0; i < n; i++) {
+                if (checksums[i] != null) continue;
+                Transcript t = snapshot.transcripts.get(i);
+                String error = failures.getOrDefault(t.id, "not written").replace('\n', ' ');
+                w.write("# FAILED ").write(t.fileStem).write(format.extension).write(": ").write(error).write('\n');
+            }
+        }
+        return new Result(files, bytes, (System.nanoTime() - start) / 1_000_000, manifest, failures);
+    }
+
+    /* -------- Templates -------- */
+    private static String renderText(Transcript t, String generated) {
+        StringBuilder sb = new StringBuilder(256 + t.codes.length * 56);
+        sb.append("ACADEMIC TRANSCRIPT\n\n");
+        sb.append("Student ID : ").append(t.id).append('\n');
+        sb.append("Name       : ").append(t.name).append('\n');
+        sb.append("CGPA       : ").append(String.format("%.2f", t.cgpa)).append('\n');
+        sb.append("Generated  : ").append(generated).append("\n\n");
+        if (t.codes.length == 0) {
+            sb.append("No course results.\n");
+            return sb.toString();
+        }
+        // same layout as "%-10s %-30s %6.1f", without a Formatter pass per row
+        pad(sb.append("Code"), 4, 10).append(' ');
+        pad(sb.append("Course"), 6, 30).append(' ');
+        sb.append(" Score\n");
+        sb.append("-".repeat(48)).append('\n');
+        double sum = 0;
+        for (int i = 0; i < t.codes.length; i++) {
+            pad(sb.append(t.codes[i]), t.codes[i].length(), 10).append(' ');
+            pad(sb.append(t.courseNames[i]), t.courseNames[i].length(), 30).append(' ');
+            String score = oneDecimal(t.scores[i]);
+            pad(sb, score.length(), 6).append(score).append('\n');
+            sum += t.scores[i];
+        }
+        sb.append("-".repeat(48)).append('\n');
+        sb.append("Courses: ").append(t.codes.length)
+                .append("   Mean score: ").append(String.format("%.2f", sum / t.codes.length)).append('\n');
+        return sb.toString();
+    }
+
+    // Same text as String.format("%.1f", v)
+    private static String oneDecimal(double v) {
+        long tenths = Math.round(v * 10);
+        if (tenths >= 0 && tenths < TENTHS.length && tenths / 10.0 == v) return TENTHS[(int) tenths];
+        return String.format("%.1f", v);
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int length, int width) {
+        for (int i = length; i < width; i++) sb.append(' ');
+        return sb;
+    }
+
+    private static String renderCsv(Transcript t) {
+        StringBuilder sb = new StringBuilder(64 + t.codes.length * 64);
+        sb.append("StudentID,Name,CGPA,CourseCode,CourseName,Score\n");
+        String head = CsvTokenizer.escape(t.id) + ',' + CsvTokenizer.escape(t.name) + ',' + String.format("%.2f", t.cgpa) + ',';
+        if (t.codes.length == 0) sb.append(head).append(",,\n");
+        for (int i = 0; i < t.codes.length; i++) {
+            sb.append(head).append(CsvTokenizer.escape(t.codes[i])).append(',')
+                    .append(CsvTokenizer.escape(t.courseNames[i])).append(',')
+                    .append(oneDecimal(t.scores[i])).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // every JDK ships SHA-256
+        }
+    }
+}
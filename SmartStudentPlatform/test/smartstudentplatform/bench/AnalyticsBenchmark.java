@@ -0,0 +1,75 @@
+package smartstudentplatform.bench;
+
+import smartstudentplatform.core.AnalyticsReport;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Term report vs. one classAverage call per course, at 1/2/4/8 threads.
+ *
+ * Usage: AnalyticsBenchmark [students] [gradesPerStudent] [courses] [runs]
+ * Prints one CSV line per configuration (median of the runs, after warm-up).
+ */
+public final class AnalyticsBenchmark {
+    private AnalyticsBenchmark() {}
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int grades = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int courses = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        StudentManager manager = roster(students, grades, courses, 42);
+        Set<String> codes = new TreeSet<>();
+        for (Student s : manager.getAll()) codes.addAll(s.getGrades().keySet());
+
+        System.out.println("# cores=" + Runtime.getRuntime().availableProcessors()
+                + " students=" + students + " grades/student=" + grades + " courses=" + codes.size());
+        System.out.println("method,threads,median_ms,speedup_vs_1");
+
+        long perCourse = median(runs, () -> {
+            for (String code : codes) manager.classAverage(code);
+        });
+        System.out.println("classAverage-per-course,1," + perCourse + ",");
+
+        long single = 0;
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            long ms = median(runs, () -> manager.analyticsReport(threads, AnalyticsReport.DEFAULT_PASS_MARK));
+            if (threads == 1) single = ms;
+            System.out.printf("analyticsReport,%d,%d,%.2f%n", threads, ms, (double) single / Math.max(1, ms));
+        }
+    }
+
+    static StudentManager roster(int students, int grades, int courses, long seed) {
+        Random rnd = new Random(seed);
+        StudentManager manager = new StudentManager();
+        for (int i = 0; i < students; i++) {
+            Student s = new Student(String.format("STU%07d", i), "Student " + i, rnd.nextInt(501) / 100.0);
+            for (int g = 0; g < grades; g++) {
+                String code = String.format("C%04d", rnd.nextInt(courses));
+                double score = Math.max(0, Math.min(100, 60 + rnd.nextGaussian() * 15));
+                s.addGrade(code, "Course " + code, Math.round(score * 10) / 10.0);
+            }
+            manager.addStudent(s);
+        }
+        return manager;
+    }
+
+    private static long median(int runs, Runnable task) {
+        task.run(); // warm-up
+        task.run();
+        long[] ms = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            ms[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(ms);
+        return ms[runs / 2];
+    }
+}
@@ -0,0 +1,150 @@
+package smartstudentplatform.bench;
+
+import smartstudentplatform.core.LocalShard;
+import smartstudentplatform.core.StudentShard;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.storage.DiskStudentStore;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Checks DiskStudentStore against the in-memory LocalShard on the same
+ * generated roster (lookups, averages, rankings, before and after updates and
+ * removals, and again after reopening the file), then times a larger roster
+ * through a small buffer pool.
+ *
+ * Usage: DiskStoreHarness [students] [gradesPerStudent] [poolPages] [largeStudents] [storeDir]
+ * Exits with status 1 if any check fails.
+ */
+public final class DiskStoreHarness {
+    private DiskStoreHarness() {}
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int grades = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int poolPages = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int large = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        File dir = new File(args.length > 4 ? args[4] : System.getProperty("java.io.tmpdir"));
+
+        DatasetGenerator gen = new DatasetGenerator(42, grades, 120);
+        File file = new File(dir, "ssp-harness.store");
+        file.delete();
+        LocalShard reference = new LocalShard();
+        try (DiskStudentStore store = DiskStudentStore.open(file, poolPages)) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < students; i++) store.addStudent(gen.student(i));
+            System.out.printf("load %d students: %d ms (%s)%n", students, ms(t0), store.stats());
+            for (int i = 0; i < students; i++) reference.addStudent(gen.student(i));
+
+            compare("initial", reference, store, gen, students);
+            Random rnd = new Random(5);
+            for (int i = 0; i < students / 10; i++) {
+                String id = gen.id(rnd.nextInt(students));
+                double cgpa = Math.round(rnd.nextDouble() * 500) / 100.0;
+                reference.updateStudentCgpa(id, cgpa);
+                store.updateStudentCgpa(id, cgpa);
+                Course c = new Course("NEW" + rnd.nextInt(5), "New Course", 3);
+                double score = rnd.nextInt(1001) / 10.0;
+                reference.addResult(id, c, score);
+                store.addResult(id, c, score);
+            }
+            for (int i = 0; i < students / 20; i++) {
+                String id = gen.id(rnd.nextInt(students));
+                reference.removeStudent(id);
+                store.removeStudent(id);
+            }
+            compare("after updates", reference, store, gen, students);
+            check("duplicate rejected", throwsOn(() -> store.addStudent(new Student(gen.id(students - 1).toLowerCase(), "x", 1))));
+            check("unknown result rejected", throwsOn(() -> store.addResult("NOPE", new Course("A", "B", 1), 50)));
+        }
+        try (DiskStudentStore reopened = DiskStudentStore.open(file, poolPages)) {
+            compare("reopened", reference, reopened, gen, students);
+        }
+        file.delete();
+
+        if (large > 0) timeLarge(gen, large, poolPages, new File(dir, "ssp-large.store"));
+        System.out.println(failures == 0 ? "PASS" : "FAIL (" + failures + " checks)");
+        if (failures > 0) System.exit(1);
+    }
+
+    private static void compare(String stage, StudentShard expected, StudentShard actual, DatasetGenerator gen, int n) {
+        check(stage + ": size", expected.size() == actual.size());
+        for (int i = 0; i < n; i += 7) {
+            String id = gen.id(i);
+            Student e = expected.find(id), a = actual.find(id.toLowerCase());
+            boolean same = e == null ? a == null : a != null && e.getId().equals(a.getId()) && e.getName().equals(a.getName())
+                    && e.getCgpa() == a.getCgpa() && e.getGrades().equals(a.getGrades());
+            if (!same) { check(stage + ": find " + id, false); break; }
+        }
+        for (String code : List.of("CSC100", "MTH200", "NEW1")) {
+            double[] e = expected.courseSumCount(code), a = actual.courseSumCount(code);
+            check(stage + ": average " + code, e[1] == a[1] && Math.abs(e[0] - a[0]) < 1e-6);
+        }
+        check(stage + ": top by CGPA", cgpas(expected.topByCgpa(25)).equals(cgpas(actual.topByCgpa(25))));
+        check(stage + ": top by average", means(expected.topByAvgScore(25)).equals(means(actual.topByAvgScore(25))));
+    }
+
+    private static void timeLarge(DatasetGenerator gen, int n, int poolPages, File file) throws Exception {
+        file.delete();
+        System.gc();
+        long heapBefore = usedHeap();
+        try (DiskStudentStore store = DiskStudentStore.open(file, poolPages)) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) store.addStudent(gen.student(i));
+            long loadMs = ms(t0);
+            System.out.printf("large: %d students (%s)%n  add %d ms (%.1f us/student)%n", n, store.stats(), loadMs, loadMs * 1000.0 / n);
+            System.out.printf("  heap in use above baseline: %d MiB, file %d MiB%n",
+                    (usedHeap() - heapBefore) >> 20, file.length() >> 20);
+
+            Random rnd = new Random(9);
+            t0 = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) store.find(gen.id(rnd.nextInt(n)));
+            System.out.printf("  random find with grades: %.1f us%n", ms(t0) * 1000.0 / 10_000);
+            int[] seen = { 0 };
+            t0 = System.nanoTime();
+            store.scan("", false, s -> ++seen[0] > 0);
+            System.out.printf("  ordered scan of %d students: %d ms%n", seen[0], ms(t0));
+            t0 = System.nanoTime();
+            double[] sc = store.courseSumCount("CSC100");
+            System.out.printf("  classAverage CSC100 (%d scores): %d ms (%s)%n", (long) sc[1], ms(t0), store.stats());
+        }
+        file.delete();
+    }
+
+    /* -------- Helpers -------- */
+    private static List<Double> cgpas(List<Student> list) {
+        List<Double> out = new ArrayList<>();
+        for (Student s : list) out.add(s.getCgpa());
+        return out;
+    }
+
+    private static List<Long> means(List<Student> list) {
+        List<Long> out = new ArrayList<>();
+        for (Student s : list) out.add(Math.round(smartstudentplatform.core.StudentManager.averageScore(s) * 1e6));
+        return out;
+    }
+
+    private static boolean throwsOn(Runnable r) {
+        try { r.run(); return false; } catch (RuntimeException ex) { return true; }
+    }
+
+    private static void check(String what, boolean ok) {
+        if (!ok) {
+            failures++;
+            System.out.println("MISMATCH " + what);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long ms(long t0) { return (System.nanoTime() - t0) / 1_000_000; }
+}
@@ -0,0 +1,317 @@
+package smartstudentplatform.bench;
+
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+import smartstudentplatform.util.FileManager;
+import smartstudentplatform.util.LazyGradeIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Times load, save, search, sort and analytics on generated rosters of
+ * 10^3 .. 10^maxExponent students and reports how each operation scales.
+ *
+ * Sizes whose data would not fit in the heap or on disk (projected from the
+ * previous size) are skipped, as are the O(n^2) sorts past QUADRATIC_LIMIT.
+ * Writes scale-report.csv and scale-report.html into the report directory.
+ *
+ * Usage: ScaleTestRunner [maxExponent] [gradesPerStudent] [courses] [reportDir]
+ */
+public final class ScaleTestRunner {
+    private ScaleTestRunner() {}
+
+    private static final int QUADRATIC_LIMIT = 20_000; // bubble / insertion sort beyond this take minutes
+    private static final long MIN_SAMPLE_NANOS = 300_000_000L;
+
+    private static final class Row {
+        final String operation;
+        final int records;
+        final double millis;   // NaN if skipped
+        final String note;
+
+        Row(String operation, int records, double millis, String note) {
+            this.operation = operation;
+            this.records = records;
+            this.millis = millis;
+            this.note = note;
+        }
+
+        double nsPerRecord() { return millis * 1e6 / records; }
+    }
+
+    private interface Step { void run() throws Exception; }
+
+    private static final List<Row> rows = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int maxExponent = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int grades = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int courses = args.length > 2 ? Integer.parseInt(args[2]) : 240;
+        File reportDir = new File(args.length > 3 ? args[3] : "scale-report");
+
+        DatasetGenerator gen = new DatasetGenerator(42, grades, courses);
+        System.out.println("# heap=" + Runtime.getRuntime().maxMemory() / (1 << 20) + " MB cores="
+                + Runtime.getRuntime().availableProcessors() + " grades/student=" + grades + " courses=" + courses);
+        System.out.println("operation,records,millis,ns_per_record,note");
+
+        double heapPerStudent = 0, diskPerStudent = 0;
+        for (int e = 3; e <= maxExponent; e++) {
+            int n = (int) Math.pow(10, e);
+            File dir = Files.createTempDirectory("ssp-scale").toFile();
+            String skip = null;
+            if (heapPerStudent * n * 2.5 > Runtime.getRuntime().maxMemory()) skip = "skipped: heap too small";
+            else if (diskPerStudent * n * 1.5 > dir.getUsableSpace()) skip = "skipped: disk too small";
+            if (skip != null) {
+                add(new Row("all", n, Double.NaN, skip));
+                dir.delete();
+                continue;
+            }
+            try {
+                runSize(gen, n, dir);
+                heapPerStudent = usedHeap() / (double) n; // roster still referenced from runSize's last step
+                diskPerStudent = directorySize(dir) / (double) n;
+            } finally {
+                deleteDirectory(dir);
+            }
+        }
+        writeReports(reportDir);
+        System.out.println("# report: " + new File(reportDir, "scale-report.html").getAbsolutePath());
+    }
+
+    private static StudentManager last; // keeps the roster alive for the heap estimate
+
+    private static void runSize(DatasetGenerator gen, int n, File dir) throws Exception {
+        File basic = new File(dir, DatasetGenerator.STUDENTS);
+        File full = new File(dir, DatasetGenerator.STUDENTS_FULL);
+        File results = new File(dir, DatasetGenerator.RESULTS);
+        File out = new File(dir, "out.csv");
+        File archive = new File(dir, DatasetGenerator.ARCHIVE);
+        last = null;
+
+        measureOnce("generate.csv", n, () -> gen.writeCsvFiles(dir, n));
+
+        StudentManager m = new StudentManager();
+        measure("load.studentsFull", n, null, () -> FileManager.loadStudentsFull(m, full));
+        StudentManager split = new StudentManager();
+        measure("load.students+results", n, null, () -> {
+            FileManager.loadStudents(split, basic);
+            FileManager.loadResults(split, results);
+        });
+        split.clear();
+        measure("load.lazy", n, null, () -> {
+            StudentManager lazy = new StudentManager();
+            LazyGradeIndex index = FileManager.loadStudentsLazy(lazy, full, 2000);
+            try {
+                lazy.getAll().get(lazy.getAll().size() / 2).getGrades(); // one hydration
+            } finally {
+                index.close();
+            }
+        });
+
+        measure("save.students", n, null, () -> FileManager.saveStudents(m, out));
+        measure("save.studentsFull", n, null, () -> FileManager.saveStudentsFull(m, out));
+        measure("save.results", n, null, () -> FileManager.saveResults(m, out));
+        measure("save.archive", n, null, () -> FileManager.saveArchive(m, archive));
+        StudentManager fromArchive = new StudentManager();
+        measure("load.archive", n, null, () -> FileManager.loadArchive(fromArchive, archive));
+        fromArchive.clear();
+
+        // searches are reported per lookup, so their records column is the lookup count
+        Random rnd = new Random(7);
+        int lookups = Math.max(10, Math.min(1000, 100_000_000 / n));
+        String[] ids = new String[lookups];
+        for (int i = 0; i < lookups; i++) ids[i] = m.getAll().get(rnd.nextInt(n)).getId();
+        measurePerOp("search.linear", n, lookups, () -> { for (String id : ids) m.linearSearch(id); });
+        m.getAll().sort(Comparator.comparing(Student::getId)); // binarySearch re-checks order with insertion sort
+        measurePerOp("search.binary", n, lookups, () -> { for (String id : ids) m.binarySearch(id); });
+
+        List<Student> original = new ArrayList<>(m.getAll());
+        Step shuffle = () -> {
+            m.getAll().clear();
+            m.getAll().addAll(original);
+            Collections.shuffle(m.getAll(), new Random(11));
+        };
+        measure("sort.quickByName", n, shuffle, m::sortByNameQuick);
+        if (n <= QUADRATIC_LIMIT) {
+            measure("sort.insertionById", n, shuffle, m::sortByIdInsertion);
+            measure("sort.bubbleByCgpaDesc", n, shuffle, m::sortByCgpaBubbleDesc);
+        } else {
+            add(new Row("sort.insertionById", n, Double.NaN, "skipped: O(n^2) past " + QUADRATIC_LIMIT));
+            add(new Row("sort.bubbleByCgpaDesc", n, Double.NaN, "skipped: O(n^2) past " + QUADRATIC_LIMIT));
+        }
+        shuffle.run();
+
+        String course = m.getAll().get(0).getGrades().keySet().iterator().next();
+        measure("analytics.classAverage", n, null, () -> m.classAverage(course));
+        measure("analytics.topPerformerByCgpa", n, null, m::topPerformerByCgpa);
+        measure("analytics.topByAvgScore10", n, null, () -> m.topByAvgScore(10));
+        measure("analytics.termReport", n, null, m::analyticsReport);
+        last = m;
+    }
+
+    /* -------- Timing -------- */
+
+    // Median of repeated runs (at least one, more while the total stays under MIN_SAMPLE_NANOS)
+    private static void measure(String op, int n, Step setup, Step body) throws Exception {
+        List<Long> samples = new ArrayList<>();
+        long total = 0;
+        while (samples.size() < 25 && (samples.isEmpty() || total < MIN_SAMPLE_NANOS)) {
+            if (setup != null) setup.run();
+            long t0 = System.nanoTime();
+            body.run();
+            long t = System.nanoTime() - t0;
+            samples.add(t);
+            total += t;
+        }
+        Collections.sort(samples);
+        add(new Row(op, n, samples.get(samples.size() / 2) / 1e6, samples.size() + " runs"));
+    }
+
+    private static void measureOnce(String op, int n, Step body) throws Exception {
+        long t0 = System.nanoTime();
+        body.run();
+        add(new Row(op, n, (System.nanoTime() - t0) / 1e6, "1 run"));
+    }
+
+    private static void measurePerOp(String op, int n, int ops, Step body) throws Exception {
+        long t0 = System.nanoTime();
+        body.run();
+        double perOp = (System.nanoTime() - t0) / 1e6 / ops;
+        add(new Row(op, n, perOp, "per lookup, " + ops + " lookups"));
+    }
+
+    private static void add(Row r) {
+        rows.add(r);
+        System.out.printf(Locale.ROOT, "%s,%d,%s,%s,%s%n", r.operation, r.records,
+                Double.isNaN(r.millis) ? "" : String.format(Locale.ROOT, "%.3f", r.millis),
+                Double.isNaN(r.millis) ? "" : String.format(Locale.ROOT, "%.1f", r.nsPerRecord()), r.note);
+    }
+
+    /* -------- Reports -------- */
+
+    // Growth exponent k in time ~ n^k between the last two measured sizes of each operation
+    private static Map<String, Double> exponents() {
+        Map<String, Row> previous = new HashMap<>();
+        Map<String, Double> k = new LinkedHashMap<>();
+        for (Row r : rows) {
+            if (Double.isNaN(r.millis)) continue;
+            Row p = previous.put(r.operation, r);
+            if (p != null && p.millis > 0 && r.millis > 0)
+                k.put(r.operation, Math.log(r.millis / p.millis) / Math.log((double) r.records / p.records));
+        }
+        return k;
+    }
+
+    private static void writeReports(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        Map<String, Double> k = exponents();
+
+        try (PrintWriter csv = new PrintWriter(new File(dir, "scale-report.csv"), StandardCharsets.UTF_8)) {
+            csv.println("operation,records,millis,ns_per_record,scaling_exponent,note");
+            for (Row r : rows) {
+                boolean skipped = Double.isNaN(r.millis);
+                csv.printf(Locale.ROOT, "%s,%d,%s,%s,%s,%s%n", r.operation, r.records,
+                        skipped ? "" : String.format(Locale.ROOT, "%.3f", r.millis),
+                        skipped ? "" : String.format(Locale.ROOT, "%.1f", r.nsPerRecord()),
+                        k.containsKey(r.operation) ? String.format(Locale.ROOT, "%.2f", k.get(r.operation)) : "",
+                        r.note);
+            }
+        }
+
+        Map<String, List<Row>> byOp = new LinkedHashMap<>();
+        for (Row r : rows) if (!Double.isNaN(r.millis)) byOp.computeIfAbsent(r.operation, x -> new ArrayList<>()).add(r);
+
+        try (PrintWriter html = new PrintWriter(new File(dir, "scale-report.html"), StandardCharsets.UTF_8)) {
+            html.println("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Scale test</title>");
+            html.println("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}"
+                    + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}"
+                    + ".bad{color:#b00;font-weight:bold}</style></head><body>");
+            html.println("<h1>Scale test</h1><p>Exponent k: time grows like n<sup>k</sup> between the two largest "
+                    + "measured sizes (1 = linear, 2 = quadratic). Search rows are per lookup.</p>");
+            html.println(chart(byOp));
+            html.println("<table><tr><th>Operation</th><th>k</th>");
+            SortedSet<Integer> sizes = new TreeSet<>();
+            for (Row r : rows) sizes.add(r.records);
+            for (int n : sizes) html.print("<th>" + n + " (ms)</th>");
+            html.println("</tr>");
+            for (Map.Entry<String, List<Row>> e : byOp.entrySet()) {
+                Double exp = k.get(e.getKey());
+                html.print("<tr><td>" + e.getKey() + "</td><td" + (exp != null && exp > 1.3 ? " class=\"bad\"" : "") + ">"
+                        + (exp == null ? "" : String.format(Locale.ROOT, "%.2f", exp)) + "</td>");
+                for (int n : sizes) {
+                    Row match = null;
+                    for (Row r : e.getValue()) if (r.records == n) match = r;
+                    html.print("<td>" + (match == null ? "-" : String.format(Locale.ROOT, "%.3f", match.millis)) + "</td>");
+                }
+                html.println("</tr>");
+            }
+            html.println("</table><h2>Skipped</h2><ul>");
+            for (Row r : rows) if (Double.isNaN(r.millis)) html.println("<li>" + r.operation + " @ " + r.records + ": " + r.note + "</li>");
+            html.println("</ul></body></html>");
+        }
+    }
+
+    // Log-log lines, one per operation
+    private static String chart(Map<String, List<Row>> byOp) {
+        double minN = Double.MAX_VALUE, maxN = 0, minT = Double.MAX_VALUE, maxT = 0;
+        for (List<Row> list : byOp.values()) {
+            for (Row r : list) {
+                minN = Math.min(minN, r.records);
+                maxN = Math.max(maxN, r.records);
+                minT = Math.min(minT, Math.max(r.millis, 1e-3));
+                maxT = Math.max(maxT, r.millis);
+            }
+        }
+        if (maxN <= minN || maxT <= minT) return "";
+        int w = 900, h = 420, pad = 50;
+        double lx0 = Math.log10(minN), lx1 = Math.log10(maxN), ly0 = Math.log10(minT), ly1 = Math.log10(maxT);
+        StringBuilder svg = new StringBuilder("<svg width=\"" + (w + 260) + "\" height=\"" + h + "\">");
+        svg.append("<rect x=\"").append(pad).append("\" y=\"10\" width=\"").append(w - pad).append("\" height=\"")
+                .append(h - pad - 10).append("\" fill=\"none\" stroke=\"#999\"/>");
+        svg.append("<text x=\"").append(pad).append("\" y=\"").append(h - 15).append("\">records (log) ")
+                .append((long) minN).append(" .. ").append((long) maxN).append("</text>");
+        svg.append("<text x=\"5\" y=\"20\">ms (log)</text>");
+        int i = 0;
+        for (Map.Entry<String, List<Row>> e : byOp.entrySet()) {
+            String color = "hsl(" + (i * 37 % 360) + ",70%,40%)";
+            StringBuilder points = new StringBuilder();
+            for (Row r : e.getValue()) {
+                double x = pad + (Math.log10(r.records) - lx0) / (lx1 - lx0) * (w - pad);
+                double y = (h - pad) - (Math.log10(Math.max(r.millis, 1e-3)) - ly0) / (ly1 - ly0) * (h - pad - 10);
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+            }
+            svg.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"").append(color)
+                    .append("\" points=\"").append(points).append("\"/>");
+            svg.append("<text x=\"").append(w + 10).append("\" y=\"").append(20 + i * 16).append("\" fill=\"")
+                    .append(color).append("\" font-size=\"12\">").append(e.getKey()).append("</text>");
+            i++;
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    /* -------- Helpers -------- */
+    private static long usedHeap() {
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long directorySize(File dir) {
+        long size = 0;
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) size += f.length();
+        return size;
+    }
+
+    private static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+}
@@ -0,0 +1,194 @@
+package smartstudentplatform.bench;
+
+import smartstudentplatform.core.RemoteShard;
+import smartstudentplatform.core.ShardServer;
+import smartstudentplatform.core.ShardedStudentManager;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Starts N ShardServer JVMs on this machine, loads the same generated roster into
+ * a ShardedStudentManager over them and into a plain StudentManager, then checks
+ * that searches, averages and rankings agree - before and after a round of
+ * updates, removals and new results.
+ *
+ * Usage: ShardHarness [shards] [students] [gradesPerStudent] [courses]
+ * Exits with status 1 if any check fails.
+ */
+public final class ShardHarness {
+    private ShardHarness() {}
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        int shardCount = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int grades = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int courses = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        List<Process> servers = new ArrayList<>();
+        try {
+            List<RemoteShard> shards = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                Process p = startServer();
+                servers.add(p);
+                shards.add(new RemoteShard("localhost", awaitPort(p)));
+            }
+            System.out.println("# shards=" + shardCount + " students=" + students
+                    + " grades/student=" + grades + " courses=" + courses);
+
+            StudentManager reference = AnalyticsBenchmark.roster(students, grades, courses, 42);
+            try (ShardedStudentManager sharded = new ShardedStudentManager(shards)) {
+                long t0 = System.nanoTime();
+                for (Student s : reference.getAll()) sharded.addStudent(s);
+                System.out.printf("load: %d ms%n", ms(t0));
+
+                compare("initial", reference, sharded);
+                mutate(reference, sharded, students);
+                compare("after updates", reference, sharded);
+                checkErrors(sharded);
+
+                Set<String> codes = courseCodes(reference);
+                long tr = System.nanoTime();
+                for (String c : codes) reference.classAverage(c);
+                long refMs = ms(tr);
+                long ts = System.nanoTime();
+                for (String c : codes) sharded.classAverage(c);
+                System.out.printf("classAverage x%d: single=%d ms sharded=%d ms%n", codes.size(), refMs, ms(ts));
+
+                for (RemoteShard s : shards) s.shutdownServer();
+            }
+        } finally {
+            for (Process p : servers) p.destroy();
+        }
+        System.out.println(failures == 0 ? "PASS" : "FAIL (" + failures + " checks)");
+        if (failures > 0) System.exit(1);
+    }
+
+    /* -------- Server processes -------- */
+    private static Process startServer() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ShardServer.class.getName(), "0")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static int awaitPort(Process p) throws IOException {
+        BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
+        String line = out.readLine();
+        if (line == null || !line.startsWith("LISTENING "))
+            throw new IllegalStateException("Shard server did not start: " + line);
+        return Integer.parseInt(line.substring("LISTENING ".length()).trim());
+    }
+
+    /* -------- Workload -------- */
+    private static void mutate(StudentManager reference, ShardedStudentManager sharded, int students) {
+        Random rnd = new Random(7);
+        Course extra = new Course("C9999", "Course C9999", 3);
+        for (int i = 0; i < students / 10; i++) {
+            String id = String.format("STU%07d", rnd.nextInt(students));
+            if (reference.linearSearch(id) == null) continue; // removed earlier in this loop
+            switch (rnd.nextInt(3)) {
+                case 0: {
+                    double cgpa = rnd.nextInt(501) / 100.0;
+                    reference.updateStudentCgpa(id, cgpa);
+                    sharded.updateStudentCgpa(id, cgpa);
+                    break;
+                }
+                case 1: {
+                    double score = rnd.nextInt(1001) / 10.0;
+                    reference.addResult(id, extra, score);
+                    sharded.addResult(id, extra, score);
+                    break;
+                }
+                default:
+                    reference.removeStudent(id);
+                    sharded.removeStudent(id);
+            }
+        }
+    }
+
+    /* -------- Checks -------- */
+    private static void compare(String phase, StudentManager reference, ShardedStudentManager sharded) {
+        long t0 = System.nanoTime();
+        int before = failures;
+        check(phase + " size", reference.getAll().size(), sharded.size());
+
+        for (String code : courseCodes(reference)) {
+            double expected = reference.classAverage(code), actual = sharded.classAverage(code);
+            // summation order differs between shards, so allow rounding noise
+            if (Math.abs(expected - actual) > 1e-9 * Math.max(1, Math.abs(expected)))
+                fail(phase + " classAverage " + code, expected, actual);
+        }
+
+        checkRanking(phase + " topByCgpa", reference.topByCgpa(10), sharded.topByCgpa(10), Student::getCgpa);
+        checkRanking(phase + " topByAvgScore", reference.topByAvgScore(10), sharded.topByAvgScore(10),
+                StudentManager::averageScore);
+        check(phase + " topPerformerByCgpa", reference.topPerformerByCgpa().map(Student::getCgpa).orElse(null),
+                sharded.topPerformerByCgpa().map(Student::getCgpa).orElse(null));
+
+        List<Student> all = reference.getAll();
+        for (int i = 0; i < all.size(); i += Math.max(1, all.size() / 500)) {
+            Student expected = all.get(i);
+            Student actual = sharded.search(expected.getId().toLowerCase(Locale.ROOT));
+            if (actual == null || !actual.getId().equals(expected.getId())
+                    || actual.getCgpa() != expected.getCgpa() || !actual.getGrades().equals(expected.getGrades()))
+                fail(phase + " search " + expected.getId(), expected, actual);
+        }
+        check(phase + " search missing", null, sharded.search("NO-SUCH-ID"));
+        System.out.printf("%s: %s (%d ms)%n", phase, failures == before ? "ok" : "mismatch", ms(t0));
+    }
+
+    private static void checkErrors(ShardedStudentManager sharded) {
+        try {
+            sharded.updateStudentCgpa("NO-SUCH-ID", 1.0);
+            fail("remote NoSuchElementException", "exception", "none");
+        } catch (NoSuchElementException expected) {
+            // propagated from the owning shard
+        }
+        try {
+            sharded.classAverage("NO-SUCH-COURSE");
+            fail("classAverage unknown course", "exception", "none");
+        } catch (IllegalStateException expected) {
+            // no shard has scores for it
+        }
+    }
+
+    // Ties may be broken differently, so compare the ranked values rather than the students
+    private static void checkRanking(String what, List<Student> expected, List<Student> actual,
+                                     Function<Student, Double> key) {
+        List<Double> e = new ArrayList<>(), a = new ArrayList<>();
+        for (Student s : expected) e.add(key.apply(s));
+        for (Student s : actual) a.add(key.apply(s));
+        check(what, e, a);
+    }
+
+    private static void check(String what, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) fail(what, expected, actual);
+    }
+
+    private static void fail(String what, Object expected, Object actual) {
+        failures++;
+        System.out.println("MISMATCH " + what + ": expected " + expected + " got " + actual);
+    }
+
+    private static Set<String> courseCodes(StudentManager manager) {
+        Set<String> codes = new TreeSet<>();
+        for (Student s : manager.getAll()) codes.addAll(s.getGrades().keySet());
+        return codes;
+    }
+
+    private static long ms(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,116 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * CgpaIndex counts, listings and standing bands agree with a plain filter over
+ * the roster, including CGPAs on band edges and ranges inside one bucket, and
+ * stay in step as students move, leave and arrive.
+ */
+public class CgpaIndexTest {
+    private static final int STUDENTS = 5_000;
+    private static final double[] EDGES = {0, 1.0, 1.5, 2.4, 3.5, 4.5, 5.0};
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 0, 10);
+    private final Random rnd = new Random(39);
+
+    @Test
+    public void agreesWithFilter() {
+        StudentManager manager = roster();
+        assertAgrees(manager);
+    }
+
+    @Test
+    public void agreesAfterUpdates() {
+        StudentManager manager = roster();
+        List<Student> all = manager.getAll();
+        for (int i = 0; i < 2_000; i++) {
+            Student s = all.get(rnd.nextInt(all.size()));
+            manager.updateStudentCgpa(s.getId(), cgpa());
+        }
+        List<String> gone = new ArrayList<>();
+        for (int i = 0; i < 500; i++) gone.add(all.get(rnd.nextInt(all.size())).getId());
+        manager.removeStudents(gone);
+        for (int i = 0; i < 300; i++) manager.addStudent(new Student("NEW/" + i, "New Student", cgpa()));
+        assertAgrees(manager);
+
+        manager.cgpaIndex().setBands(List.of(new CgpaIndex.Band("Low", 0), new CgpaIndex.Band("Mid", 2.005),
+                new CgpaIndex.Band("High", 4.0)));
+        assertAgrees(manager);
+
+        manager.clear();
+        assertEquals(0, manager.countByCgpa(0, 5));
+        assertAgrees(manager);
+    }
+
+    // Generated students plus some on and next to every band edge
+    private StudentManager roster() {
+        StudentManager manager = gen.roster(STUDENTS);
+        int n = 0;
+        for (double edge : EDGES) {
+            for (double v : new double[] {edge, Math.nextDown(edge), Math.nextUp(edge), edge - 0.005, edge + 0.005}) {
+                if (v >= 0 && v <= 5) manager.addStudent(new Student("EDGE/" + n++, "Edge Student", v));
+            }
+        }
+        return manager;
+    }
+
+    // Mostly two-decimal CGPAs, some edges and some arbitrary doubles
+    private double cgpa() {
+        switch (rnd.nextInt(4)) {
+            case 0: return EDGES[rnd.nextInt(EDGES.length)];
+            case 1: return rnd.nextDouble() * 5;
+            default: return rnd.nextInt(501) / 100.0;
+        }
+    }
+
+    private void assertAgrees(StudentManager manager) {
+        CgpaIndex index = manager.cgpaIndex();
+        List<Student> all = manager.getAll();
+        assertEquals(all.size(), index.size());
+
+        List<double[]> ranges = new ArrayList<>();
+        for (double lo : EDGES) for (double hi : EDGES) ranges.add(new double[] {lo, hi}); // includes lo > hi
+        ranges.add(new double[] {3.501, 3.509});   // inside one bucket
+        ranges.add(new double[] {3.5, 3.5});
+        ranges.add(new double[] {3.504, 3.505});
+        ranges.add(new double[] {-1, 0});
+        ranges.add(new double[] {5, 6});
+        ranges.add(new double[] {Math.nextUp(2.4), Math.nextDown(3.5)});
+        for (int i = 0; i < 200; i++) {
+            double a = rnd.nextInt(501) / 100.0, b = rnd.nextDouble() * 5;
+            ranges.add(new double[] {Math.min(a, b), Math.max(a, b)});
+        }
+        for (double[] r : ranges) {
+            String what = r[0] + ".." + r[1];
+            List<Student> expected = new ArrayList<>();
+            for (Student s : all) if (s.getCgpa() >= r[0] && s.getCgpa() <= r[1]) expected.add(s);
+            expected.sort(Comparator.comparingDouble(Student::getCgpa).reversed().thenComparing(Student::getId));
+            assertEquals(what, expected.size(), index.count(r[0], r[1]));
+            assertEquals(what, expected, index.list(r[0], r[1]));
+        }
+
+        // bands: the highest band whose minimum the CGPA reaches; the bottom one takes everything below
+        List<CgpaIndex.Band> bands = index.getBands();
+        Map<String, List<Student>> members = new LinkedHashMap<>();
+        for (CgpaIndex.Band b : bands) members.put(b.getName(), new ArrayList<>());
+        for (Student s : all) {
+            int i = 0;
+            while (i < bands.size() - 1 && s.getCgpa() < bands.get(i).getMin()) i++;
+            members.get(bands.get(i).getName()).add(s);
+        }
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Student>> m : members.entrySet()) {
+            expected.put(m.getKey(), m.getValue().size());
+            m.getValue().sort(Comparator.comparingDouble(Student::getCgpa).reversed().thenComparing(Student::getId));
+            assertEquals(m.getKey(), m.getValue(), index.studentsIn(m.getKey()));
+        }
+        assertEquals(expected, index.standingBreakdown());
+    }
+}
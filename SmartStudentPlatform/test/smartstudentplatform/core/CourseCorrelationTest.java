@@ -0,0 +1,89 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * The blocked, parallel kernel finds the same pairs, overlaps and
+ * coefficients as the textbook two-course loop, across several course blocks.
+ */
+public class CourseCorrelationTest {
+    private static final int MIN_OVERLAP = 5;
+
+    private final List<Student> roster = new DatasetGenerator(7, 20, 300).roster(3_000).getAll();
+    private final ScoreMatrix matrix = ScoreMatrix.of(roster);
+
+    @Test
+    public void blockedMatchesNaive() {
+        assertTrue("needs more than one block", matrix.courseCount() > CourseCorrelation.BLOCK);
+        CourseCorrelation result = CourseCorrelation.compute(matrix, 3, MIN_OVERLAP);
+
+        Map<String, Map<String, Double>> byCourse = new TreeMap<>();
+        for (Student s : roster) {
+            for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+                byCourse.computeIfAbsent(g.getKey(), c -> new HashMap<>()).put(s.getId(), g.getValue());
+            }
+        }
+        List<String> codes = new ArrayList<>(byCourse.keySet());
+        int kept = 0;
+        long dropped = 0;
+        for (int i = 0; i < codes.size(); i++) {
+            for (int j = i + 1; j < codes.size(); j++) {
+                double[] naive = naive(byCourse.get(codes.get(i)), byCourse.get(codes.get(j)));
+                CourseCorrelation.Pair p = result.pair(codes.get(i), codes.get(j));
+                int n = (int) naive[0];
+                if (n < MIN_OVERLAP) {
+                    if (n > 0) dropped++;
+                    assertNull(codes.get(i) + "/" + codes.get(j), p);
+                    continue;
+                }
+                kept++;
+                assertNotNull(codes.get(i) + "/" + codes.get(j), p);
+                assertEquals(codes.get(i), p.getCourseA());
+                assertEquals(n, p.getCoEnrolled());
+                assertEquals(p.toString(), naive[1], p.getR(), 1e-4);     // float scores and results
+                assertEquals(p.toString(), naive[2], p.getSlope(), 1e-3 * Math.max(1, Math.abs(naive[2])));
+            }
+        }
+        assertTrue(kept > 0 && dropped > 0);
+        assertEquals(kept, result.getPairCount());
+        assertEquals(dropped, result.getDroppedPairs());
+    }
+
+    @Test
+    public void sameResultAtAnyParallelism() {
+        CourseCorrelation one = CourseCorrelation.compute(matrix, 1, MIN_OVERLAP);
+        CourseCorrelation four = CourseCorrelation.compute(matrix, 4, MIN_OVERLAP);
+        assertEquals(one.getPairCount(), four.getPairCount());
+        for (int i = 0; i < one.getPairCount(); i++) assertEquals(one.get(i).toString(), four.get(i).toString());
+    }
+
+    @Test
+    public void courseLookupIgnoresCase() {
+        String code = matrix.courseCode(0);
+        assertEquals(0, matrix.courseIndex(code.toLowerCase(Locale.ROOT)));
+        assertEquals(-1, matrix.courseIndex("NO SUCH COURSE"));
+        CourseCorrelation result = CourseCorrelation.compute(matrix, 1, MIN_OVERLAP);
+        assertEquals(result.partnersOf(code).size(), result.partnersOf(code.toLowerCase(Locale.ROOT)).size());
+    }
+
+    // {co-enrolled, Pearson r, slope of b on a}
+    private static double[] naive(Map<String, Double> a, Map<String, Double> b) {
+        int n = 0;
+        double sa = 0, sb = 0, saa = 0, sbb = 0, sab = 0;
+        for (Map.Entry<String, Double> e : a.entrySet()) {
+            Double y = b.get(e.getKey());
+            if (y == null) continue;
+            double x = e.getValue();
+            n++;
+            sa += x; sb += y; saa += x * x; sbb += y * y; sab += x * y;
+        }
+        double cov = sab - sa * sb / n, va = saa - sa * sa / n, vb = sbb - sb * sb / n;
+        return new double[]{n, cov / Math.sqrt(va * vb), cov / va};
+    }
+}
@@ -0,0 +1,102 @@
+package smartstudentplatform.core;
+
+import org.junit.After;
+import org.junit.Test;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * After any mix of mutations the cache answers exactly as the manager does,
+ * and a mutation keeps the entries it does not touch.
+ */
+public class QueryCacheTest {
+    private static final int STUDENTS = 500;
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 8, 40);
+    private final StudentManager manager = gen.roster(STUDENTS);
+    private final QueryCache cache = new QueryCache(manager, 64);
+
+    @After
+    public void close() {
+        cache.close();
+    }
+
+    @Test
+    public void agreesWithManagerThroughRandomMutations() {
+        Random rnd = new Random(11);
+        List<String> codes = courseCodes();
+        for (int step = 0; step < 3_000; step++) {
+            String id = gen.id(rnd.nextInt(STUDENTS));
+            boolean present = manager.findById(id) != null;
+            switch (rnd.nextInt(9)) {
+                case 0 -> { if (present) manager.updateStudentCgpa(id, rnd.nextInt(501) / 100.0); }
+                case 1 -> {
+                    if (present) manager.addResult(id, gen.course(codes.get(rnd.nextInt(codes.size()))), rnd.nextInt(1001) / 10.0);
+                }
+                case 2 -> { if (present) manager.removeStudent(id); else manager.addStudent(gen.student(indexOf(id))); }
+                case 3 -> { if (present) manager.renameStudent(id, "Renamed " + step); }
+                case 4 -> manager.batch(() -> {
+                    if (manager.findById(id) != null) manager.updateStudentCgpa(id, 2.5);
+                    assertAgrees(codes, rnd); // inside a batch the cache must step aside
+                });
+                case 5 -> manager.sortByNameQuick();
+                default -> { } // reads only
+            }
+            assertAgrees(codes, rnd);
+        }
+        QueryCache.Stats stats = cache.stats();
+        assertTrue(stats.toString(), stats.getHits() > 0 && stats.getInvalidated() > 0 && stats.getBypassed() > 0);
+    }
+
+    @Test
+    public void gradeForOneCourseKeepsOtherCourses() {
+        List<String> codes = courseCodes();
+        String posted = codes.get(0), other = codes.get(1);
+        cache.classAverage(posted);
+        cache.classAverage(other);
+        long misses = cache.stats().getMisses();
+
+        manager.addResult(gen.id(3), gen.course(posted), 77);
+        cache.classAverage(other);
+        assertEquals(misses, cache.stats().getMisses());
+        assertEquals(manager.classAverage(posted), cache.classAverage(posted), 0);
+        assertEquals(misses + 1, cache.stats().getMisses());
+    }
+
+    @Test
+    public void cgpaChangeKeepsSearches() {
+        cache.linearSearch(gen.id(5));
+        long misses = cache.stats().getMisses();
+        manager.updateStudentCgpa(gen.id(9), 1.0);
+        assertSame(manager.linearSearch(gen.id(5)), cache.linearSearch(gen.id(5)));
+        assertEquals(misses, cache.stats().getMisses());
+    }
+
+    private void assertAgrees(List<String> codes, Random rnd) {
+        String code = codes.get(rnd.nextInt(codes.size()));
+        double[] e = manager.courseSumCount(code), a = cache.courseSumCount(code);
+        assertEquals(code, e[1], a[1], 0);
+        assertEquals(code, e[0], a[0], 1e-6); // a re-sorted roster sums in another order
+        assertEquals(manager.topPerformerByCgpa().map(Student::getCgpa), cache.topPerformerByCgpa().map(Student::getCgpa));
+        assertEquals(manager.topPerformerByAvgScore().map(StudentManager::averageScore),
+                cache.topPerformerByAvgScore().map(StudentManager::averageScore));
+        String id = gen.id(rnd.nextInt(STUDENTS));
+        String asked = rnd.nextBoolean() ? id : id.toLowerCase(Locale.ROOT);
+        assertSame(asked, manager.linearSearch(asked), cache.linearSearch(asked));
+    }
+
+    private List<String> courseCodes() {
+        Set<String> codes = new TreeSet<>();
+        for (Student s : manager.getAll()) codes.addAll(s.getGrades().keySet());
+        return new ArrayList<>(codes);
+    }
+
+    private int indexOf(String id) {
+        for (int i = 0; i < STUDENTS; i++) if (gen.id(i).equals(id)) return i;
+        throw new AssertionError(id);
+    }
+}
@@ -0,0 +1,108 @@
+package smartstudentplatform.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * The socket shards agree with one plain StudentManager on the same roster,
+ * before and after updates (the in-JVM part of bench.ShardHarness).
+ */
+public class ShardedStudentManagerTest {
+    private static final int STUDENTS = 2_000;
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 8, 40);
+    private final StudentManager reference = new StudentManager();
+    private ShardedStudentManager sharded;
+
+    @Before
+    public void startShards() throws IOException {
+        List<RemoteShard> shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ShardServer server = new ShardServer(0);
+            Thread t = new Thread(() -> {
+                try { server.serve(); } catch (IOException ignored) {}
+            }, "test-shard-" + i);
+            t.setDaemon(true);
+            t.start();
+            shards.add(new RemoteShard("localhost", server.getPort()));
+        }
+        sharded = new ShardedStudentManager(shards);
+        for (int i = 0; i < STUDENTS; i++) {
+            reference.addStudent(gen.student(i));
+            sharded.addStudent(gen.student(i));
+        }
+    }
+
+    @After
+    public void stopShards() throws IOException {
+        sharded.close();
+    }
+
+    @Test
+    public void agreesWithSingleManager() {
+        assertSame();
+    }
+
+    @Test
+    public void agreesAfterUpdates() {
+        Random rnd = new Random(7);
+        Course extra = new Course("NEW100", "New Course", 3);
+        for (int i = 0; i < STUDENTS / 5; i++) {
+            String id = gen.id(rnd.nextInt(STUDENTS));
+            if (reference.findById(id) == null) continue;
+            switch (rnd.nextInt(3)) {
+                case 0 -> {
+                    double cgpa = rnd.nextInt(501) / 100.0;
+                    reference.updateStudentCgpa(id, cgpa);
+                    sharded.updateStudentCgpa(id, cgpa);
+                }
+                case 1 -> {
+                    double score = rnd.nextInt(1001) / 10.0;
+                    reference.addResult(id, extra, score);
+                    sharded.addResult(id, extra, score);
+                }
+                default -> {
+                    reference.removeStudent(id);
+                    sharded.removeStudent(id);
+                }
+            }
+        }
+        assertSame();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void rejectsResultForUnknownStudent() {
+        sharded.addResult("NOPE", new Course("A", "B", 1), 50);
+    }
+
+    private void assertSame() {
+        assertEquals(reference.getAll().size(), sharded.size());
+        Set<String> codes = new TreeSet<>();
+        for (Student s : reference.getAll()) codes.addAll(s.getGrades().keySet());
+        for (String code : codes) {
+            // summation order differs between shards
+            assertEquals(code, reference.classAverage(code), sharded.classAverage(code), 1e-9);
+        }
+        assertEquals(cgpas(reference.topByCgpa(10)), cgpas(sharded.topByCgpa(10)));
+        for (int i = 0; i < STUDENTS; i += 37) {
+            Student e = reference.findById(gen.id(i)), a = sharded.search(gen.id(i));
+            assertEquals(gen.id(i), e == null, a == null);
+            if (e != null) assertEquals(e.getGrades(), a.getGrades());
+        }
+    }
+
+    private static List<Double> cgpas(List<Student> list) {
+        List<Double> out = new ArrayList<>();
+        for (Student s : list) out.add(s.getCgpa());
+        return out;
+    }
+}
@@ -0,0 +1,175 @@
+package smartstudentplatform.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.storage.DiskStudentStore;
+import smartstudentplatform.util.DatasetGenerator;
+import smartstudentplatform.util.FileManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * A StoredRoster over a DiskStudentStore answers the whole-roster operations
+ * as a StudentManager holding the same students does, and the shards' scans
+ * visit students in ID order.
+ */
+public class StoredRosterTest {
+    private static final int STUDENTS = 3_000, POOL_PAGES = 64;
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 8, 60);
+    private StudentManager reference;
+    private DiskStudentStore store;
+    private StoredRoster stored;
+
+    @Before
+    public void load() throws IOException {
+        reference = gen.roster(STUDENTS);
+        File csv = tmp.newFile("full.csv");
+        FileManager.saveStudentsFull(reference, csv);
+        store = DiskStudentStore.open(new File(tmp.getRoot(), "test.store"), POOL_PAGES);
+        stored = new StoredRoster(store);
+        FileManager.loadStudentsFull(stored, csv);
+    }
+
+    @After
+    public void close() throws IOException {
+        if (store != null) store.close();
+    }
+
+    @Test
+    public void cgpaQueriesMatchIndex() {
+        assertEquals(reference.size(), stored.size());
+        double[][] ranges = { {0, 5}, {0, 0}, {5, 5}, {2.4, 3.5}, {3.49, 3.5}, {3.501, 3.509}, {4.5, 4.5}, {3, 2} };
+        for (double[] r : ranges) {
+            String what = r[0] + ".." + r[1];
+            assertEquals(what, reference.countByCgpa(r[0], r[1]), stored.countByCgpa(r[0], r[1]));
+            assertEquals(what, ids(reference.studentsByCgpa(r[0], r[1])), ids(stored.studentsByCgpa(r[0], r[1])));
+        }
+        assertEquals(reference.standingBreakdown(), stored.standingBreakdown());
+
+        List<CgpaIndex.Band> bands = List.of(new CgpaIndex.Band("Low", 0), new CgpaIndex.Band("High", 3.0));
+        reference.cgpaIndex().setBands(bands);
+        stored.setBands(bands);
+        assertEquals(reference.standingBreakdown(), stored.standingBreakdown());
+    }
+
+    @Test
+    public void termReportMatchesInMemory() {
+        AnalyticsReport e = reference.analyticsReport(), a = stored.analyticsReport();
+        assertSameReport(e, a);
+
+        // several chunks, as a roster larger than REPORT_CHUNK would be fed
+        AnalyticsReport.Builder chunked = new AnalyticsReport.Builder(2, AnalyticsReport.DEFAULT_PASS_MARK);
+        List<Student> all = reference.getAll();
+        for (int from = 0; from < all.size(); from += 700) chunked.add(all.subList(from, Math.min(all.size(), from + 700)));
+        assertSameReport(e, chunked.build());
+    }
+
+    @Test
+    public void savesWhatItHolds() throws IOException {
+        File csv = tmp.newFile("again.csv");
+        FileManager.saveStudentsFull(stored, csv);
+        StudentManager reloaded = new StudentManager();
+        FileManager.loadStudentsFull(reloaded, csv);
+        assertEquals(reference.size(), reloaded.size());
+        for (Student e : reference.getAll()) {
+            Student a = reloaded.findById(e.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getCgpa(), a.getCgpa(), 0);
+            assertEquals(e.getGrades(), a.getGrades());
+        }
+    }
+
+    @Test
+    public void mutationsPublishAsStudentManager() {
+        List<StudentEvent> expected = new ArrayList<>(), actual = new ArrayList<>();
+        reference.events().subscribe(StudentEvent.class, Runnable::run, expected::addAll);
+        stored.events().subscribe(StudentEvent.class, Runnable::run, actual::addAll);
+        for (Roster r : List.<Roster>of(reference, stored)) {
+            r.renameStudent(gen.id(3), "Renamed Student");
+            r.replaceStudents(List.of(new Student(gen.id(4), "Fresh Student", 4.2)));
+            r.addResult(gen.id(3), new Course("NEW1", "New Course", 3), 71);
+            r.removeStudents(List.of(gen.id(5), gen.id(6)));
+        }
+        assertEquals(kinds(expected), kinds(actual));
+        Student renamed = stored.findById(gen.id(3));
+        assertEquals("Renamed Student", renamed.getName());
+        assertEquals(Double.valueOf(71), renamed.getGrades().get("NEW1"));
+        assertEquals(reference.findById(gen.id(3)).getGrades(), renamed.getGrades());
+        assertEquals(4.2, stored.findById(gen.id(4)).getCgpa(), 0);
+        assertNull(stored.findById(gen.id(4).toLowerCase(Locale.ROOT))); // exact IDs, as StudentManager
+        assertEquals(reference.size(), stored.size());
+
+        stored.clear();
+        assertEquals(0, stored.size());
+        assertTrue(actual.get(actual.size() - 1) instanceof StudentEvent.RosterCleared);
+    }
+
+    @Test
+    public void shardsScanInIdOrder() throws IOException {
+        ShardServer server = new ShardServer(0);
+        Thread t = new Thread(() -> {
+            try { server.serve(); } catch (IOException ignored) {}
+        }, "test-shard");
+        t.setDaemon(true);
+        t.start();
+        try (RemoteShard remote = new RemoteShard("localhost", server.getPort())) {
+            for (Student s : reference.getAll()) remote.addStudent(s);
+            List<String> expected = new ArrayList<>();
+            store.scan("", false, s -> expected.add(s.getId()));
+            assertEquals(STUDENTS, expected.size()); // several SCAN_PAGEs
+
+            List<String> local = new ArrayList<>(), remoteIds = new ArrayList<>();
+            new LocalShard(reference).scan("", false, s -> local.add(s.getId()));
+            remote.scan("", true, s -> remoteIds.add(s.getId()));
+            assertEquals(expected, local);
+            assertEquals(expected, remoteIds);
+
+            // from an ID on, stopping early
+            String from = expected.get(1_000);
+            List<String> part = new ArrayList<>();
+            remote.scan(from.toLowerCase(Locale.ROOT), false, s -> part.add(s.getId()) && part.size() < 600);
+            assertEquals(expected.subList(1_000, 1_600), part);
+        }
+    }
+
+    private static List<String> ids(List<Student> list) {
+        List<String> out = new ArrayList<>();
+        for (Student s : list) out.add(s.getId());
+        return out;
+    }
+
+    private static List<Class<?>> kinds(List<StudentEvent> events) {
+        List<Class<?>> out = new ArrayList<>();
+        for (StudentEvent e : events) out.add(e.getClass());
+        return out;
+    }
+
+    private static void assertSameReport(AnalyticsReport expected, AnalyticsReport actual) {
+        assertEquals(expected.getCourses().keySet(), actual.getCourses().keySet());
+        for (AnalyticsReport.CourseStats e : expected.getCourses().values()) {
+            AnalyticsReport.CourseStats a = actual.getCourses().get(e.getCode());
+            assertEquals(e.getCode(), e.getCount(), a.getCount());
+            assertEquals(e.getCode(), e.getMean(), a.getMean(), 1e-9);
+            assertEquals(e.getCode(), e.getStdDev(), a.getStdDev(), 1e-9);
+            assertEquals(e.getCode(), e.getMin(), a.getMin(), 0);
+            assertEquals(e.getCode(), e.getMax(), a.getMax(), 0);
+            assertEquals(e.getCode(), e.getPassRate(), a.getPassRate(), 1e-12);
+        }
+        assertEquals(expected.getStudentMeans().keySet(), actual.getStudentMeans().keySet());
+        for (Map.Entry<String, Double> m : expected.getStudentMeans().entrySet()) {
+            assertEquals(m.getKey(), m.getValue(), actual.getStudentMeans().get(m.getKey()), 1e-9);
+        }
+    }
+}
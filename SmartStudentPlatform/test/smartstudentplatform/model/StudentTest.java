@@ -0,0 +1,76 @@
+package smartstudentplatform.model;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Grade fields parse as the split(";") / split(":") code they replaced did:
+ * same grades, same course names, and a NumberFormatException exactly where
+ * the old code threw one.
+ */
+public class StudentTest {
+
+    @Test
+    public void skipsGradeWithoutScore() {
+        Student s = Student.fromCSV("S1,Ann,3.5,A:;B:70:Biology;C::;D");
+        assertEquals(Map.of("B", 70.0), s.getGrades());
+        assertEquals("Biology", s.getCourseName("B"));
+    }
+
+    @Test
+    public void quotedNameAndGradesRoundTrip() {
+        Student s = new Student("S2", "Smith, Jr.", 4.25);
+        s.addGrade("CSC100", "Intro; Part 1", 81.5);
+        s.addGrade("MTH200", "Calculus", 64);
+        Student back = Student.fromCSV(s.toCSV());
+        assertEquals(s.getName(), back.getName());
+        assertEquals(s.getGrades(), back.getGrades());
+        assertEquals("Calculus", back.getCourseName("MTH200"));
+    }
+
+    @Test
+    public void matchesSplitParsingOnRandomFields() {
+        String[] pieces = {"A", "B", "7", "7.5", "", ":", ":", ";", "Name"};
+        Random rnd = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder field = new StringBuilder();
+            for (int k = rnd.nextInt(8); k > 0; k--) field.append(pieces[rnd.nextInt(pieces.length)]);
+            String grades = field.toString();
+
+            Map<String, Double> expected = new HashMap<>();
+            Map<String, String> expectedNames = new HashMap<>();
+            boolean expectedThrow = false;
+            try {
+                splitParse(grades, expected, expectedNames);
+            } catch (NumberFormatException ex) {
+                expectedThrow = true;
+            }
+
+            Student s;
+            try {
+                s = Student.fromCSV("S,N,1," + grades);
+            } catch (NumberFormatException ex) {
+                assertTrue("threw on " + grades, expectedThrow);
+                continue;
+            }
+            assertFalse("accepted " + grades, expectedThrow);
+            assertEquals(grades, expected, s.getGrades());
+            for (String code : expected.keySet()) assertEquals(grades, expectedNames.get(code), s.getCourseName(code));
+        }
+    }
+
+    // The pre-tokenizer parser
+    private static void splitParse(String segment, Map<String, Double> grades, Map<String, String> names) {
+        if (segment.isEmpty()) return;
+        for (String token : segment.split(";")) {
+            String[] kv = token.split(":");
+            if (kv.length >= 2) {
+                grades.put(kv[0], Double.parseDouble(kv[1]));
+                names.put(kv[0], kv.length == 3 ? kv[2] : "Unknown Course");
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package smartstudentplatform.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.LocalShard;
+import smartstudentplatform.core.StoredRoster;
+import smartstudentplatform.core.StudentEvent;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.core.StudentShard;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * DiskStudentStore agrees with the in-memory LocalShard on the same roster,
+ * through a buffer pool small enough to evict (the checks of bench.DiskStoreHarness).
+ */
+public class DiskStudentStoreTest {
+    private static final int STUDENTS = 3_000, POOL_PAGES = 64;
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 10, 120);
+    private final LocalShard reference = new LocalShard();
+    private File file;
+    private DiskStudentStore store;
+
+    @Before
+    public void load() throws IOException {
+        file = new File(tmp.getRoot(), "test.store");
+        store = DiskStudentStore.open(file, POOL_PAGES);
+        for (int i = 0; i < STUDENTS; i++) {
+            store.addStudent(gen.student(i));
+            reference.addStudent(gen.student(i));
+        }
+    }
+
+    @After
+    public void close() throws IOException {
+        if (store != null) store.close();
+    }
+
+    @Test
+    public void agreesAfterLoad() {
+        assertSame(reference, store);
+    }
+
+    @Test
+    public void agreesAfterUpdatesAndReopen() throws IOException {
+        Random rnd = new Random(5);
+        for (int i = 0; i < STUDENTS / 10; i++) {
+            String id = gen.id(rnd.nextInt(STUDENTS));
+            double cgpa = Math.round(rnd.nextDouble() * 500) / 100.0;
+            reference.updateStudentCgpa(id, cgpa);
+            store.updateStudentCgpa(id, cgpa);
+            Course c = new Course("NEW" + rnd.nextInt(5), "New Course", 3);
+            double score = rnd.nextInt(1001) / 10.0;
+            reference.addResult(id, c, score);
+            store.addResult(id, c, score);
+        }
+        for (int i = 0; i < STUDENTS / 20; i++) {
+            String id = gen.id(rnd.nextInt(STUDENTS));
+            reference.removeStudent(id);
+            store.removeStudent(id);
+        }
+        assertSame(reference, store);
+
+        store.close();
+        store = DiskStudentStore.open(file, POOL_PAGES);
+        assertSame(reference, store);
+    }
+
+    @Test
+    public void rejectsDuplicatesIgnoringCase() {
+        String id = gen.id(STUDENTS - 1).toLowerCase(Locale.ROOT);
+        try {
+            store.addStudent(new Student(id, "x", 1));
+            fail("duplicate accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(STUDENTS, store.size());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void rejectsResultForUnknownStudent() {
+        store.addResult("NOPE", new Course("A", "B", 1), 50);
+    }
+
+    @Test
+    public void scanIsInIdOrder() {
+        List<String> ids = new ArrayList<>();
+        store.scan("", false, s -> ids.add(s.getId().toLowerCase(Locale.ROOT)));
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        assertEquals(STUDENTS, ids.size());
+        assertEquals(sorted, ids);
+    }
+
+    @Test
+    public void servesAsRosterEngine() {
+        StoredRoster manager = new StoredRoster(store);
+        List<StudentEvent> seen = new ArrayList<>();
+        manager.events().subscribe(StudentEvent.class, Runnable::run, seen::addAll);
+
+        String id = gen.id(7);
+        manager.updateStudentCgpa(id, 4.99);
+        manager.addResult(id, new Course("NEW1", "New Course", 3), 88);
+        assertEquals(4.99, manager.findById(id).getCgpa(), 0);
+        assertEquals(Double.valueOf(88), manager.linearSearch(id.toLowerCase(Locale.ROOT)).getGrades().get("NEW1"));
+        assertEquals(88, manager.classAverage("NEW1"), 0);
+        assertTrue(manager.topPerformerByCgpa().get().getCgpa() >= 4.99);
+        manager.removeStudent(id);
+        assertNull(manager.findById(id));
+        assertEquals(STUDENTS - 1, manager.size());
+        assertEquals(3, seen.size());
+        assertTrue(seen.get(2) instanceof StudentEvent.StudentRemoved);
+    }
+
+    private void assertSame(StudentShard expected, StudentShard actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < STUDENTS; i += 7) {
+            String id = gen.id(i);
+            Student e = expected.find(id), a = actual.find(id.toLowerCase(Locale.ROOT));
+            assertEquals(id, e == null, a == null);
+            if (e == null) continue;
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getCgpa(), a.getCgpa(), 0);
+            assertEquals(e.getGrades(), a.getGrades());
+        }
+        for (String code : List.of("CSC100", "MTH200", "NEW1", "NONE")) {
+            double[] e = expected.courseSumCount(code), a = actual.courseSumCount(code);
+            assertEquals(code, e[1], a[1], 0);
+            assertEquals(code, e[0], a[0], 1e-6); // summation order differs
+        }
+        assertEquals(cgpas(expected.topByCgpa(25)), cgpas(actual.topByCgpa(25)));
+        assertEquals(means(expected.topByAvgScore(25)), means(actual.topByAvgScore(25)));
+    }
+
+    private static List<Double> cgpas(List<Student> list) {
+        List<Double> out = new ArrayList<>();
+        for (Student s : list) out.add(s.getCgpa());
+        return out;
+    }
+
+    private static List<Long> means(List<Student> list) {
+        List<Long> out = new ArrayList<>();
+        for (Student s : list) out.add(Math.round(StudentManager.averageScore(s) * 1e6));
+        return out;
+    }
+}
@@ -0,0 +1,121 @@
+package smartstudentplatform.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+import smartstudentplatform.core.StudentEvent;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.DatasetGenerator;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kept current by events alone, the model shows exactly what a rebuild from
+ * the roster would, whether the events come one at a time, in small batches
+ * or in batches big enough to be applied in one pass.
+ */
+public class StudentTableModelTest {
+    private static final int STUDENTS = 400;
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 4, 20);
+    private final StudentManager manager = gen.roster(STUDENTS);
+    private final StudentTableModel model = new StudentTableModel();
+    private final Random rnd = new Random(3);
+
+    @Before
+    public void subscribe() {
+        model.rebuild(manager.getAll());
+        manager.events().subscribe(StudentEvent.class, Runnable::run, model::apply);
+    }
+
+    @Test
+    public void replacedStudentKeepsItsRows() {
+        String id = gen.id(3);
+        int row = firstRowOf(id);
+        Student fresh = new Student(id, "Replacement", 1.5);
+        fresh.addGrade("NEW100", "New Course", 60);
+        manager.replaceStudents(List.of(fresh));
+        assertEquals(row, firstRowOf(id));
+        assertEquals("Replacement", model.getValueAt(row, 1));
+        assertEquals("NEW100", model.getValueAt(row, 3));
+        assertMatchesRoster();
+    }
+
+    @Test
+    public void singleEventsMatchRoster() {
+        for (int i = 0; i < 300; i++) {
+            mutate(i);
+            assertMatchesRoster();
+        }
+    }
+
+    @Test
+    public void smallBatchesMatchRoster() {
+        for (int b = 0; b < 40; b++) {
+            int first = b * 10;
+            manager.batch(() -> { for (int i = first; i < first + 10; i++) mutate(i); });
+            assertMatchesRoster();
+        }
+    }
+
+    @Test
+    public void bigBatchesMatchRoster() {
+        for (int b = 0; b < 5; b++) {
+            int first = b * 500;
+            manager.batch(() -> { for (int i = first; i < first + 500; i++) mutate(i); });
+            assertMatchesRoster();
+        }
+        manager.batch(() -> {
+            for (int i = 0; i < 50; i++) mutate(i);
+            manager.clear();
+            for (int i = 0; i < 20; i++) manager.addStudent(gen.student(i));
+            for (int i = 0; i < 50; i++) mutate(i);
+        });
+        assertMatchesRoster();
+    }
+
+    // One random change to a random student
+    private void mutate(int step) {
+        int index = rnd.nextInt(STUDENTS);
+        Student s = manager.findById(gen.id(index));
+        if (s == null) {
+            manager.addStudent(gen.student(index));
+            return;
+        }
+        switch (rnd.nextInt(6)) {
+            case 0 -> manager.removeStudent(s.getId());
+            case 1 -> manager.updateStudentCgpa(s.getId(), rnd.nextInt(501) / 100.0);
+            case 2 -> manager.renameStudent(s.getId(), "Renamed " + step);
+            case 3 -> manager.addResult(s.getId(), gen.course(gen.student(rnd.nextInt(STUDENTS)).getGrades().keySet().iterator().next()),
+                    rnd.nextInt(1001) / 10.0);
+            case 4 -> {
+                Student fresh = gen.student(index);
+                fresh.setName("Replaced " + step);
+                manager.replaceStudents(List.of(fresh));
+            }
+            default -> {
+                manager.removeStudent(s.getId());
+                manager.addStudent(gen.student(index)); // back, at the end
+            }
+        }
+    }
+
+    private void assertMatchesRoster() {
+        StudentTableModel expected = new StudentTableModel();
+        expected.rebuild(manager.getAll());
+        assertEquals(expected.getStudentCount(), model.getStudentCount());
+        assertEquals(expected.getRowCount(), model.getRowCount());
+        for (int r = 0; r < expected.getRowCount(); r++) {
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertEquals("row " + r + " col " + c, expected.getValueAt(r, c), model.getValueAt(r, c));
+            }
+        }
+    }
+
+    private int firstRowOf(String id) {
+        for (int r = 0; r < model.getRowCount(); r++) if (id.equals(model.getValueAt(r, 0))) return r;
+        return -1;
+    }
+}
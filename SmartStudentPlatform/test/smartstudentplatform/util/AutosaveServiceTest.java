@@ -0,0 +1,114 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Autosaves load back as the roster they were taken from, including after
+ * more changes arrive while a save is being written.
+ */
+public class AutosaveServiceTest {
+    private static final long NEVER = TimeUnit.HOURS.toMillis(1); // saves come from the threshold only
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 6, 30);
+
+    @Test
+    public void savesAfterThresholdAndAgainAfterLaterChanges() throws Exception {
+        StudentManager manager = gen.roster(1_000);
+        File target = new File(tmp.getRoot(), "autosave.csv");
+        BlockingQueue<Object> outcomes = new ArrayBlockingQueue<>(100);
+        // owner executor: run on the mutating thread, as the EDT would
+        try (AutosaveService autosave = AutosaveService.start(manager, target, NEVER, 50, Runnable::run)) {
+            autosave.setListener(new AutosaveService.Listener() {
+                @Override public void onSaved(AutosaveService.SaveInfo info) { outcomes.add(info); }
+                @Override public void onFailed(Exception error) { outcomes.add(error); }
+            });
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < 50; i++) manager.updateStudentCgpa(gen.id(round * 50 + i), 4.0 + round / 10.0);
+                awaitSaved(manager.getAll(), target, outcomes);
+            }
+            assertNotNull(autosave.getLastSave());
+        }
+    }
+
+    @Test
+    public void flushWritesChangesBelowThreshold() throws Exception {
+        StudentManager manager = gen.roster(500);
+        File target = new File(tmp.getRoot(), "autosave.csv");
+        try (AutosaveService autosave = AutosaveService.start(manager, target, NEVER, 1_000, Runnable::run)) {
+            for (int i = 0; i < 10; i++) manager.updateStudentCgpa(gen.id(i), 1.25);
+            assertFalse(target.exists());
+            autosave.flush();
+            assertSameRoster(manager.getAll(), target);
+            assertEquals(0, autosave.getPendingChanges());
+        }
+    }
+
+    @Test
+    public void failedCaptureKeepsChangesPending() throws Exception {
+        StudentManager manager = gen.roster(200);
+        File target = new File(tmp.getRoot(), "autosave.csv");
+        BlockingQueue<Object> outcomes = new ArrayBlockingQueue<>(100);
+        try (AutosaveService autosave = AutosaveService.start(manager, target, NEVER, 1_000, Runnable::run)) {
+            autosave.setListener(new AutosaveService.Listener() {
+                @Override public void onSaved(AutosaveService.SaveInfo info) { outcomes.add(info); }
+                @Override public void onFailed(Exception error) { outcomes.add(error); }
+            });
+            manager.addStudent(new Student("ZZ-LOST", "Unreadable", 2.0, s -> { throw new IllegalStateException("grades gone"); }));
+            autosave.flush();
+            assertTrue(outcomes.poll() instanceof IllegalStateException);
+            assertFalse(target.exists());
+            assertEquals(1, autosave.getPendingChanges());
+
+            manager.removeStudent("ZZ-LOST");
+            autosave.flush();
+            assertTrue(outcomes.poll() instanceof AutosaveService.SaveInfo);
+            assertSameRoster(manager.getAll(), target);
+        }
+    }
+
+    // Saves requested while one is in flight collapse into a follow-up, so wait until the file catches up
+    private static void awaitSaved(List<Student> expected, File target, BlockingQueue<Object> outcomes) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            Object o = outcomes.poll(50, TimeUnit.MILLISECONDS);
+            if (o instanceof Exception) throw new AssertionError("save failed", (Exception) o);
+            if (target.exists()) {
+                try {
+                    assertSameRoster(expected, target);
+                    return;
+                } catch (AssertionError notYet) {
+                    if (System.nanoTime() > deadline) throw notYet;
+                }
+            } else {
+                assertTrue("no save within 30 s", System.nanoTime() < deadline);
+            }
+        }
+    }
+
+    private static void assertSameRoster(List<Student> expected, File file) throws Exception {
+        StudentManager loaded = new StudentManager();
+        FileManager.loadStudentsFull(loaded, file);
+        assertEquals(expected.size(), loaded.getAll().size());
+        for (int i = 0; i < expected.size(); i++) {
+            Student e = expected.get(i), a = loaded.getAll().get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getId(), e.getCgpa(), a.getCgpa(), 0);
+            assertEquals(e.getGrades(), a.getGrades());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package smartstudentplatform.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * fixed() and shortest() write what String.format("%.Nf") and Double.toString
+ * do: on random values, on exact ties, on negatives and -0.0, and on the
+ * values that take the JDK fallback.
+ */
+public class CsvWriterTest {
+    private final Random rnd = new Random(30);
+
+    @Test
+    public void randomValuesMatchJdk() throws IOException {
+        for (int i = 0; i < 200_000; i++) {
+            double v = rnd.nextDouble() * Math.pow(10, rnd.nextInt(13) - 4);
+            if (rnd.nextBoolean()) v = -v;
+            assertFixed(v, rnd.nextInt(5));
+            assertShortest(v);
+        }
+    }
+
+    @Test
+    public void valuesOurFilesHoldMatchJdk() throws IOException {
+        for (int i = 0; i <= 1_000; i++) { // scores (one decimal) and CGPAs (two)
+            for (int d = 0; d <= 4; d++) {
+                assertFixed(i / 10.0, d);
+                assertFixed(i / 200.0, d);
+            }
+            assertShortest(i / 10.0);
+            assertShortest(i / 200.0);
+        }
+    }
+
+    @Test
+    public void tiesRoundAsFormatterDoes() throws IOException {
+        for (int d = 0; d <= 3; d++) {
+            for (int i = 0; i < 20_000; i++) {
+                long k = rnd.nextInt(1_000_000);
+                String text = k / pow10(d) + "." + pad(k % pow10(d), d) + "5"; // e.g. 1.005, 0.125, 2.5
+                double v = Double.parseDouble(text);
+                assertFixed(v, d);
+                assertFixed(-v, d);
+                assertFixed(Math.nextUp(v), d);
+                assertFixed(Math.nextDown(v), d);
+            }
+        }
+    }
+
+    @Test
+    public void negativesAndZero() throws IOException {
+        for (double v : new double[] {0.0, -0.0, -0.001, -0.004, -0.005, -0.5, -1.5, -2.675, -99.995}) {
+            for (int d = 0; d <= 4; d++) assertFixed(v, d);
+            assertShortest(v);
+        }
+        assertEquals("-0.00", fixed(-0.0, 2));
+        assertEquals("-0.0", shortest(-0.0));
+        assertEquals("0.0", shortest(0.0));
+    }
+
+    @Test
+    public void fallbacksMatchJdk() throws IOException {
+        double[] values = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MAX_VALUE,
+                Double.MIN_VALUE, 1e9, -1e9, 123456789012.345, 1e7, 9_999_999.5, 1e-3, 9.999e-4, 1e-5,
+                0.1 + 0.2, 1.0 / 3, 2.0 / 3 * 1e6};
+        for (double v : values) {
+            for (int d = 0; d <= 6; d++) assertFixed(v, d); // 5 and 6 decimals always take String.format
+            assertShortest(v);
+            assertShortest(-v);
+        }
+    }
+
+    private static void assertFixed(double v, int decimals) throws IOException {
+        assertEquals(v + " to " + decimals, String.format("%." + decimals + "f", v), fixed(v, decimals));
+    }
+
+    private static void assertShortest(double v) throws IOException {
+        assertEquals(Double.toString(v), shortest(v));
+    }
+
+    private static String fixed(double v, int decimals) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter w = new CsvWriter(Channels.newChannel(out), 64)) {
+            w.fixed(v, decimals);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String shortest(double v) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter w = new CsvWriter(Channels.newChannel(out), 64)) {
+            w.shortest(v);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static long pow10(int d) {
+        long p = 1;
+        for (int i = 0; i < d; i++) p *= 10;
+        return p;
+    }
+
+    private static String pad(long v, int width) {
+        StringBuilder sb = new StringBuilder(Long.toString(v));
+        while (sb.length() < width) sb.insert(0, '0');
+        return sb.toString();
+    }
+}
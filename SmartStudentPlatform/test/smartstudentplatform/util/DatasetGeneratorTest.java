@@ -0,0 +1,79 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Generated rosters are reproducible and load back unchanged through every
+ * FileManager format (the data bench.ScaleTestRunner times).
+ */
+public class DatasetGeneratorTest {
+    private static final int STUDENTS = 1_500;
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 12, 60);
+
+    @Test
+    public void studentsArePureFunctionsOfSeedAndIndex() {
+        DatasetGenerator again = new DatasetGenerator(42, 12, 60);
+        for (int i = STUDENTS - 1; i >= 0; i -= 13) assertSameStudent(gen.student(i), again.student(i));
+        Student other = new DatasetGenerator(43, 12, 60).student(5);
+        assertNotEquals(gen.student(5).getGrades(), other.getGrades());
+    }
+
+    @Test
+    public void idsAreUniqueAndScoresInRange() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student s = gen.student(i);
+            assertTrue(s.getId(), ids.add(s.getId()));
+            assertTrue(s.getCgpa() >= 0 && s.getCgpa() <= 5);
+            for (double v : s.getGrades().values()) assertTrue(v >= 0 && v <= 100);
+        }
+    }
+
+    @Test
+    public void filesLoadBackAsTheSameRoster() throws IOException {
+        File dir = tmp.getRoot();
+        gen.writeAll(dir, STUDENTS);
+        List<Student> expected = gen.roster(STUDENTS).getAll();
+
+        StudentManager full = new StudentManager();
+        FileManager.loadStudentsFull(full, new File(dir, DatasetGenerator.STUDENTS_FULL));
+        assertSameRoster(expected, full.getAll());
+
+        StudentManager results = new StudentManager();
+        FileManager.loadStudents(results, new File(dir, DatasetGenerator.STUDENTS));
+        FileManager.loadResults(results, new File(dir, DatasetGenerator.RESULTS));
+        assertSameRoster(expected, results.getAll());
+
+        StudentManager archive = new StudentManager();
+        FileManager.loadArchive(archive, new File(dir, DatasetGenerator.ARCHIVE));
+        assertEquals(expected.size(), archive.getAll().size());
+        for (Student e : expected) assertSameStudent(e, archive.findById(e.getId())); // archive is in ID order
+    }
+
+    private static void assertSameRoster(List<Student> expected, List<Student> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) assertSameStudent(expected.get(i), actual.get(i));
+    }
+
+    private static void assertSameStudent(Student e, Student a) {
+        assertEquals(e.getId(), a.getId());
+        assertEquals(e.getId(), e.getName(), a.getName());
+        assertEquals(e.getId(), e.getCgpa(), a.getCgpa(), 0);
+        assertEquals(e.getId(), e.getGrades(), a.getGrades());
+    }
+}
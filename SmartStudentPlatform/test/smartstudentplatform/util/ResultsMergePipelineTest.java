@@ -0,0 +1,126 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Merging files gives what loading them one after another would, a file that
+ * fails halfway (even with an Error) contributes nothing, and no more than one
+ * file per parser is ever staged.
+ */
+public class ResultsMergePipelineTest {
+    private static final int STUDENTS = 600;
+    private static final int FILES = 6;
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 6, 30);
+    private final Random rnd = new Random(5);
+
+    @Test
+    public void lastFileWinsMatchesSequentialLoad() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (int f = 0; f < FILES; f++) files.add(writeFile("r" + f, 2_000 + f * 1_000, null));
+
+        StudentManager expected = gen.roster(STUDENTS);
+        for (File file : files) FileManager.loadResults(expected, file);
+
+        StudentManager actual = gen.roster(STUDENTS);
+        ResultsMergePipeline.Report r = new ResultsMergePipeline(3, 2, ResultsMergePipeline.DuplicatePolicy.LAST_FILE_WINS)
+                .merge(actual, files, Runnable::run);
+        assertEquals(FILES, r.getFilesMerged());
+        assertTrue(r.getFailures().isEmpty());
+        assertSameGrades(expected, actual);
+    }
+
+    @Test
+    public void failedFileContributesNothing() throws Exception {
+        File good = writeFile("good", 3_000, null);
+        File bad = writeFile("bad", 3_000, 2_500); // unreadable row after several chunks' worth
+
+        StudentManager expected = gen.roster(STUDENTS);
+        FileManager.loadResults(expected, good);
+
+        StudentManager actual = gen.roster(STUDENTS);
+        ResultsMergePipeline.Report r = new ResultsMergePipeline(2, 1, ResultsMergePipeline.DuplicatePolicy.LAST_FILE_WINS)
+                .merge(actual, List.of(good, bad), Runnable::run);
+        assertEquals(1, r.getFilesMerged());
+        assertEquals(Set.of(bad), r.getFailures().keySet());
+        assertSameGrades(expected, actual);
+    }
+
+    @Test(timeout = 30_000)
+    public void errorInParserFailsOnlyThatFile() throws Exception {
+        File good = writeFile("good", 3_000, null);
+        AtomicBoolean thrown = new AtomicBoolean();
+        File broken = new File(tmp.getRoot(), "broken.csv") {
+            @Override public String getPath() { // the parser's open fails with an Error, once
+                if (thrown.compareAndSet(false, true)) throw new OutOfMemoryError("simulated");
+                return super.getPath();
+            }
+        };
+
+        StudentManager expected = gen.roster(STUDENTS);
+        FileManager.loadResults(expected, good);
+
+        StudentManager actual = gen.roster(STUDENTS);
+        ResultsMergePipeline.Report r = new ResultsMergePipeline(2, 1, ResultsMergePipeline.DuplicatePolicy.LAST_FILE_WINS)
+                .merge(actual, List.of(good, broken), Runnable::run);
+        assertEquals(1, r.getFilesMerged());
+        assertTrue(r.getFailures().get(broken), r.getFailures().get(broken).contains("OutOfMemoryError"));
+        assertSameGrades(expected, actual);
+    }
+
+    @Test
+    public void stagesAtMostOneFilePerParser() throws Exception {
+        List<File> files = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int f = 0; f < FILES; f++) {
+            int n = 5_000 + rnd.nextInt(10_000);
+            files.add(writeFile("r" + f, n, null));
+            rows.add(n);
+        }
+        rows.sort(Comparator.reverseOrder());
+        for (int threads = 1; threads <= 3; threads++) {
+            ResultsMergePipeline.Report r = new ResultsMergePipeline(threads, 1, ResultsMergePipeline.DuplicatePolicy.HIGHEST_SCORE)
+                    .merge(gen.roster(STUDENTS), files, Runnable::run);
+            long bound = 0;
+            for (int i = 0; i < threads; i++) bound += rows.get(i);
+            assertTrue(threads + " parsers staged " + r.getPeakStagedRows(), r.getPeakStagedRows() <= bound);
+            assertTrue(r.getPeakStagedRows() > 0);
+        }
+    }
+
+    // rows random (student, course, score) rows; badRow, if set, gets a score that does not parse
+    private File writeFile(String name, int rows, Integer badRow) throws IOException {
+        File file = tmp.newFile(name + ".csv");
+        try (PrintWriter w = new PrintWriter(file, "UTF-8")) {
+            w.println("ID,CourseCode,CourseName,Credits,Score");
+            for (int i = 0; i < rows; i++) {
+                String code = "C" + rnd.nextInt(gen.getCourseCount());
+                String score = badRow != null && i == badRow ? "n/a" : String.valueOf(rnd.nextInt(1001) / 10.0);
+                w.println(gen.id(rnd.nextInt(STUDENTS)) + "," + code + ",Course " + code + ",3," + score);
+            }
+        }
+        return file;
+    }
+
+    private static void assertSameGrades(StudentManager expected, StudentManager actual) {
+        for (Student e : expected.getAll()) {
+            Student a = actual.findById(e.getId());
+            assertEquals(e.getId(), e.getGrades(), a.getGrades());
+            assertEquals(e.getId(), e.getCgpa(), a.getCgpa(), 1e-9);
+        }
+    }
+}
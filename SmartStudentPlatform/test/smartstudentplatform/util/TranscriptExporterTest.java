@@ -0,0 +1,60 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every transcript written is listed in the manifest with its checksum, and
+ * every one that could not be written is counted and listed as FAILED.
+ */
+public class TranscriptExporterTest {
+    private static final int STUDENTS = 300;
+
+    @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final DatasetGenerator gen = new DatasetGenerator(42, 6, 30);
+    private final StudentManager manager = gen.roster(STUDENTS);
+
+    @Test
+    public void manifestMatchesFiles() throws Exception {
+        File dir = tmp.newFolder("out");
+        TranscriptExporter.Result r = TranscriptExporter.write(TranscriptExporter.snapshot(manager), dir,
+                TranscriptExporter.Format.TEXT, 4);
+        assertEquals(STUDENTS, r.getFiles());
+        assertTrue(r.getFailures().isEmpty());
+        List<String> lines = Files.readAllLines(r.getManifest().toPath());
+        assertEquals(STUDENTS, lines.size());
+        long bytes = 0;
+        for (String line : lines) {
+            String sum = line.substring(0, 64), name = line.substring(66);
+            byte[] content = Files.readAllBytes(new File(dir, name).toPath());
+            assertEquals(name, sum, HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+            bytes += content.length;
+        }
+        assertEquals(bytes, r.getBytes());
+    }
+
+    @Test
+    public void failedFilesAreCountedAndListed() throws Exception {
+        File dir = tmp.newFolder("out");
+        String blocked = gen.id(7).replaceAll("[^A-Za-z0-9._-]", "_") + ".csv";
+        assertTrue(new File(dir, blocked).mkdir()); // a directory where the file should go
+        TranscriptExporter.Result r = TranscriptExporter.write(TranscriptExporter.snapshot(manager), dir,
+                TranscriptExporter.Format.CSV, 4);
+        assertEquals(STUDENTS - 1, r.getFiles());
+        assertEquals(List.of(gen.id(7)), List.copyOf(r.getFailures().keySet()));
+        List<String> lines = Files.readAllLines(r.getManifest().toPath());
+        assertEquals(STUDENTS, lines.size());
+        assertTrue(lines.get(STUDENTS - 1), lines.get(STUDENTS - 1).startsWith("# FAILED " + blocked + ": "));
+    }
+}